@@ -1,20 +1,19 @@
 package com.pengyifan.bioc;
 
 import com.google.common.collect.Maps;
-import com.google.common.collect.Range;
-import com.google.common.collect.RangeSet;
-import com.google.common.collect.Sets;
-import com.google.common.collect.TreeRangeSet;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
-import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -27,15 +26,18 @@ public class BioCAnnotation implements HasInfons, HasText, HasID, BioCObject {
 
   private String id;
   private Map<String, String> infons;
-  private Set<BioCLocation> locations;
-  private String text;
+  private BioCLocationSet locations;
+  private BioCText text;
+  // the structures that index the annotation, see BioCIndexOwners
+  Object owners;
 
   /**
    * Constructs an empty annotation.
    */
   public BioCAnnotation() {
     infons = Maps.newHashMap();
-    locations = Sets.newHashSet();
+    locations = new BioCLocationSet();
+    text = new BioCText();
   }
 
   /**
@@ -46,7 +48,8 @@ public class BioCAnnotation implements HasInfons, HasText, HasID, BioCObject {
   public BioCAnnotation(String id) {
     this.id = id;
     infons = Maps.newHashMap();
-    locations = Sets.newHashSet();
+    locations = new BioCLocationSet();
+    text = new BioCText();
   }
 
   /**
@@ -57,7 +60,7 @@ public class BioCAnnotation implements HasInfons, HasText, HasID, BioCObject {
   public BioCAnnotation(BioCAnnotation annotation) {
     this();
     setID(annotation.id);
-    setText(annotation.text);
+    text = new BioCText(annotation.text);
     setInfons(annotation.infons);
     setLocations(annotation.locations);
   }
@@ -99,7 +102,7 @@ public class BioCAnnotation implements HasInfons, HasText, HasID, BioCObject {
     }
     BioCAnnotation rhs = (BioCAnnotation) obj;
     return Objects.equals(id, rhs.id)
-        && Objects.equals(text, rhs.text)
+        && Objects.equals(text.get(), rhs.text.get())
         && Objects.equals(infons, rhs.infons)
         && Objects.equals(locations, rhs.locations);
   }
@@ -126,6 +129,9 @@ public class BioCAnnotation implements HasInfons, HasText, HasID, BioCObject {
 
   /**
    * Returns locations of the annotated text. Multiple locations indicate a multi-span annotation.
+   * Locations are kept compactly in the order they are added, and are stored by value: changing a
+   * location after it is added, or a location returned by the set, does not change this
+   * annotation.
    *
    * @return locations of the annotated text
    */
@@ -135,29 +141,40 @@ public class BioCAnnotation implements HasInfons, HasText, HasID, BioCObject {
 
   @Override
   public Optional<String> getText() {
-    return Optional.ofNullable(text);
+    return Optional.ofNullable(text.get());
   }
 
   /**
-   * Returns the minimal range which encloses all locations in this annotation.
+   * Returns the minimal range which encloses all locations in this annotation. Locations of zero
+   * length are ignored. The range is kept up to date as locations are added and removed, so this
+   * takes constant time.
    *
    * @return the minimal range which encloses all locations in this annotation
    */
   public BioCLocation getTotalLocation() {
-    checkArgument(getLocationCount() > 0, "No location added");
-    RangeSet<Integer> rangeSet = TreeRangeSet.create();
-    for (BioCLocation location : getLocations()) {
-      rangeSet.add(
-          Range.closedOpen(location.getOffset(), location.getOffset() + location.getLength()));
+    return BioCPackedLocation.unpack(locations.span());
+  }
+
+  /**
+   * Returns the locations of this annotation sorted by offset, where locations that overlap or
+   * touch are merged into one, and locations of zero length are ignored. For example, the
+   * locations {@code [5, 8)}, {@code [0, 3)} and {@code [2, 4)} are coalesced into {@code [0, 4)}
+   * and {@code [5, 8)}.
+   *
+   * @return the coalesced locations of this annotation, which is empty if there is no location
+   */
+  public List<BioCLocation> getCoalescedLocations() {
+    long[] coalesced = locations.coalesced();
+    List<BioCLocation> spans = new ArrayList<>(coalesced.length);
+    for (long location : coalesced) {
+      spans.add(BioCPackedLocation.unpack(location));
     }
-    Range<Integer> totalSpan = rangeSet.span();
-    return new BioCLocation(totalSpan.lowerEndpoint(),
-        totalSpan.upperEndpoint() - totalSpan.lowerEndpoint());
+    return Collections.unmodifiableList(spans);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(id, text, infons, locations);
+    return Objects.hash(id, text.get(), infons, locations);
   }
 
   /**
@@ -171,7 +188,18 @@ public class BioCAnnotation implements HasInfons, HasText, HasID, BioCObject {
 
   @Override
   public void setID(String id) {
+    String oldID = this.id;
     this.id = id;
+    if (owners != null && !Objects.equals(oldID, id)) {
+      BioCIndexOwners.renamed(owners, this, oldID);
+    }
+  }
+
+  /**
+   * Returns the id, or null if it is not set.
+   */
+  String id() {
+    return id;
   }
 
   /**
@@ -186,14 +214,19 @@ public class BioCAnnotation implements HasInfons, HasText, HasID, BioCObject {
 
   @Override
   public void setText(String text) {
-    this.text = text;
+    this.text.set(text);
+  }
+
+  @Override
+  public void setLazyText(Supplier<String> text) {
+    this.text.setLazy(text);
   }
 
   @Override
   public String toString() {
     return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
         .append("id", id)
-        .append("text", text)
+        .append("text", text.get())
         .append("infons", infons)
         .append("locations", locations)
         .toString();
@@ -0,0 +1,109 @@
+package com.pengyifan.bioc;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+
+/**
+ * The indexes that contain an element, so that only they are updated when the
+ * element changes its key. An element keeps them in a single field, which is
+ * null if no index contains it, a weak reference to the index if one does,
+ * and an instance of this class if several do, e.g., when a structure is
+ * copied. All indexes are held by weak references, so that an element does
+ * not keep a structure that has been dropped alive.
+ */
+final class BioCIndexOwners {
+
+  /**
+   * An index that has to be told when one of its elements changes its key.
+   *
+   * @param <T> the type of elements
+   */
+  interface Owner<T> {
+
+    /**
+     * Updates the index after the element has changed its key.
+     *
+     * @param element the element, whose new key is set
+     * @param oldKey the previous key of the element
+     */
+    void renamed(T element, String oldKey);
+  }
+
+  private final ArrayList<WeakReference<Owner<?>>> owners;
+
+  private BioCIndexOwners(WeakReference<Owner<?>> owner) {
+    this.owners = new ArrayList<>(2);
+    this.owners.add(owner);
+  }
+
+  /**
+   * Returns the owners of an element after the index is added to them.
+   */
+  @SuppressWarnings("unchecked")
+  static Object add(Object owners, Owner<?> owner) {
+    if (owners == null) {
+      return new WeakReference<>(owner);
+    }
+    if (owners instanceof WeakReference) {
+      WeakReference<Owner<?>> reference = (WeakReference<Owner<?>>) owners;
+      Owner<?> first = reference.get();
+      if (first == owner) {
+        return owners;
+      }
+      if (first == null) {
+        return new WeakReference<>(owner);
+      }
+      owners = new BioCIndexOwners(reference);
+    }
+    BioCIndexOwners multiple = (BioCIndexOwners) owners;
+    boolean isPresent = false;
+    for (int i = multiple.owners.size() - 1; i >= 0; i--) {
+      Owner<?> other = multiple.owners.get(i).get();
+      if (other == null) {
+        multiple.owners.remove(i);
+      } else if (other == owner) {
+        isPresent = true;
+      }
+    }
+    if (!isPresent) {
+      multiple.owners.add(new WeakReference<>(owner));
+    }
+    return multiple;
+  }
+
+  /**
+   * Returns the owners of an element after the index is removed from them.
+   */
+  static Object remove(Object owners, Owner<?> owner) {
+    if (owners instanceof WeakReference) {
+      Object first = ((WeakReference<?>) owners).get();
+      return first == owner || first == null ? null : owners;
+    }
+    if (!(owners instanceof BioCIndexOwners)) {
+      return owners;
+    }
+    BioCIndexOwners multiple = (BioCIndexOwners) owners;
+    multiple.owners.removeIf(r -> r.get() == null || r.get() == owner);
+    return multiple.owners.isEmpty() ? null : multiple;
+  }
+
+  /**
+   * Tells the owners of an element that it has changed its key.
+   */
+  @SuppressWarnings("unchecked")
+  static <T> void renamed(Object owners, T element, String oldKey) {
+    if (owners instanceof WeakReference) {
+      Owner<T> owner = ((WeakReference<Owner<T>>) owners).get();
+      if (owner != null) {
+        owner.renamed(element, oldKey);
+      }
+    } else if (owners instanceof BioCIndexOwners) {
+      for (WeakReference<Owner<?>> reference : ((BioCIndexOwners) owners).owners) {
+        Owner<T> owner = (Owner<T>) reference.get();
+        if (owner != null) {
+          owner.renamed(element, oldKey);
+        }
+      }
+    }
+  }
+}
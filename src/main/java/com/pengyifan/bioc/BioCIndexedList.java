@@ -0,0 +1,227 @@
+package com.pengyifan.bioc;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A list that also indexes its elements by id, so that an element can be
+ * found by its id in constant time. The index is kept consistent however the
+ * list is modified, including through iterators and sub lists. If several
+ * elements have the same id, the first one is found.
+ * <p>
+ * The index is updated when the list is modified, never when it is read, so
+ * that a list that is no longer modified can be read by several threads. An
+ * element knows the lists that contain it, see {@link BioCIndexOwners}, and
+ * tells only them when it changes its id.
+ *
+ * @param <T> the type of elements
+ */
+final class BioCIndexedList<T> extends AbstractList<T>
+    implements RandomAccess, BioCIndexOwners.Owner<T> {
+
+  private final Function<T, String> key;
+  private final Function<T, Object> owners;
+  private final BiConsumer<T, Object> setOwners;
+  private final ArrayList<T> elements;
+  private final HashMap<String, T> index;
+  // the number of elements that have an id, which exceeds the size of the
+  // index by the number of elements whose id is shared with an earlier one
+  private int keyed;
+
+  /**
+   * Creates an empty list.
+   *
+   * @param key returns the id of an element, or null if it has no id
+   * @param owners returns the owners field of an element
+   * @param setOwners sets the owners field of an element
+   */
+  BioCIndexedList(Function<T, String> key, Function<T, Object> owners,
+      BiConsumer<T, Object> setOwners) {
+    this.key = key;
+    this.owners = owners;
+    this.setOwners = setOwners;
+    this.elements = new ArrayList<>();
+    this.index = new HashMap<>();
+  }
+
+  /**
+   * Returns the first element of the id, or null if there is none.
+   */
+  T getByID(String id) {
+    return index.get(id);
+  }
+
+  @Override
+  public void renamed(T element, String oldKey) {
+    // the element may be in the list more than once
+    int count = hasDuplicates() ? countSame(element) : 1;
+    if (oldKey != null) {
+      keyed -= count;
+      if (index.get(oldKey) == element) {
+        index.remove(oldKey);
+        if (hasDuplicates()) {
+          reindex(oldKey);
+        }
+      }
+    }
+    String id = key.apply(element);
+    if (id != null) {
+      keyed += count;
+      if (index.putIfAbsent(id, element) != null) {
+        // the element may come before the indexed one
+        reindex(id);
+      }
+    }
+  }
+
+  /**
+   * Returns true if an id is shared by several elements.
+   */
+  private boolean hasDuplicates() {
+    return keyed > index.size();
+  }
+
+  /**
+   * Indexes the first element of the id.
+   */
+  private void reindex(String id) {
+    for (T element : elements) {
+      if (element != null && id.equals(key.apply(element))) {
+        index.put(id, element);
+        return;
+      }
+    }
+    index.remove(id);
+  }
+
+  /**
+   * Indexes the element.
+   *
+   * @param isLast true if no element with the same id follows the element
+   */
+  private void index(T element, boolean isLast) {
+    if (element == null) {
+      return;
+    }
+    setOwners.accept(element, BioCIndexOwners.add(owners.apply(element), this));
+    String id = key.apply(element);
+    if (id == null) {
+      return;
+    }
+    keyed++;
+    if (index.putIfAbsent(id, element) != null) {
+      if (!isLast) {
+        // the element may come before the indexed one
+        reindex(id);
+      }
+    }
+  }
+
+  /**
+   * Unindexes the element, which has been removed from the list.
+   */
+  private void unindex(T element) {
+    if (element == null) {
+      return;
+    }
+    if (!hasDuplicates() || countSame(element) == 0) {
+      setOwners.accept(element, BioCIndexOwners.remove(owners.apply(element), this));
+    }
+    String id = key.apply(element);
+    if (id == null) {
+      return;
+    }
+    keyed--;
+    if (index.get(id) == element) {
+      index.remove(id);
+      if (hasDuplicates()) {
+        // another element of the id may have to take its place
+        reindex(id);
+      }
+    }
+  }
+
+  private int countSame(T element) {
+    int count = 0;
+    for (T e : elements) {
+      if (e == element) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public T get(int i) {
+    return elements.get(i);
+  }
+
+  @Override
+  public int size() {
+    return elements.size();
+  }
+
+  @Override
+  public T set(int i, T element) {
+    T old = elements.set(i, element);
+    unindex(old);
+    index(element, false);
+    return old;
+  }
+
+  @Override
+  public void add(int i, T element) {
+    elements.add(i, element);
+    modCount++;
+    index(element, i == elements.size() - 1);
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends T> c) {
+    int size = elements.size();
+    elements.addAll(c);
+    modCount++;
+    for (int i = size; i < elements.size(); i++) {
+      index(elements.get(i), true);
+    }
+    return elements.size() != size;
+  }
+
+  @Override
+  public T remove(int i) {
+    T element = elements.remove(i);
+    modCount++;
+    unindex(element);
+    return element;
+  }
+
+  @Override
+  protected void removeRange(int fromIndex, int toIndex) {
+    List<T> range = elements.subList(fromIndex, toIndex);
+    List<T> removed = new ArrayList<>(range);
+    range.clear();
+    modCount++;
+    for (T element : removed) {
+      unindex(element);
+    }
+  }
+
+  @Override
+  public void clear() {
+    for (T element : elements) {
+      if (element != null) {
+        setOwners.accept(element, BioCIndexOwners.remove(owners.apply(element), this));
+      }
+    }
+    elements.clear();
+    modCount++;
+    index.clear();
+    keyed = 0;
+  }
+}
@@ -1,6 +1,5 @@
 package com.pengyifan.bioc;
 
-import java.util.Objects;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
@@ -15,8 +14,8 @@ import static com.google.common.base.Preconditions.checkArgument;
  */
 public class BioCLocation implements HasOffset, BioCObject {
 
-  private Integer offset;
-  private Integer length;
+  private int offset;
+  private int length;
 
   /**
    * Constructs a newly <code>BioCLocation</code> object that has offset and length.
@@ -47,8 +46,8 @@ public class BioCLocation implements HasOffset, BioCObject {
       return false;
     }
     BioCLocation rhs = (BioCLocation) obj;
-    return Objects.equals(offset, rhs.offset)
-        && Objects.equals(length, rhs.length);
+    return offset == rhs.offset
+        && length == rhs.length;
   }
 
   /**
@@ -74,7 +73,8 @@ public class BioCLocation implements HasOffset, BioCObject {
 
   @Override
   public int hashCode() {
-    return Objects.hash(offset, length);
+    // same as Objects.hash(offset, length), without boxing
+    return 31 * (31 + offset) + length;
   }
 
   /**
@@ -91,6 +91,17 @@ public class BioCLocation implements HasOffset, BioCObject {
     this.offset = offset;
   }
 
+  /**
+   * Returns this location packed into a long, e.g., to store many locations
+   * in a {@code long[]}.
+   *
+   * @return this location packed into a long
+   * @see BioCPackedLocation
+   */
+  public long pack() {
+    return BioCPackedLocation.pack(offset, length);
+  }
+
   @Override
   public String toString() {
     return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE).
@@ -0,0 +1,316 @@
+package com.pengyifan.bioc;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+
+/**
+ * The locations of an annotation, in the order they are added. Up to
+ * {@value #MAX_INLINE} locations are stored as packed longs in an array that
+ * is searched linearly; more locations are stored in a hash set of packed
+ * longs.
+ * <p>
+ * Locations are stored by value: the set holds copies of the locations that
+ * are added, and its iterator returns new locations. Null is not permitted.
+ * <p>
+ * The span of the locations is updated when the set is modified, never when
+ * it is read, so that a set that is no longer modified can be read by several
+ * threads. The coalesced spans are computed on every call.
+ *
+ * @see BioCPackedLocation
+ */
+final class BioCLocationSet extends AbstractSet<BioCLocation> {
+
+  static final int MAX_INLINE = 8;
+
+  // the inline locations, or null if there are none or the set has grown
+  private long[] packed;
+  private int size;
+  // the locations once there are more than MAX_INLINE of them
+  private LinkedHashSet<Long> set;
+  private int modCount;
+
+  // the packed span of the locations that are not empty, if hasSpan
+  private long span;
+  private boolean hasSpan;
+
+  private int indexOf(long location) {
+    for (int i = 0; i < size; i++) {
+      if (packed[i] == location) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Adds the packed location.
+   *
+   * @return true if the set did not contain the location
+   */
+  boolean addPacked(long location) {
+    if (set != null) {
+      if (set.add(location)) {
+        modCount++;
+        extendSpan(location);
+        return true;
+      }
+      return false;
+    }
+    if (indexOf(location) != -1) {
+      return false;
+    }
+    if (size == MAX_INLINE) {
+      set = new LinkedHashSet<>();
+      for (int i = 0; i < size; i++) {
+        set.add(packed[i]);
+      }
+      set.add(location);
+      packed = null;
+      size = 0;
+    } else {
+      if (packed == null) {
+        packed = new long[1];
+      } else if (size == packed.length) {
+        long[] grown = new long[Math.min(size * 2, MAX_INLINE)];
+        System.arraycopy(packed, 0, grown, 0, size);
+        packed = grown;
+      }
+      packed[size++] = location;
+    }
+    modCount++;
+    extendSpan(location);
+    return true;
+  }
+
+  /**
+   * Returns the locations in packed form, in the order they are added.
+   */
+  long[] toPackedArray() {
+    if (set == null) {
+      long[] locations = new long[size];
+      if (size > 0) {
+        System.arraycopy(packed, 0, locations, 0, size);
+      }
+      return locations;
+    }
+    long[] locations = new long[set.size()];
+    int i = 0;
+    for (long location : set) {
+      locations[i++] = location;
+    }
+    return locations;
+  }
+
+  /**
+   * Returns the packed span of the locations, i.e., the smallest location
+   * that encloses all of them. Empty locations, whose length is not positive,
+   * are ignored.
+   *
+   * @throws IllegalArgumentException if the set is empty
+   * @throws NoSuchElementException if all locations are empty
+   */
+  long span() {
+    checkArgument(size() > 0, "No location added");
+    if (!hasSpan) {
+      throw new NoSuchElementException("No location of positive length");
+    }
+    return span;
+  }
+
+  /**
+   * Extends the span to the location that has been added.
+   */
+  private void extendSpan(long location) {
+    if (isEmpty(location)) {
+      return;
+    }
+    if (!hasSpan) {
+      span = location;
+      hasSpan = true;
+      return;
+    }
+    int start = Math.min(BioCPackedLocation.getOffset(span),
+        BioCPackedLocation.getOffset(location));
+    int end = Math.max(BioCPackedLocation.getEnd(span), BioCPackedLocation.getEnd(location));
+    span = BioCPackedLocation.pack(start, end - start);
+  }
+
+  /**
+   * Recomputes the span after a location has been removed.
+   */
+  private void updateSpan() {
+    hasSpan = false;
+    if (set == null) {
+      for (int i = 0; i < size; i++) {
+        extendSpan(packed[i]);
+      }
+    } else {
+      for (long location : set) {
+        extendSpan(location);
+      }
+    }
+  }
+
+  /**
+   * Returns the packed locations sorted by offset, where locations that
+   * overlap or touch are merged into one. Empty locations, whose length is not
+   * positive, are ignored.
+   */
+  long[] coalesced() {
+    long[] locations = toPackedArray();
+    int n = 0;
+    for (long location : locations) {
+      if (!isEmpty(location)) {
+        locations[n++] = location;
+      }
+    }
+    // packed locations of positive lengths sort by offset
+    Arrays.sort(locations, 0, n);
+    int m = 0;
+    for (int i = 0; i < n; i++) {
+      long location = locations[i];
+      int offset = BioCPackedLocation.getOffset(location);
+      int end = BioCPackedLocation.getEnd(location);
+      if (m > 0 && offset <= BioCPackedLocation.getEnd(locations[m - 1])) {
+        int start = BioCPackedLocation.getOffset(locations[m - 1]);
+        end = Math.max(end, BioCPackedLocation.getEnd(locations[m - 1]));
+        locations[m - 1] = BioCPackedLocation.pack(start, end - start);
+      } else {
+        locations[m++] = location;
+      }
+    }
+    return m == locations.length ? locations : Arrays.copyOf(locations, m);
+  }
+
+  private static boolean isEmpty(long location) {
+    return BioCPackedLocation.getLength(location) <= 0;
+  }
+
+  @Override
+  public boolean add(BioCLocation location) {
+    checkNotNull(location, "location cannot be null");
+    return addPacked(location.pack());
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    if (!(o instanceof BioCLocation)) {
+      return false;
+    }
+    long location = ((BioCLocation) o).pack();
+    return set != null ? set.contains(location) : indexOf(location) != -1;
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    if (!(o instanceof BioCLocation)) {
+      return false;
+    }
+    long location = ((BioCLocation) o).pack();
+    if (set != null) {
+      if (set.remove(location)) {
+        modCount++;
+        updateSpan();
+        return true;
+      }
+      return false;
+    }
+    int i = indexOf(location);
+    if (i == -1) {
+      return false;
+    }
+    removeAt(i);
+    return true;
+  }
+
+  private void removeAt(int i) {
+    System.arraycopy(packed, i + 1, packed, i, size - i - 1);
+    size--;
+    modCount++;
+    updateSpan();
+  }
+
+  @Override
+  public int size() {
+    return set != null ? set.size() : size;
+  }
+
+  @Override
+  public void clear() {
+    packed = null;
+    size = 0;
+    set = null;
+    modCount++;
+    hasSpan = false;
+  }
+
+  @Override
+  public Iterator<BioCLocation> iterator() {
+    if (set != null) {
+      Iterator<Long> itr = set.iterator();
+      return new Iterator<BioCLocation>() {
+
+        @Override
+        public boolean hasNext() {
+          return itr.hasNext();
+        }
+
+        @Override
+        public BioCLocation next() {
+          return BioCPackedLocation.unpack(itr.next());
+        }
+
+        @Override
+        public void remove() {
+          itr.remove();
+          modCount++;
+          updateSpan();
+        }
+      };
+    }
+    return new Iterator<BioCLocation>() {
+
+      private int cursor;
+      private int last = -1;
+      private int expectedModCount = modCount;
+
+      @Override
+      public boolean hasNext() {
+        return cursor < size;
+      }
+
+      @Override
+      public BioCLocation next() {
+        if (modCount != expectedModCount) {
+          throw new ConcurrentModificationException();
+        }
+        if (cursor >= size) {
+          throw new NoSuchElementException();
+        }
+        last = cursor++;
+        return BioCPackedLocation.unpack(packed[last]);
+      }
+
+      @Override
+      public void remove() {
+        if (last == -1) {
+          throw new IllegalStateException();
+        }
+        if (modCount != expectedModCount) {
+          throw new ConcurrentModificationException();
+        }
+        removeAt(last);
+        cursor = last;
+        last = -1;
+        expectedModCount = modCount;
+      }
+    };
+  }
+}
@@ -16,6 +16,8 @@ public class BioCNode implements BioCObject {
 
   private String refid;
   private String role;
+  // the relations that index the node, see BioCIndexOwners
+  Object owners;
 
   /**
    * Constructs a newly <code>BioCNode</code> object that has id and role.
@@ -96,7 +98,18 @@ public class BioCNode implements BioCObject {
    *             current relation
    */
   public void setRole(String role) {
+    String oldRole = this.role;
     this.role = role;
+    if (owners != null && !Objects.equals(oldRole, role)) {
+      BioCIndexOwners.renamed(owners, this, oldRole);
+    }
+  }
+
+  /**
+   * Returns the role, or null if it is not set.
+   */
+  String role() {
+    return role;
   }
 
   @Override
@@ -0,0 +1,136 @@
+package com.pengyifan.bioc;
+
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The nodes of a relation, in the order they are added, that are also
+ * indexed by role, so that the first node of a role can be found in constant
+ * time. The index is kept consistent however the set is modified, including
+ * through its iterator, and when an indexed node changes its role.
+ * <p>
+ * As in {@link BioCIndexedList}, the index is updated when the set is
+ * modified, never when it is read, and a node tells only the sets that
+ * contain it when it changes its role.
+ */
+final class BioCNodeSet extends AbstractSet<BioCNode> implements BioCIndexOwners.Owner<BioCNode> {
+
+  // maps every node to itself, so that the instance of an equal node is found
+  private final LinkedHashMap<BioCNode, BioCNode> nodes;
+  private final HashMap<String, BioCNode> index;
+
+  BioCNodeSet() {
+    this.nodes = new LinkedHashMap<>();
+    this.index = new HashMap<>();
+  }
+
+  /**
+   * Returns the first node of the role, or null if there is none.
+   */
+  BioCNode getByRole(String role) {
+    return index.get(role);
+  }
+
+  @Override
+  public void renamed(BioCNode node, String oldRole) {
+    if (oldRole != null && index.get(oldRole) == node) {
+      reindex(oldRole);
+    }
+    if (node.role() != null && index.putIfAbsent(node.role(), node) != null) {
+      // the node may come before the indexed one
+      reindex(node.role());
+    }
+  }
+
+  /**
+   * Indexes the first node of the role.
+   */
+  private void reindex(String role) {
+    for (BioCNode node : nodes.keySet()) {
+      if (role.equals(node.role())) {
+        index.put(role, node);
+        return;
+      }
+    }
+    index.remove(role);
+  }
+
+  private void unindex(BioCNode node) {
+    node.owners = BioCIndexOwners.remove(node.owners, this);
+    if (node.role() != null && index.get(node.role()) == node) {
+      // another node of the role may have to take its place
+      reindex(node.role());
+    }
+  }
+
+  @Override
+  public boolean add(BioCNode node) {
+    if (nodes.putIfAbsent(node, node) != null) {
+      return false;
+    }
+    node.owners = BioCIndexOwners.add(node.owners, this);
+    if (node.role() != null) {
+      index.putIfAbsent(node.role(), node);
+    }
+    return true;
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    BioCNode node = nodes.remove(o);
+    if (node == null) {
+      return false;
+    }
+    unindex(node);
+    return true;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return nodes.containsKey(o);
+  }
+
+  @Override
+  public Iterator<BioCNode> iterator() {
+    Iterator<Map.Entry<BioCNode, BioCNode>> itr = nodes.entrySet().iterator();
+    return new Iterator<BioCNode>() {
+
+      private BioCNode last;
+
+      @Override
+      public boolean hasNext() {
+        return itr.hasNext();
+      }
+
+      @Override
+      public BioCNode next() {
+        last = itr.next().getValue();
+        return last;
+      }
+
+      @Override
+      public void remove() {
+        itr.remove();
+        unindex(last);
+        last = null;
+      }
+    };
+  }
+
+  @Override
+  public int size() {
+    return nodes.size();
+  }
+
+  @Override
+  public void clear() {
+    for (BioCNode node : nodes.keySet()) {
+      node.owners = BioCIndexOwners.remove(node.owners, this);
+    }
+    nodes.clear();
+    index.clear();
+  }
+}
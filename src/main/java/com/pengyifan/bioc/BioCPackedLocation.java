@@ -0,0 +1,77 @@
+package com.pengyifan.bioc;
+
+/**
+ * Static methods for locations packed into a {@code long}, whose high 32 bits
+ * are the offset and whose low 32 bits are the length. Packed locations take
+ * 8 bytes each in a {@code long[]}, instead of a {@link BioCLocation} object
+ * each. For example,
+ * <p>
+ * <pre>
+ * long[] locations = new long[n];
+ * locations[i] = BioCPackedLocation.pack(offset, length);
+ * ...
+ * int end = BioCPackedLocation.getEnd(locations[i]);
+ * </pre>
+ * <p>
+ * Packed locations of non-negative offsets and lengths compare as longs by
+ * offset, then by length, so a sorted {@code long[]} is sorted by position.
+ *
+ * @author Yifan Peng
+ * @since 1.0.4
+ */
+public final class BioCPackedLocation {
+
+  private BioCPackedLocation() {
+  }
+
+  /**
+   * Packs the offset and length of a location into a long.
+   *
+   * @param offset the offset of annotation
+   * @param length the length of the annotated text
+   * @return the packed location
+   */
+  public static long pack(int offset, int length) {
+    return ((long) offset << 32) | (length & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Returns the offset of the packed location.
+   *
+   * @param location the packed location
+   * @return the offset of annotation
+   */
+  public static int getOffset(long location) {
+    return (int) (location >> 32);
+  }
+
+  /**
+   * Returns the length of the packed location.
+   *
+   * @param location the packed location
+   * @return the length of the annotated text
+   */
+  public static int getLength(long location) {
+    return (int) location;
+  }
+
+  /**
+   * Returns the end of the packed location, i.e., its offset plus its length.
+   *
+   * @param location the packed location
+   * @return the offset after the annotated text
+   */
+  public static int getEnd(long location) {
+    return getOffset(location) + getLength(location);
+  }
+
+  /**
+   * Unpacks the location into a new {@link BioCLocation}.
+   *
+   * @param location the packed location
+   * @return a new location of the same offset and length
+   */
+  public static BioCLocation unpack(long location) {
+    return new BioCLocation(getOffset(location), getLength(location));
+  }
+}
@@ -1,7 +1,6 @@
 package com.pengyifan.bioc;
 
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
@@ -22,14 +21,16 @@ public class BioCRelation implements HasInfons, HasID, BioCObject {
 
   private String id;
   private Map<String, String> infons;
-  private Set<BioCNode> nodes;
+  private BioCNodeSet nodes;
+  // the structures that index the relation, see BioCIndexOwners
+  Object owners;
 
   /**
    * Constructs an empty relation.
    */
   public BioCRelation() {
     infons = Maps.newHashMap();
-    nodes = Sets.newHashSet();
+    nodes = new BioCNodeSet();
   }
 
   /**
@@ -40,7 +41,7 @@ public class BioCRelation implements HasInfons, HasID, BioCObject {
   public BioCRelation(String id) {
     this.id = id;
     infons = Maps.newHashMap();
-    nodes = Sets.newHashSet();
+    nodes = new BioCNodeSet();
   }
 
   /**
@@ -108,13 +109,14 @@ public class BioCRelation implements HasInfons, HasID, BioCObject {
   }
 
   /**
-   * Gets the first node based on the role.
+   * Gets the first node based on the role. Nodes are indexed by role, so this
+   * takes constant time.
    *
    * @param role the role of the node
-   * @return node that has the same role
+   * @return the first added node that has the same role
    */
   public Optional<BioCNode> getNode(String role) {
-    return getNodes().stream().filter(n -> n.getRole().equals(role)).findFirst();
+    return Optional.ofNullable(nodes.getByRole(role));
   }
 
   /**
@@ -128,7 +130,7 @@ public class BioCRelation implements HasInfons, HasID, BioCObject {
 
   /**
    * Returns nodes that describe how the referenced annotated object or other relation participates
-   * in the current relationship.
+   * in the current relationship, in the order they are added.
    *
    * @return nodes of the relation
    */
@@ -152,7 +154,18 @@ public class BioCRelation implements HasInfons, HasID, BioCObject {
 
   @Override
   public void setID(String id) {
+    String oldID = this.id;
     this.id = id;
+    if (owners != null && !Objects.equals(oldID, id)) {
+      BioCIndexOwners.renamed(owners, this, oldID);
+    }
+  }
+
+  /**
+   * Returns the id, or null if it is not set.
+   */
+  String id() {
+    return id;
   }
 
   /**
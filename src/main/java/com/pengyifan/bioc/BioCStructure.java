@@ -1,6 +1,5 @@
 package com.pengyifan.bioc;
 
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 import java.util.*;
@@ -11,16 +10,18 @@ import static com.google.common.base.Preconditions.checkNotNull;
 public abstract class BioCStructure implements HasInfons, HasAnnotations, HasRelations, BioCObject {
 
   private Map<String, String> infons;
-  private List<BioCAnnotation> annotations;
-  private List<BioCRelation> relations;
+  private BioCIndexedList<BioCAnnotation> annotations;
+  private BioCIndexedList<BioCRelation> relations;
 
   /**
    * Constructs an empty structure.
    */
   public BioCStructure() {
     infons = Maps.newHashMap();
-    annotations = Lists.newArrayList();
-    relations = Lists.newArrayList();
+    annotations = new BioCIndexedList<>(BioCAnnotation::id, a -> a.owners,
+        (a, owners) -> a.owners = owners);
+    relations = new BioCIndexedList<>(BioCRelation::id, r -> r.owners,
+        (r, owners) -> r.owners = owners);
   }
 
   /**
@@ -36,6 +37,18 @@ public abstract class BioCStructure implements HasInfons, HasAnnotations, HasRel
   }
 
 
+  /**
+   * Returns the annotation of the specified ID in this structure. Annotations
+   * are indexed by ID, so this takes constant time.
+   *
+   * @param annotationID id of a specified annotation
+   * @return the annotation of the specified ID in this structure
+   */
+  @Override
+  public Optional<BioCAnnotation> getAnnotation(String annotationID) {
+    return Optional.ofNullable(annotations.getByID(annotationID));
+  }
+
   @Override
   public List<BioCAnnotation> getAnnotations() {
     return annotations;
@@ -46,6 +59,18 @@ public abstract class BioCStructure implements HasInfons, HasAnnotations, HasRel
     return infons;
   }
 
+  /**
+   * Returns the relation of the specified ID in this structure. Relations are
+   * indexed by ID, so this takes constant time.
+   *
+   * @param relationID id of a specified relation
+   * @return the relation of the specified ID in this structure
+   */
+  @Override
+  public Optional<BioCRelation> getRelation(String relationID) {
+    return Optional.ofNullable(relations.getByID(relationID));
+  }
+
   @Override
   public List<BioCRelation> getRelations() {
     return relations;
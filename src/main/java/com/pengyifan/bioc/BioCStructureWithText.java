@@ -2,12 +2,13 @@ package com.pengyifan.bioc;
 
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
 public abstract class BioCStructureWithText extends BioCStructure implements HasText, HasOffset {
   private int offset;
-  private String text;
+  private BioCText text;
 
   /**
    * Constructs an empty structure.
@@ -15,7 +16,7 @@ public abstract class BioCStructureWithText extends BioCStructure implements Has
   public BioCStructureWithText() {
     super();
     offset = -1;
-    text = null;
+    text = new BioCText();
   }
 
   /**
@@ -26,7 +27,7 @@ public abstract class BioCStructureWithText extends BioCStructure implements Has
   public BioCStructureWithText(BioCStructureWithText structure) {
     super(structure);
     setOffset(structure.offset);
-    setText(structure.text);
+    text = new BioCText(structure.text);
   }
 
   @Override
@@ -39,7 +40,7 @@ public abstract class BioCStructureWithText extends BioCStructure implements Has
     }
     BioCStructureWithText rhs = (BioCStructureWithText) obj;
     return super.equals(rhs)
-        && Objects.equals(text, rhs.text)
+        && Objects.equals(text.get(), rhs.text.get())
         && Objects.equals(offset, rhs.offset);
   }
 
@@ -50,17 +51,17 @@ public abstract class BioCStructureWithText extends BioCStructure implements Has
   }
 
   public int getEnd() {
-    return offset + text.length();
+    return offset + text.get().length();
   }
 
   @Override
   public Optional<String> getText() {
-    return Optional.ofNullable(text);
+    return Optional.ofNullable(text.get());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(super.hashCode(), offset, text);
+    return Objects.hash(super.hashCode(), offset, text.get());
   }
 
 
@@ -72,6 +73,11 @@ public abstract class BioCStructureWithText extends BioCStructure implements Has
 
   @Override
   public void setText(String text) {
-    this.text = text;
+    this.text.set(text);
+  }
+
+  @Override
+  public void setLazyText(Supplier<String> text) {
+    this.text.setLazy(text);
   }
 }
@@ -0,0 +1,65 @@
+package com.pengyifan.bioc;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.function.Supplier;
+
+/**
+ * The text of a structure or an annotation, which is either set or computed
+ * by a supplier the first time it is read, see {@link HasText#setLazyText}.
+ * <p>
+ * The text is written before the supplier is cleared, and the supplier is
+ * volatile, so that a thread that sees no supplier also sees the text. An
+ * object whose text is lazy can therefore be read by several threads, as long
+ * as it is no longer modified.
+ */
+final class BioCText {
+
+  private String text;
+  private volatile Supplier<String> lazy;
+
+  /**
+   * Constructs an empty text.
+   */
+  BioCText() {
+  }
+
+  /**
+   * Constructs a text that is the same as the specified text. A lazy text
+   * stays lazy and shares the supplier.
+   */
+  BioCText(BioCText other) {
+    // the supplier is read first, since it is cleared after the text is set
+    Supplier<String> supplier = other.lazy;
+    this.text = other.text;
+    this.lazy = supplier;
+  }
+
+  /**
+   * Returns the text, computing it first if it is lazy.
+   */
+  String get() {
+    Supplier<String> supplier = lazy;
+    if (supplier != null) {
+      synchronized (this) {
+        supplier = lazy;
+        if (supplier != null) {
+          text = supplier.get();
+          lazy = null;
+        }
+      }
+    }
+    return text;
+  }
+
+  void set(String text) {
+    this.text = text;
+    this.lazy = null;
+  }
+
+  void setLazy(Supplier<String> text) {
+    checkNotNull(text, "text cannot be null");
+    this.text = null;
+    this.lazy = text;
+  }
+}
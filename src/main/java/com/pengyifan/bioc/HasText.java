@@ -1,6 +1,7 @@
 package com.pengyifan.bioc;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
 public interface HasText {
 
@@ -17,4 +18,16 @@ public interface HasText {
    * @param text the original text
    */
   void setText(String text);
+
+  /**
+   * Sets the original text, which is computed by the supplier when it is
+   * first needed, e.g., decoded from the source file by the first call of
+   * {@link #getText()}. The supplier is called at most once.
+   *
+   * @param text the supplier of the original text
+   * @since 1.0.4
+   */
+  default void setLazyText(Supplier<String> text) {
+    setText(text.get());
+  }
 }
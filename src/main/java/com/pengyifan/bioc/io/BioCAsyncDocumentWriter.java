@@ -0,0 +1,254 @@
+package com.pengyifan.bioc.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+
+import javax.xml.stream.FactoryConfigurationError;
+import javax.xml.stream.XMLStreamException;
+
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+
+/**
+ * Writes documents into a BioC file on a background thread. Documents are
+ * put into a bounded queue, which is drained by a dedicated I/O thread, so
+ * that the calling thread does not wait for the disk unless the queue is
+ * full. For example,
+ * <p>
+ * <pre>
+ * BioCAsyncDocumentWriter writer = new BioCAsyncDocumentWriter(path);
+ * writer.writeBeginCollectionInfo(collection);
+ * for (BioCDocument document : collection.getDocuments()) {
+ *   writer.writeDocument(document);
+ * }
+ * writer.flush().get();
+ * writer.close();
+ * </pre>
+ * <p>
+ * An error of the I/O thread is thrown by the next method call or by
+ * {@link #close()}, and the documents after the error are discarded. A
+ * document must not be modified after it is passed to
+ * {@link #writeDocument(BioCDocument)}.
+ *
+ * @since 1.0.4
+ * @see BioCDocumentWriter
+ * @author Yifan Peng
+ */
+public class BioCAsyncDocumentWriter implements Closeable {
+
+  /**
+   * An operation run on the I/O thread.
+   */
+  private interface Operation {
+
+    void run()
+        throws XMLStreamException, IOException;
+  }
+
+  private static final class Request {
+
+    private final Operation operation;
+    private final CompletableFuture<Void> future;
+
+    private Request(Operation operation, CompletableFuture<Void> future) {
+      this.operation = operation;
+      this.future = future;
+    }
+  }
+
+  private static final Request END = new Request(null, null);
+
+  private final Writer out;
+  private final BioCWriter writer;
+  private final BlockingQueue<Request> queue;
+  private final Thread thread;
+  private volatile Exception error;
+  private boolean hasWrittenCollectionInfo;
+  private boolean isClosed;
+
+  /**
+   * Creates a new BioCAsyncDocumentWriter, given the Path to write to. At most
+   * 1024 documents are queued. The output is compressed if the file name
+   * extension is of a codec, e.g., {@code .gz}.
+   *
+   * @param path the file path to write to
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws IOException if the file cannot be opened
+   */
+  public BioCAsyncDocumentWriter(Path path)
+      throws FactoryConfigurationError, XMLStreamException, IOException {
+    this(new OutputStreamWriter(BioCCodecs.newOutputStream(path), StandardCharsets.UTF_8),
+        new BioCWriterOptions(), 1024);
+  }
+
+  /**
+   * Creates a BioCAsyncDocumentWriter that uses the writer out.
+   *
+   * @param out a Writer
+   * @param options the options of the writer, such as engine and indentation
+   * @param capacity the maximum number of queued documents
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   */
+  public BioCAsyncDocumentWriter(Writer out, BioCWriterOptions options, int capacity)
+      throws FactoryConfigurationError, XMLStreamException {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity has to be > 0");
+    }
+    this.out = out;
+    this.writer = BioCWriter.newWriter(out, options);
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.thread = new Thread(this::drain, "bioc-writer");
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  private void drain() {
+    while (true) {
+      Request request;
+      try {
+        request = queue.take();
+      } catch (InterruptedException e) {
+        return;
+      }
+      if (request == END) {
+        return;
+      }
+      if (error == null) {
+        try {
+          request.operation.run();
+        } catch (XMLStreamException | IOException | RuntimeException e) {
+          error = e;
+        }
+      }
+      if (request.future != null) {
+        if (error == null) {
+          request.future.complete(null);
+        } else {
+          request.future.completeExceptionally(error);
+        }
+      }
+    }
+  }
+
+  private void checkError()
+      throws XMLStreamException {
+    Exception e = error;
+    if (e != null) {
+      throw new XMLStreamException(e.getMessage(), e);
+    }
+  }
+
+  private void put(Request request)
+      throws XMLStreamException {
+    if (isClosed) {
+      throw new IllegalStateException("The writer has been closed.");
+    }
+    checkError();
+    try {
+      queue.put(request);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new XMLStreamException("Interrupted while queuing a document", e);
+    }
+  }
+
+  /**
+   * Closes the writer after all queued documents are written. Closing a
+   * previously closed writer has no effect.
+   *
+   * @throws IOException if an error occurred on the I/O thread
+   */
+  @Override
+  public void close()
+      throws IOException {
+    if (isClosed) {
+      return;
+    }
+    isClosed = true;
+    try {
+      queue.put(new Request(() -> {
+        if (hasWrittenCollectionInfo) {
+          writer.writeEndCollection()
+              .writeEndDocument();
+        }
+        writer.close();
+        out.close();
+      }, null));
+      queue.put(END);
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while closing the writer", e);
+    }
+    Exception e = error;
+    if (e != null) {
+      // the I/O thread has stopped writing
+      out.close();
+      throw new IOException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Flushes the writer after all queued documents are written.
+   *
+   * @return a future that completes when all documents queued before this call
+   *         are written and flushed, or completes exceptionally if an error
+   *         occurred on the I/O thread
+   * @throws XMLStreamException if an error occurred on the I/O thread
+   */
+  public CompletableFuture<Void> flush()
+      throws XMLStreamException {
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    put(new Request(() -> {
+      writer.flush();
+      out.flush();
+    }, future));
+    return future;
+  }
+
+  /**
+   * Queues the BioC collection information: source, date, key, infons, etc.
+   *
+   * @param collection the BioC collection whose information will be written
+   * @throws XMLStreamException if an error occurred on the I/O thread
+   */
+  public void writeBeginCollectionInfo(BioCCollection collection)
+      throws XMLStreamException {
+    if (hasWrittenCollectionInfo) {
+      throw new IllegalStateException(
+          "writeCollectionInfo can only be invoked once.");
+    }
+    put(new Request(() -> writer
+        .writeStartDocument(
+            collection.getEncoding(),
+            collection.getVersion(),
+            collection.isStandalone())
+        .writeBeginCollectionInfo(collection), null));
+    hasWrittenCollectionInfo = true;
+  }
+
+  /**
+   * Queues the BioC document to be written into the XML file. This method
+   * waits only if the queue is full.
+   *
+   * @param document the BioC document
+   * @throws XMLStreamException if an error occurred on the I/O thread
+   */
+  public void writeDocument(BioCDocument document)
+      throws XMLStreamException {
+    if (!hasWrittenCollectionInfo) {
+      throw new IllegalStateException(
+          "writeCollectionInfo should be invoked before.");
+    }
+    put(new Request(() -> writer.write(document), null));
+  }
+}
@@ -0,0 +1,76 @@
+package com.pengyifan.bioc.io;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import javax.xml.stream.FactoryConfigurationError;
+import javax.xml.stream.XMLStreamException;
+
+import com.pengyifan.bioc.BioCDocument;
+
+/**
+ * Converts BioC files between XML and the binary format of
+ * {@link BioCBinaryDocumentWriter}. Documents are converted one at a time, so
+ * files of any size can be converted. For example,
+ * <p>
+ * <pre>
+ * BioCBinaryConverter.toBinary(Paths.get("foo.xml"), Paths.get("foo.bin"));
+ * BioCBinaryConverter.toXML(Paths.get("foo.bin"), Paths.get("foo.xml"));
+ * </pre>
+ * <p>
+ * The conversion keeps the encoding, version and standalone flag of the XML
+ * declaration, the collection information, and all documents. The DTD,
+ * comments and the order of infons are not kept.
+ *
+ * @since 1.0.4
+ * @author Yifan Peng
+ */
+public final class BioCBinaryConverter {
+
+  private BioCBinaryConverter() {
+  }
+
+  /**
+   * Converts a BioC XML file into a binary BioC file. Both files may be
+   * compressed.
+   *
+   * @param xml the BioC XML file to read from
+   * @param binary the binary BioC file to write to
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public static void toBinary(Path xml, Path binary)
+      throws FactoryConfigurationError, XMLStreamException, IOException {
+    try (BioCDocumentReader reader = new BioCDocumentReader(xml);
+        BioCBinaryDocumentWriter writer = new BioCBinaryDocumentWriter(binary)) {
+      writer.writeBeginCollectionInfo(reader.readCollectionInfo());
+      BioCDocument document;
+      while ((document = reader.readDocument()) != null) {
+        writer.writeDocument(document);
+      }
+    }
+  }
+
+  /**
+   * Converts a binary BioC file into a BioC XML file. Both files may be
+   * compressed.
+   *
+   * @param binary the binary BioC file to read from
+   * @param xml the BioC XML file to write to
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public static void toXML(Path binary, Path xml)
+      throws FactoryConfigurationError, XMLStreamException, IOException {
+    try (BioCBinaryDocumentReader reader = new BioCBinaryDocumentReader(binary);
+        BioCDocumentWriter writer = new BioCDocumentWriter(xml)) {
+      writer.writeBeginCollectionInfo(reader.readCollectionInfo());
+      BioCDocument document;
+      while ((document = reader.readDocument()) != null) {
+        writer.writeDocument(document);
+      }
+    }
+  }
+}
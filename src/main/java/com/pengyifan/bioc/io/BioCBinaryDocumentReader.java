@@ -0,0 +1,269 @@
+package com.pengyifan.bioc.io;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.pengyifan.bioc.BioCAnnotation;
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+import com.pengyifan.bioc.BioCLocation;
+import com.pengyifan.bioc.BioCNode;
+import com.pengyifan.bioc.BioCPassage;
+import com.pengyifan.bioc.BioCRelation;
+import com.pengyifan.bioc.BioCSentence;
+import com.pengyifan.bioc.BioCStructure;
+
+/**
+ * Reads a binary BioC file, as written by {@link BioCBinaryDocumentWriter},
+ * sequentially into BioCDocument every time the method {@link #readDocument}
+ * is called. For example,
+ * <p>
+ * <pre>
+ * BioCBinaryDocumentReader reader = new BioCBinaryDocumentReader(path);
+ * BioCCollection collection = reader.readCollectionInfo();
+ * BioCDocument doc = null;
+ * while ((doc = reader.readDocument()) != null) {
+ *   collection.addDocument(doc);
+ * }
+ * reader.close();
+ * </pre>
+ *
+ * @since 1.0.4
+ * @see BioCDocumentReader
+ * @author Yifan Peng
+ */
+public class BioCBinaryDocumentReader implements Closeable {
+
+  private final InputStream in;
+  private final BioCBinaryFormat.Input body;
+  private final List<String> dictionary;
+  private final BioCCollection collection;
+  private boolean isEnd;
+
+  /**
+   * Creates a new BioCBinaryDocumentReader, given the Path to read from. A
+   * compressed file is decompressed transparently.
+   *
+   * @param path the file path to read from
+   * @throws IOException if the file cannot be opened or is not a binary BioC
+   *           file
+   */
+  public BioCBinaryDocumentReader(Path path)
+      throws IOException {
+    this(BioCCodecs.newInputStream(path));
+  }
+
+  /**
+   * Creates a BioCBinaryDocumentReader that uses the input stream in.
+   *
+   * @param in an InputStream
+   * @throws IOException if an I/O exception of some sort has occurred, or the
+   *           stream is not a binary BioC file
+   */
+  public BioCBinaryDocumentReader(InputStream in)
+      throws IOException {
+    this.in = in instanceof BufferedInputStream ? in
+        : new BufferedInputStream(in, BioCCodecs.BUFFER_SIZE);
+    this.body = new BioCBinaryFormat.Input();
+    this.dictionary = new ArrayList<>();
+
+    byte[] magic = new byte[BioCBinaryFormat.MAGIC.length];
+    int n = 0;
+    int k;
+    while (n < magic.length && (k = this.in.read(magic, n, magic.length - n)) != -1) {
+      n += k;
+    }
+    if (!Arrays.equals(magic, BioCBinaryFormat.MAGIC)) {
+      throw new IOException("Not a BioC binary file");
+    }
+    int version = this.in.read();
+    if (version != BioCBinaryFormat.VERSION) {
+      throw new IOException("Unsupported BioC binary version: " + version);
+    }
+    if (nextRecord() != BioCBinaryFormat.COLLECTION) {
+      throw new IOException("Malformed BioC binary file: collection expected");
+    }
+    this.collection = readCollection();
+  }
+
+  /**
+   * Reads records until one that is not a dictionary.
+   *
+   * @return the tag of the record, whose body is read
+   */
+  private int nextRecord()
+      throws IOException {
+    while (true) {
+      int tag = in.read();
+      if (tag == -1) {
+        throw new IOException("Malformed BioC binary file: unexpected end of the file");
+      }
+      if (tag == BioCBinaryFormat.END) {
+        return tag;
+      }
+      int length = BioCBinaryFormat.readVarint(in);
+      if (length < 0) {
+        throw new IOException("Malformed BioC binary file: record length expected");
+      }
+      body.readFrom(in, length);
+      if (tag != BioCBinaryFormat.DICTIONARY) {
+        return tag;
+      }
+      int count = body.readVarint();
+      for (int i = 0; i < count; i++) {
+        dictionary.add(body.readString());
+      }
+    }
+  }
+
+  /**
+   * Closes the reader and releases any system resources associated with it.
+   */
+  @Override
+  public void close()
+      throws IOException {
+    in.close();
+  }
+
+  /**
+   * Reads the collection information: encoding, version, source, date, key,
+   * infons, etc.
+   *
+   * @return the BioC collection that contains only information
+   */
+  public BioCCollection readCollectionInfo() {
+    return collection;
+  }
+
+  /**
+   * Reads one BioC document from the file.
+   *
+   * @return the BioC document, or null if there are no more documents
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public BioCDocument readDocument()
+      throws IOException {
+    if (isEnd) {
+      return null;
+    }
+    int tag = nextRecord();
+    if (tag == BioCBinaryFormat.END) {
+      isEnd = true;
+      return null;
+    }
+    if (tag != BioCBinaryFormat.DOCUMENT) {
+      throw new IOException("Malformed BioC binary file: unknown record " + tag);
+    }
+    return readDocumentBody();
+  }
+
+  /**
+   * Returns a stream of the remaining documents. The stream is sequential;
+   * if it is made parallel, batches of documents are processed on multiple
+   * threads. Closing the stream closes the reader.
+   * <p>
+   * Errors are thrown as {@link java.io.UncheckedIOException}.
+   *
+   * @return a stream of the remaining documents
+   */
+  public Stream<BioCDocument> documents() {
+    return BioCDocumentSpliterator.stream(this::readDocument, d -> d, this);
+  }
+
+  private BioCCollection readCollection()
+      throws IOException {
+    BioCCollection collection = new BioCCollection();
+    collection.setEncoding(body.readString());
+    collection.setVersion(body.readString());
+    collection.setStandalone(body.readByte() != 0);
+    collection.setSource(body.readString());
+    collection.setDate(body.readString());
+    collection.setKey(body.readString());
+    readInfons(collection.getInfons());
+    return collection;
+  }
+
+  private BioCDocument readDocumentBody()
+      throws IOException {
+    BioCDocument document = new BioCDocument(body.readString());
+    readInfons(document.getInfons());
+    int passageCount = body.readVarint();
+    for (int i = 0; i < passageCount; i++) {
+      BioCPassage passage = new BioCPassage();
+      readInfons(passage.getInfons());
+      passage.setOffset(body.readVarint());
+      passage.setText(body.readString());
+      int sentenceCount = body.readVarint();
+      for (int j = 0; j < sentenceCount; j++) {
+        BioCSentence sentence = new BioCSentence();
+        readInfons(sentence.getInfons());
+        sentence.setOffset(body.readVarint());
+        sentence.setText(body.readString());
+        readAnnotationsAndRelations(sentence);
+        passage.addSentence(sentence);
+      }
+      readAnnotationsAndRelations(passage);
+      document.addPassage(passage);
+    }
+    readAnnotationsAndRelations(document);
+    if (body.hasRemaining()) {
+      throw new IOException("Malformed BioC binary file: document is too long");
+    }
+    return document;
+  }
+
+  private void readAnnotationsAndRelations(BioCStructure structure)
+      throws IOException {
+    int annotationCount = body.readVarint();
+    for (int i = 0; i < annotationCount; i++) {
+      BioCAnnotation annotation = new BioCAnnotation(body.readString());
+      readInfons(annotation.getInfons());
+      int locationCount = body.readVarint();
+      for (int j = 0; j < locationCount; j++) {
+        annotation.addLocation(new BioCLocation(body.readVarint(), body.readVarint()));
+      }
+      annotation.setText(body.readString());
+      structure.addAnnotation(annotation);
+    }
+    int relationCount = body.readVarint();
+    for (int i = 0; i < relationCount; i++) {
+      BioCRelation relation = new BioCRelation(body.readString());
+      readInfons(relation.getInfons());
+      int nodeCount = body.readVarint();
+      for (int j = 0; j < nodeCount; j++) {
+        String refid = body.readString();
+        relation.addNode(new BioCNode(refid, readDictionaryString()));
+      }
+      structure.addRelation(relation);
+    }
+  }
+
+  private void readInfons(Map<String, String> infons)
+      throws IOException {
+    int count = body.readVarint();
+    for (int i = 0; i < count; i++) {
+      String key = readDictionaryString();
+      infons.put(key, body.readString());
+    }
+  }
+
+  private String readDictionaryString()
+      throws IOException {
+    int index = body.readVarint() - 1;
+    if (index == -1) {
+      return null;
+    }
+    if (index < 0 || index >= dictionary.size()) {
+      throw new IOException("Malformed BioC binary file: unknown string " + index);
+    }
+    return dictionary.get(index);
+  }
+}
@@ -0,0 +1,221 @@
+package com.pengyifan.bioc.io;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.pengyifan.bioc.BioCAnnotation;
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+import com.pengyifan.bioc.BioCLocation;
+import com.pengyifan.bioc.BioCNode;
+import com.pengyifan.bioc.BioCPassage;
+import com.pengyifan.bioc.BioCRelation;
+import com.pengyifan.bioc.BioCSentence;
+import com.pengyifan.bioc.BioCStructure;
+
+/**
+ * Writes documents into a binary BioC file, which is much faster to write and
+ * to read than XML. Offsets are written as varints, and infon keys and node
+ * roles are written only once. The file can be read by
+ * {@link BioCBinaryDocumentReader}, and converted to and from XML by
+ * {@link BioCBinaryConverter}. For example,
+ * <p>
+ * <pre>
+ * BioCBinaryDocumentWriter writer = new BioCBinaryDocumentWriter(path);
+ * writer.writeBeginCollectionInfo(collection);
+ * for (BioCDocument document : collection.getDocuments()) {
+ *   writer.writeDocument(document);
+ * }
+ * writer.close();
+ * </pre>
+ *
+ * @since 1.0.4
+ * @see BioCDocumentWriter
+ * @author Yifan Peng
+ */
+public class BioCBinaryDocumentWriter implements Closeable {
+
+  private final OutputStream out;
+  private final BioCBinaryFormat.Output body;
+  private final BioCBinaryFormat.Output dictionaryBody;
+  private final Map<String, Integer> dictionary;
+  private final List<String> newStrings;
+  private boolean hasWrittenCollectionInfo;
+
+  /**
+   * Creates a new BioCBinaryDocumentWriter, given the Path to write to. The
+   * output is compressed if the file name extension is of a codec, e.g.,
+   * {@code .gz}.
+   *
+   * @param path the file path to write to
+   * @throws IOException if the file cannot be opened
+   */
+  public BioCBinaryDocumentWriter(Path path)
+      throws IOException {
+    this(BioCCodecs.newOutputStream(path));
+  }
+
+  /**
+   * Creates a BioCBinaryDocumentWriter that uses the output stream out.
+   *
+   * @param out an OutputStream
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public BioCBinaryDocumentWriter(OutputStream out)
+      throws IOException {
+    this.out = new BufferedOutputStream(out, BioCCodecs.BUFFER_SIZE);
+    this.body = new BioCBinaryFormat.Output();
+    this.dictionaryBody = new BioCBinaryFormat.Output();
+    this.dictionary = new HashMap<>();
+    this.newStrings = new ArrayList<>();
+    this.out.write(BioCBinaryFormat.MAGIC);
+    this.out.write(BioCBinaryFormat.VERSION);
+  }
+
+  /**
+   * Closes the writer and releases any system resources associated with it.
+   */
+  @Override
+  public void close()
+      throws IOException {
+    try {
+      if (hasWrittenCollectionInfo) {
+        out.write(BioCBinaryFormat.END);
+      }
+    } finally {
+      out.close();
+    }
+  }
+
+  /**
+   * Writes the BioC collection information: source, date, key, infons, etc.
+   *
+   * @param collection the BioC collection whose information will be written
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public void writeBeginCollectionInfo(BioCCollection collection)
+      throws IOException {
+    if (hasWrittenCollectionInfo) {
+      throw new IllegalStateException(
+          "writeCollectionInfo can only be invoked once.");
+    }
+    hasWrittenCollectionInfo = true;
+    body.reset();
+    body.writeString(collection.getEncoding());
+    body.writeString(collection.getVersion());
+    body.writeByte(collection.isStandalone() ? 1 : 0);
+    body.writeString(collection.getSource());
+    body.writeString(collection.getDate());
+    body.writeString(collection.getKey());
+    writeInfons(collection.getInfons());
+    writeRecord(BioCBinaryFormat.COLLECTION);
+  }
+
+  /**
+   * Writes the BioC document into the file.
+   *
+   * @param document the BioC document
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public void writeDocument(BioCDocument document)
+      throws IOException {
+    if (!hasWrittenCollectionInfo) {
+      throw new IllegalStateException(
+          "writeCollectionInfo should be invoked before.");
+    }
+    body.reset();
+    body.writeString(document.getID());
+    writeInfons(document.getInfons());
+    body.writeVarint(document.getPassageCount());
+    for (BioCPassage passage : document.getPassages()) {
+      writeInfons(passage.getInfons());
+      body.writeVarint(passage.getOffset());
+      body.writeString(passage.getText().orElse(null));
+      body.writeVarint(passage.getSentenceCount());
+      for (BioCSentence sentence : passage.getSentences()) {
+        writeInfons(sentence.getInfons());
+        body.writeVarint(sentence.getOffset());
+        body.writeString(sentence.getText().orElse(null));
+        writeAnnotationsAndRelations(sentence);
+      }
+      writeAnnotationsAndRelations(passage);
+    }
+    writeAnnotationsAndRelations(document);
+    writeRecord(BioCBinaryFormat.DOCUMENT);
+  }
+
+  private void writeAnnotationsAndRelations(BioCStructure structure) {
+    body.writeVarint(structure.getAnnotations().size());
+    for (BioCAnnotation annotation : structure.getAnnotations()) {
+      body.writeString(annotation.getID());
+      writeInfons(annotation.getInfons());
+      body.writeVarint(annotation.getLocationCount());
+      for (BioCLocation location : annotation.getLocations()) {
+        body.writeVarint(location.getOffset());
+        body.writeVarint(location.getLength());
+      }
+      body.writeString(annotation.getText().orElse(null));
+    }
+    body.writeVarint(structure.getRelations().size());
+    for (BioCRelation relation : structure.getRelations()) {
+      body.writeString(relation.getID());
+      writeInfons(relation.getInfons());
+      body.writeVarint(relation.getNodeCount());
+      for (BioCNode node : relation.getNodes()) {
+        body.writeString(node.getRefid());
+        writeDictionaryString(node.getRole());
+      }
+    }
+  }
+
+  private void writeInfons(Map<String, String> infons) {
+    body.writeVarint(infons.size());
+    for (Map.Entry<String, String> infon : infons.entrySet()) {
+      writeDictionaryString(infon.getKey());
+      body.writeString(infon.getValue());
+    }
+  }
+
+  private void writeDictionaryString(String s) {
+    if (s == null) {
+      body.writeVarint(0);
+      return;
+    }
+    Integer index = dictionary.get(s);
+    if (index == null) {
+      index = dictionary.size();
+      dictionary.put(s, index);
+      newStrings.add(s);
+    }
+    body.writeVarint(index + 1);
+  }
+
+  /**
+   * Writes the body as a record, preceded by the strings it added to the
+   * dictionary.
+   */
+  private void writeRecord(int tag)
+      throws IOException {
+    if (!newStrings.isEmpty()) {
+      dictionaryBody.reset();
+      dictionaryBody.writeVarint(newStrings.size());
+      for (String s : newStrings) {
+        dictionaryBody.writeString(s);
+      }
+      newStrings.clear();
+      out.write(BioCBinaryFormat.DICTIONARY);
+      BioCBinaryFormat.writeVarint(out, dictionaryBody.length());
+      dictionaryBody.writeTo(out);
+    }
+    out.write(tag);
+    BioCBinaryFormat.writeVarint(out, body.length());
+    body.writeTo(out);
+  }
+}
@@ -0,0 +1,197 @@
+package com.pengyifan.bioc.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The binary BioC format. A file starts with {@link #MAGIC} and
+ * {@link #VERSION}, followed by records. Each record is a tag byte, the length
+ * of its body as a varint, and the body, so that a reader can skip records it
+ * does not need.
+ * <ul>
+ * <li>{@link #DICTIONARY}: strings appended to the dictionary, which holds
+ * infon keys and node roles. The dictionary grows over the whole file, and a
+ * dictionary record precedes the first record that refers to its
+ * strings.</li>
+ * <li>{@link #COLLECTION}: the collection information.</li>
+ * <li>{@link #DOCUMENT}: one document.</li>
+ * <li>{@link #END}: the end of the file, without length and body.</li>
+ * </ul>
+ * Integers are unsigned LEB128 varints. A string is a varint of its UTF-8
+ * length plus one, or 0 for null, followed by its bytes. A dictionary string
+ * is a varint of its index plus one, or 0 for null.
+ */
+final class BioCBinaryFormat {
+
+  static final byte[] MAGIC = "BioC".getBytes(StandardCharsets.US_ASCII);
+  static final int VERSION = 1;
+
+  static final int END = 0;
+  static final int DICTIONARY = 1;
+  static final int COLLECTION = 2;
+  static final int DOCUMENT = 3;
+
+  private BioCBinaryFormat() {
+  }
+
+  /**
+   * A growable buffer that a record body is encoded into.
+   */
+  static final class Output {
+
+    private byte[] bytes = new byte[1024];
+    private int length;
+
+    void reset() {
+      length = 0;
+    }
+
+    int length() {
+      return length;
+    }
+
+    private void ensureCapacity(int n) {
+      if (length + n > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + n));
+      }
+    }
+
+    void writeByte(int b) {
+      ensureCapacity(1);
+      bytes[length++] = (byte) b;
+    }
+
+    void writeVarint(int value) {
+      ensureCapacity(5);
+      while ((value & ~0x7F) != 0) {
+        bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      bytes[length++] = (byte) value;
+    }
+
+    void writeString(String s) {
+      if (s == null) {
+        writeVarint(0);
+        return;
+      }
+      byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+      writeVarint(utf8.length + 1);
+      ensureCapacity(utf8.length);
+      System.arraycopy(utf8, 0, bytes, length, utf8.length);
+      length += utf8.length;
+    }
+
+    void writeTo(OutputStream out)
+        throws IOException {
+      out.write(bytes, 0, length);
+    }
+  }
+
+  /**
+   * A record body that is decoded.
+   */
+  static final class Input {
+
+    private byte[] bytes = new byte[1024];
+    private int pos;
+    private int limit;
+
+    /**
+     * Reads the next record body of the given length from the stream.
+     */
+    void readFrom(InputStream in, int length)
+        throws IOException {
+      if (length > bytes.length) {
+        bytes = new byte[Math.max(bytes.length * 2, length)];
+      }
+      int n = 0;
+      while (n < length) {
+        int k = in.read(bytes, n, length - n);
+        if (k == -1) {
+          throw new EOFException("Unexpected end of the BioC binary file");
+        }
+        n += k;
+      }
+      pos = 0;
+      limit = length;
+    }
+
+    boolean hasRemaining() {
+      return pos < limit;
+    }
+
+    int readByte()
+        throws IOException {
+      if (pos >= limit) {
+        throw new IOException("Malformed BioC binary file: record is too short");
+      }
+      return bytes[pos++] & 0xFF;
+    }
+
+    int readVarint()
+        throws IOException {
+      int value = 0;
+      for (int shift = 0; shift < 35; shift += 7) {
+        int b = readByte();
+        value |= (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new IOException("Malformed BioC binary file: varint is too long");
+    }
+
+    String readString()
+        throws IOException {
+      int length = readVarint() - 1;
+      if (length == -1) {
+        return null;
+      }
+      if (length < 0 || length > limit - pos) {
+        throw new IOException("Malformed BioC binary file: string is too long");
+      }
+      String s = new String(bytes, pos, length, StandardCharsets.UTF_8);
+      pos += length;
+      return s;
+    }
+  }
+
+  /**
+   * Reads a varint from the stream, or returns -1 at the end of the stream.
+   */
+  static int readVarint(InputStream in)
+      throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      int b = in.read();
+      if (b == -1) {
+        if (shift == 0) {
+          return -1;
+        }
+        throw new EOFException("Unexpected end of the BioC binary file");
+      }
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed BioC binary file: varint is too long");
+  }
+
+  /**
+   * Writes a varint to the stream.
+   */
+  static void writeVarint(OutputStream out, int value)
+      throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.write((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.write(value);
+  }
+}
@@ -0,0 +1,66 @@
+package com.pengyifan.bioc.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A compression format of BioC files. Codecs are registered in
+ * {@link BioCCodecs}, either explicitly or as a service provider listed in
+ * {@code META-INF/services/com.pengyifan.bioc.io.BioCCodec}. For example,
+ * <p>
+ * <pre>
+ * BioCCodecs.register(new XzCodec());
+ * BioCCollectionReader reader = new BioCCollectionReader(Paths.get(&quot;foo.xml.xz&quot;));
+ * </pre>
+ *
+ * @since 1.0.4
+ * @see BioCCodecs
+ * @author Yifan Peng
+ */
+public interface BioCCodec {
+
+  /**
+   * Returns the name of the codec, e.g., {@code gzip}.
+   *
+   * @return the name of the codec
+   */
+  String getName();
+
+  /**
+   * Returns the file name extension of the codec, e.g., {@code .gz}.
+   *
+   * @return the file name extension of the codec
+   */
+  String getExtension();
+
+  /**
+   * Returns true if the stream starts with the magic bytes of this codec.
+   *
+   * @param header the first bytes of the stream
+   * @param length the number of valid bytes in header, which may be less than
+   *          {@link BioCCodecs#MAGIC_LENGTH} for short streams
+   * @return true if the stream is compressed by this codec
+   */
+  boolean matches(byte[] header, int length);
+
+  /**
+   * Returns a stream that decompresses the input stream.
+   *
+   * @param in the compressed stream
+   * @return the decompressed stream
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  InputStream newInputStream(InputStream in)
+      throws IOException;
+
+  /**
+   * Returns a stream that compresses into the output stream.
+   *
+   * @param out the compressed stream
+   * @return the stream to write uncompressed bytes to
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  OutputStream newOutputStream(OutputStream out)
+      throws IOException;
+}
@@ -0,0 +1,186 @@
+package com.pengyifan.bioc.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registry of the compression codecs of BioC files. Compressed files are
+ * detected by their magic bytes when read, and by their file name extension
+ * when written. The gzip codec is always available; other codecs are loaded
+ * with {@link ServiceLoader} or registered with {@link #register(BioCCodec)}.
+ * For example,
+ * <p>
+ * <pre>
+ * InputStream in = BioCCodecs.newInputStream(Paths.get(&quot;foo.xml.gz&quot;));
+ * </pre>
+ * <p>
+ * The {@code Path} constructors of the readers and writers in this package
+ * use this class, so compressed files are read and written transparently.
+ *
+ * @since 1.0.4
+ * @see BioCCodec
+ * @author Yifan Peng
+ */
+public final class BioCCodecs {
+
+  /**
+   * The gzip codec.
+   */
+  public static final BioCCodec GZIP = new BioCGzipCodec();
+
+  /**
+   * The number of bytes given to {@link BioCCodec#matches(byte[], int)}.
+   */
+  public static final int MAGIC_LENGTH = 8;
+
+  static final int BUFFER_SIZE = 1 << 16;
+
+  private static final List<BioCCodec> CODECS = new CopyOnWriteArrayList<>();
+
+  static {
+    CODECS.add(GZIP);
+    for (BioCCodec codec : ServiceLoader.load(BioCCodec.class)) {
+      CODECS.add(codec);
+    }
+  }
+
+  private BioCCodecs() {
+  }
+
+  /**
+   * Registers a codec. Later codecs take precedence over earlier ones.
+   *
+   * @param codec the codec
+   */
+  public static void register(BioCCodec codec) {
+    CODECS.add(0, codec);
+  }
+
+  /**
+   * Returns the codec of the specified name.
+   *
+   * @param name the name of the codec
+   * @return the codec of the specified name
+   */
+  public static Optional<BioCCodec> forName(String name) {
+    return CODECS.stream()
+        .filter(codec -> codec.getName().equals(name))
+        .findFirst();
+  }
+
+  /**
+   * Returns the codec of the file name extension of the path.
+   *
+   * @param path the file path
+   * @return the codec of the file name extension
+   */
+  public static Optional<BioCCodec> forPath(Path path) {
+    String filename = path.getFileName().toString();
+    return CODECS.stream()
+        .filter(codec -> filename.endsWith(codec.getExtension()))
+        .findFirst();
+  }
+
+  /**
+   * Returns the codec that compressed the stream. The stream is reset to
+   * where it was.
+   *
+   * @param in the stream, which has to support mark and reset
+   * @return the codec of the stream, or empty if the stream is not compressed
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public static Optional<BioCCodec> detect(InputStream in)
+      throws IOException {
+    if (!in.markSupported()) {
+      throw new IllegalArgumentException("The stream does not support mark");
+    }
+    byte[] header = new byte[MAGIC_LENGTH];
+    in.mark(MAGIC_LENGTH);
+    int length = 0;
+    try {
+      int n;
+      while (length < MAGIC_LENGTH
+          && (n = in.read(header, length, MAGIC_LENGTH - length)) != -1) {
+        length += n;
+      }
+    } finally {
+      in.reset();
+    }
+    for (BioCCodec codec : CODECS) {
+      if (codec.matches(header, length)) {
+        return Optional.of(codec);
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Returns a buffered stream of the uncompressed bytes of the input stream.
+   * The input stream may or may not be compressed.
+   *
+   * @param in the stream
+   * @return the decompressed stream
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public static InputStream decode(InputStream in)
+      throws IOException {
+    BufferedInputStream buffered = new BufferedInputStream(in, BUFFER_SIZE);
+    Optional<BioCCodec> codec = detect(buffered);
+    if (!codec.isPresent()) {
+      return buffered;
+    }
+    return new BufferedInputStream(codec.get().newInputStream(buffered), BUFFER_SIZE);
+  }
+
+  /**
+   * Opens a buffered stream of the uncompressed bytes of the file. The codec
+   * is detected by the magic bytes of the file.
+   *
+   * @param path the file path
+   * @return the decompressed stream
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public static InputStream newInputStream(Path path)
+      throws IOException {
+    InputStream in = Files.newInputStream(path);
+    try {
+      return decode(in);
+    } catch (IOException e) {
+      in.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Opens a buffered stream that writes into the file. The output is
+   * compressed if the file name extension is of a codec, e.g., {@code .gz}.
+   *
+   * @param path the file path
+   * @return the stream to write uncompressed bytes to
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public static OutputStream newOutputStream(Path path)
+      throws IOException {
+    Optional<BioCCodec> codec = forPath(path);
+    OutputStream out = Files.newOutputStream(path);
+    if (codec.isPresent()) {
+      // the codec buffers the compressed bytes
+      try {
+        out = codec.get().newOutputStream(out);
+      } catch (IOException e) {
+        out.close();
+        throw e;
+      }
+    }
+    return new BufferedOutputStream(out, BUFFER_SIZE);
+  }
+}
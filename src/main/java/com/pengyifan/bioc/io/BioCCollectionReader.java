@@ -8,12 +8,10 @@ import javax.xml.stream.XMLStreamException;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.Reader;
-import java.nio.file.Files;
 import java.nio.file.Path;
 
 /**
@@ -47,11 +45,12 @@ public class BioCCollectionReader implements Closeable {
   public BioCCollectionReader(File file)
       throws FactoryConfigurationError, XMLStreamException,
       FileNotFoundException {
-    this(new FileReader(file));
+    this(new FileInputStream(file));
   }
 
   /**
-   * Creates a new BioCCollectionReader, given the Path to read from.
+   * Creates a new BioCCollectionReader, given the Path to read from. A compressed file
+   * is decompressed transparently.
    *
    * @param path the file path to read from
    * @throws FactoryConfigurationError if a factory configuration error occurs
@@ -61,7 +60,25 @@ public class BioCCollectionReader implements Closeable {
   public BioCCollectionReader(Path path)
       throws FactoryConfigurationError, XMLStreamException,
       IOException {
-    this(Files.newBufferedReader(path));
+    this(path, new BioCReaderOptions());
+  }
+
+  /**
+   * Creates a new BioCCollectionReader, given the Path to read from, and parses it
+   * with the specified options. A compressed file is decompressed
+   * transparently.
+   *
+   * @param path the file path to read from
+   * @param options the options of the reader, such as engine and lazy text
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws IOException if an I/O exception of some sort has occurred
+   * @since 1.0.4
+   */
+  public BioCCollectionReader(Path path, BioCReaderOptions options)
+      throws FactoryConfigurationError, XMLStreamException,
+      IOException {
+    this(BioCReader.newReader(path, Level.COLLECTION_LEVEL, options));
   }
 
   /**
@@ -73,7 +90,7 @@ public class BioCCollectionReader implements Closeable {
    */
   public BioCCollectionReader(InputStream in)
       throws FactoryConfigurationError, XMLStreamException {
-    this(new InputStreamReader(in));
+    this(in, BioCEngine.CURSOR);
   }
 
   /**
@@ -85,7 +102,79 @@ public class BioCCollectionReader implements Closeable {
    */
   public BioCCollectionReader(Reader in)
       throws FactoryConfigurationError, XMLStreamException {
-    reader = new BioCReader(in, Level.COLLECTION_LEVEL);
+    this(in, BioCEngine.CURSOR);
+  }
+
+  /**
+   * Creates an BioCCollectionReader that uses the reader in and parses it with the
+   * specified engine.
+   *
+   * @param in a Reader
+   * @param engine the StAX engine used to parse the BioC file
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @since 1.0.4
+   */
+  public BioCCollectionReader(Reader in, BioCEngine engine)
+      throws FactoryConfigurationError, XMLStreamException {
+    this(in, newOptions(engine));
+  }
+
+  /**
+   * Creates a BioCCollectionReader that uses the reader in and parses it with the
+   * specified options.
+   *
+   * @param in a Reader
+   * @param options the options of the reader, such as engine and factories
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @since 1.0.4
+   */
+  public BioCCollectionReader(Reader in, BioCReaderOptions options)
+      throws FactoryConfigurationError, XMLStreamException {
+    this(BioCReader.newReader(in, Level.COLLECTION_LEVEL, options));
+  }
+
+  /**
+   * Creates a BioCCollectionReader that uses the input stream in and parses it
+   * with the specified engine. The bytes are decoded by the XML parser, using the
+   * encoding in the XML declaration.
+   *
+   * @param in an InputStream
+   * @param engine the StAX engine used to parse the BioC file
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @since 1.0.4
+   */
+  public BioCCollectionReader(InputStream in, BioCEngine engine)
+      throws FactoryConfigurationError, XMLStreamException {
+    this(in, newOptions(engine));
+  }
+
+  /**
+   * Creates a BioCCollectionReader that uses the input stream in and parses it
+   * with the specified options.
+   *
+   * @param in an InputStream
+   * @param options the options of the reader, such as engine and factories
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @since 1.0.4
+   */
+  public BioCCollectionReader(InputStream in, BioCReaderOptions options)
+      throws FactoryConfigurationError, XMLStreamException {
+    this(BioCReader.newReader(in, Level.COLLECTION_LEVEL, options));
+  }
+
+  private static BioCReaderOptions newOptions(BioCEngine engine) {
+    BioCReaderOptions options = new BioCReaderOptions();
+    options.setEngine(engine);
+    return options;
+  }
+
+  private BioCCollectionReader(BioCReader reader)
+      throws XMLStreamException {
+    this.reader = reader;
     reader.read();
     collection = reader.collection;
   }
@@ -104,7 +193,7 @@ public class BioCCollectionReader implements Closeable {
   public BioCCollectionReader(String fileName)
       throws FactoryConfigurationError, XMLStreamException,
       FileNotFoundException {
-    this(new FileReader(fileName));
+    this(new FileInputStream(fileName));
   }
 
   /**
@@ -7,7 +7,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
-import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 
 import javax.xml.stream.FactoryConfigurationError;
@@ -56,7 +56,8 @@ public class BioCCollectionWriter implements Closeable {
   }
 
   /**
-   * Creates a new BioCCollectionReader, given the Path object.
+   * Creates a new BioCCollectionReader, given the Path object. The output is
+   * compressed if the file name extension is of a codec, e.g., {@code .gz}.
    *
    * @param path a file path object to write to
    * @throws FactoryConfigurationError if a factory configuration error occurs
@@ -68,7 +69,7 @@ public class BioCCollectionWriter implements Closeable {
   public BioCCollectionWriter(Path path)
       throws FactoryConfigurationError, XMLStreamException,
       IOException {
-    this(Files.newBufferedWriter(path));
+    this(new OutputStreamWriter(BioCCodecs.newOutputStream(path), StandardCharsets.UTF_8));
   }
 
 
@@ -93,10 +94,46 @@ public class BioCCollectionWriter implements Closeable {
    */
   public BioCCollectionWriter(Writer out)
       throws FactoryConfigurationError, XMLStreamException {
-    writer = new BioCWriter(out);
+    this(out, BioCEngine.CURSOR);
+  }
+
+  /**
+   * Creates a BioCCollectionWriter that uses the writer out and writes with the
+   * specified engine.
+   *
+   * @param out a Writer
+   * @param engine the StAX engine used to write the BioC file
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @since 1.0.4
+   */
+  public BioCCollectionWriter(Writer out, BioCEngine engine)
+      throws FactoryConfigurationError, XMLStreamException {
+    this(out, newOptions(engine));
+  }
+
+  /**
+   * Creates a BioCCollectionWriter that uses the writer out and writes with the
+   * specified options.
+   *
+   * @param out a Writer
+   * @param options the options of the writer, such as engine and indentation
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @since 1.0.4
+   */
+  public BioCCollectionWriter(Writer out, BioCWriterOptions options)
+      throws FactoryConfigurationError, XMLStreamException {
+    writer = BioCWriter.newWriter(out, options);
     hasWritten = false;
   }
 
+  private static BioCWriterOptions newOptions(BioCEngine engine) {
+    BioCWriterOptions options = new BioCWriterOptions();
+    options.setEngine(engine);
+    return options;
+  }
+
   /**
    * Creates a new BioCCollectionWriter, given the name of the file to read
    * from.
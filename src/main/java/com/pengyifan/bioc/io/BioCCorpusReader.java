@@ -0,0 +1,314 @@
+package com.pengyifan.bioc.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.xml.stream.XMLStreamException;
+
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+
+/**
+ * Reads the documents of many BioC files as one sequence. While the documents
+ * of one file are consumed, the next files are opened and read in the
+ * background. For example, to read all BioC files in a directory tree,
+ * <p>
+ * <pre>
+ * BioCCorpusReader reader = new BioCCorpusReader(dir, "**.{xml,xml.gz}");
+ * BioCDocument doc = null;
+ * while ((doc = reader.readDocument()) != null) {
+ *   Path path = reader.getCurrentPath();
+ *   BioCCollection collection = reader.readCollectionInfo();
+ *   ...
+ * }
+ * reader.close();
+ * </pre>
+ * <p>
+ * The files are read in the given order. Each file being read holds at most
+ * {@value #BUFFERED_DOCUMENTS} documents that have not been returned yet, so
+ * the files are streamed however large they are.
+ *
+ * @since 1.0.4
+ * @see BioCDocumentReader
+ * @author Yifan Peng
+ */
+public class BioCCorpusReader implements Closeable {
+
+  /**
+   * The default number of files read in the background.
+   */
+  public static final int DEFAULT_PREFETCH = 2;
+
+  /**
+   * The number of documents of a file that are read ahead of the consumer.
+   */
+  public static final int BUFFERED_DOCUMENTS = 256;
+
+  /**
+   * Marks the end of the documents of a file.
+   */
+  private static final Object END = new Object();
+
+  /**
+   * A file that is being read in the background. Its documents are put into a
+   * bounded queue, followed by {@link #END} or by the error that stopped the
+   * reading.
+   */
+  private static final class Shard {
+
+    private final Path path;
+    private final CompletableFuture<BioCCollection> collection;
+    private final BlockingQueue<Object> documents;
+    private boolean isDone;
+
+    private Shard(Path path, int capacity) {
+      this.path = path;
+      this.collection = new CompletableFuture<>();
+      this.documents = new ArrayBlockingQueue<>(capacity);
+    }
+  }
+
+  private final Iterator<Path> paths;
+  private final BioCReaderOptions options;
+  private final int prefetch;
+  private final int capacity;
+  private final ExecutorService executor;
+  private final Queue<Shard> prefetched;
+  private Shard current;
+
+  /**
+   * Creates a new BioCCorpusReader of the files in the directory tree whose
+   * paths relative to the directory match the glob pattern, e.g.,
+   * {@code **.xml}. The files are read in the order of their paths, and
+   * {@value #DEFAULT_PREFETCH} files are prefetched.
+   *
+   * @param directory the root of the directory tree
+   * @param glob the glob pattern of the files, as in
+   *          {@link java.nio.file.FileSystem#getPathMatcher(String)}
+   * @throws IOException if the directory cannot be listed
+   */
+  public BioCCorpusReader(Path directory, String glob)
+      throws IOException {
+    this(listFiles(directory, glob));
+  }
+
+  /**
+   * Creates a new BioCCorpusReader of the files. {@value #DEFAULT_PREFETCH}
+   * files are prefetched.
+   *
+   * @param paths the files to read from
+   */
+  public BioCCorpusReader(List<Path> paths) {
+    this(paths, new BioCReaderOptions(), DEFAULT_PREFETCH);
+  }
+
+  /**
+   * Creates a new BioCCorpusReader of the files. Compressed files are
+   * decompressed transparently.
+   *
+   * @param paths the files to read from
+   * @param options the options used to read each file
+   * @param prefetch the number of files read in the background
+   */
+  public BioCCorpusReader(List<Path> paths, BioCReaderOptions options, int prefetch) {
+    this(paths, options, prefetch, BUFFERED_DOCUMENTS);
+  }
+
+  BioCCorpusReader(List<Path> paths, BioCReaderOptions options, int prefetch, int capacity) {
+    if (prefetch < 1) {
+      throw new IllegalArgumentException("prefetch has to be > 0");
+    }
+    this.paths = new ArrayList<>(paths).iterator();
+    this.options = options;
+    this.prefetch = prefetch;
+    this.capacity = capacity;
+    // one more thread for the file being consumed
+    this.executor = Executors.newFixedThreadPool(prefetch + 1, r -> {
+      Thread thread = new Thread(r, "bioc-prefetcher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.prefetched = new ArrayDeque<>();
+    fill();
+  }
+
+  private static List<Path> listFiles(Path directory, String glob)
+      throws IOException {
+    PathMatcher matcher = directory.getFileSystem().getPathMatcher("glob:" + glob);
+    try (Stream<Path> stream = Files.walk(directory)) {
+      return stream
+          .filter(Files::isRegularFile)
+          .filter(p -> matcher.matches(directory.relativize(p)))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  private void fill() {
+    while (prefetched.size() < prefetch && paths.hasNext()) {
+      Shard shard = new Shard(paths.next(), capacity);
+      prefetched.add(shard);
+      executor.execute(() -> read(shard));
+    }
+  }
+
+  private void read(Shard shard) {
+    Object last = END;
+    try (BioCDocumentReader reader = new BioCDocumentReader(shard.path, options)) {
+      shard.collection.complete(reader.readCollectionInfo());
+      BioCDocument document;
+      while ((document = reader.readDocument()) != null) {
+        shard.documents.put(document);
+      }
+    } catch (InterruptedException e) {
+      // the reader is closed
+      return;
+    } catch (XMLStreamException | IOException | RuntimeException e) {
+      last = new XMLStreamException("Cannot read " + shard.path + ": " + e.getMessage(), e);
+      shard.collection.completeExceptionally((XMLStreamException) last);
+    }
+    try {
+      shard.documents.put(last);
+    } catch (InterruptedException e) {
+      // the reader is closed
+    }
+  }
+
+  /**
+   * Moves to the next file.
+   *
+   * @return false if there are no more files
+   */
+  private boolean nextShard()
+      throws XMLStreamException {
+    Shard shard = prefetched.poll();
+    if (shard == null) {
+      return false;
+    }
+    fill();
+    current = shard;
+    await(shard.collection);
+    return true;
+  }
+
+  private static <T> T await(CompletableFuture<T> future)
+      throws XMLStreamException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new XMLStreamException("Interrupted while waiting for a file", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof XMLStreamException) {
+        throw (XMLStreamException) e.getCause();
+      }
+      throw new XMLStreamException(e.getCause().getMessage(), e.getCause());
+    }
+  }
+
+  /**
+   * Closes the reader. Files that are being read are discarded.
+   */
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Returns a stream of the remaining documents of all files. The stream is sequential;
+   * if it is made parallel, batches of documents are processed on multiple
+   * threads. Closing the stream closes the reader. For example,
+   * <p>
+   * <pre>
+   * try (Stream&lt;BioCDocument&gt; documents = reader.documents()) {
+   *   documents.parallel().map(...).forEach(...);
+   * }
+   * </pre>
+   * <p>
+   * Errors are thrown as {@link java.io.UncheckedIOException}.
+   *
+   * @return a stream of the remaining documents
+   */
+  public Stream<BioCDocument> documents() {
+    return BioCDocumentSpliterator.stream(this::readDocument, d -> d, this);
+  }
+
+  /**
+   * Returns the file of the document last returned by {@link #readDocument()},
+   * or of the first file if no document has been returned.
+   *
+   * @return the current file, or null if there are no files
+   * @throws XMLStreamException if an unexpected processing error occurs
+   */
+  public Path getCurrentPath()
+      throws XMLStreamException {
+    if (current == null) {
+      nextShard();
+    }
+    return current == null ? null : current.path;
+  }
+
+  /**
+   * Reads the collection information of the file of the document last
+   * returned by {@link #readDocument()}, or of the first file if no document
+   * has been returned.
+   *
+   * @return the BioC collection that contains only information, or null if
+   *         there are no files
+   * @throws XMLStreamException if an unexpected processing error occurs
+   */
+  public BioCCollection readCollectionInfo()
+      throws XMLStreamException {
+    if (current == null) {
+      nextShard();
+    }
+    return current == null ? null : await(current.collection);
+  }
+
+  /**
+   * Reads one BioC document. Files without documents are skipped.
+   *
+   * @return the BioC document, or null if there are no more documents
+   * @throws XMLStreamException if an unexpected processing error occurs
+   */
+  public BioCDocument readDocument()
+      throws XMLStreamException {
+    while (true) {
+      while (current == null || current.isDone) {
+        if (!nextShard()) {
+          return null;
+        }
+      }
+      Object document;
+      try {
+        document = current.documents.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new XMLStreamException("Interrupted while waiting for a document", e);
+      }
+      if (document instanceof BioCDocument) {
+        return (BioCDocument) document;
+      }
+      current.isDone = true;
+      if (document instanceof XMLStreamException) {
+        throw (XMLStreamException) document;
+      }
+    }
+  }
+}
@@ -0,0 +1,383 @@
+package com.pengyifan.bioc.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.stream.FactoryConfigurationError;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+
+import org.apache.commons.lang3.Validate;
+import org.codehaus.stax2.XMLInputFactory2;
+import org.codehaus.stax2.XMLStreamReader2;
+
+import com.pengyifan.bioc.BioCAnnotation;
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+import com.pengyifan.bioc.BioCLocation;
+import com.pengyifan.bioc.BioCNode;
+import com.pengyifan.bioc.BioCPassage;
+import com.pengyifan.bioc.BioCRelation;
+import com.pengyifan.bioc.BioCSentence;
+import com.pengyifan.bioc.HasText;
+
+/**
+ * Reads BioC files through the StAX cursor API. Element names and attributes
+ * are accessed in place, so no event, name, or attribute object is allocated
+ * per token.
+ */
+class BioCCursorReader extends BioCReader {
+
+  private static final byte[] END_COLLECTION = "</collection>"
+      .getBytes(StandardCharsets.US_ASCII);
+
+  XMLStreamReader2 reader;
+  /**
+   * The file the reader parses, if texts are lazy.
+   */
+  BioCMappedFile mappedFile;
+  private int state;
+
+  BioCCursorReader(XMLStreamReader2 reader, Level level) {
+    super(level);
+    this.reader = reader;
+    state = 0;
+    readStartDocument();
+  }
+
+  /**
+   * Creates a reader over a single {@code <document>} element that was cut out
+   * of a collection, e.g., by {@link BioCDocumentScanner}.
+   *
+   * @param in the bytes of the document element
+   * @param encoding the character encoding of the collection
+   */
+  static BioCCursorReader newDocumentReader(InputStream in, String encoding)
+      throws FactoryConfigurationError, XMLStreamException {
+    XMLInputFactory2 factory = BioCXMLFactories.getDefault().getInputFactory();
+    BioCCursorReader reader = new BioCCursorReader(
+        (XMLStreamReader2) factory.createXMLStreamReader(in, encoding),
+        Level.DOCUMENT_LEVEL);
+    // inside the collection
+    reader.state = 1;
+    return reader;
+  }
+
+  /**
+   * Creates a reader over the bytes before the first {@code <document>} of a
+   * collection, e.g., as returned by {@link BioCDocumentScanner#readHeader}.
+   * The missing end tag of the collection is appended.
+   *
+   * @param header the collection header
+   */
+  static BioCCursorReader newHeaderReader(byte[] header)
+      throws FactoryConfigurationError, XMLStreamException {
+    InputStream in = new SequenceInputStream(
+        new ByteArrayInputStream(header),
+        new ByteArrayInputStream(END_COLLECTION));
+    XMLInputFactory2 factory = BioCXMLFactories.getDefault().getInputFactory();
+    return new BioCCursorReader(
+        (XMLStreamReader2) factory.createXMLStreamReader(in),
+        Level.COLLECTION_LEVEL);
+  }
+
+  /**
+   * Returns the character encoding of the input, or UTF-8 if it is unknown.
+   */
+  String getInputEncoding() {
+    String encoding = reader.getEncoding();
+    return encoding == null ? "UTF-8" : encoding;
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    try {
+      reader.close();
+    } catch (XMLStreamException e) {
+      throw new IOException(e.getMessage(), e);
+    }
+  }
+
+  private String getAttribute(String key) {
+    return reader.getAttributeValue(null, key);
+  }
+
+  private String getText()
+      throws XMLStreamException {
+    return reader.getElementText();
+  }
+
+  /**
+   * Reads the text of the current element into the object. If the file is
+   * mapped, the text is skipped, and decoded from the file when it is first
+   * needed.
+   */
+  private void readText(HasText object)
+      throws XMLStreamException {
+    if (mappedFile == null) {
+      object.setText(getText());
+      return;
+    }
+    long from = reader.getLocationInfo().getEndingCharOffset();
+    while (reader.hasNext()) {
+      int eventType = reader.next();
+      switch (eventType) {
+      case XMLStreamConstants.CHARACTERS:
+      case XMLStreamConstants.CDATA:
+      case XMLStreamConstants.SPACE:
+      case XMLStreamConstants.COMMENT:
+      case XMLStreamConstants.PROCESSING_INSTRUCTION:
+        break;
+      case XMLStreamConstants.END_ELEMENT:
+        long to = reader.getLocationInfo().getStartingCharOffset();
+        if (to <= from) {
+          object.setText("");
+        } else {
+          object.setLazyText(new BioCLazyText(mappedFile, from, to));
+        }
+        return;
+      case XMLStreamConstants.ENTITY_REFERENCE:
+        throw new XMLStreamException("Lazy text cannot contain the entity reference: "
+            + reader.getLocalName(), reader.getLocation());
+      default:
+        throw new XMLStreamException("Unexpected element in the text", reader.getLocation());
+      }
+    }
+    throw new XMLStreamException("Unexpected end of the text", reader.getLocation());
+  }
+
+  private void readStartDocument() {
+    collection = new BioCCollection();
+    collection.setEncoding(reader.getCharacterEncodingScheme());
+    String version = reader.getVersion();
+    collection.setVersion(version == null ? "1.0" : version);
+    collection.setStandalone(reader.isStandalone());
+  }
+
+  @Override
+  protected Object read()
+      throws XMLStreamException {
+
+    String localName = null;
+
+    while (reader.hasNext()) {
+      int eventType = reader.next();
+      switch (state) {
+      case 0:
+        if (eventType == XMLStreamConstants.START_ELEMENT) {
+          localName = reader.getLocalName();
+          if (localName.equals("collection")) {
+            state = 1;
+          }
+        }
+        break;
+      case 1:
+        if (eventType == XMLStreamConstants.START_ELEMENT) {
+          localName = reader.getLocalName();
+          if (localName.equals("source")) {
+            collection.setSource(getText());
+          } else if (localName.equals("date")) {
+            collection.setDate(getText());
+          } else if (localName.equals("key")) {
+            collection.setKey(getText());
+          } else if (localName.equals("infon")) {
+            collection.putInfon(getAttribute("key"), getText());
+          } else if (localName.equals("document")) {
+            // read document
+            newDocument();
+            state = 2;
+          }
+        } else if (eventType == XMLStreamConstants.END_ELEMENT) {
+          localName = reader.getLocalName();
+          if (localName.equals("collection")) {
+            sentence = null;
+            passage = null;
+            document = null;
+
+            state = 0;
+          }
+        }
+        break;
+      case 2:
+        if (eventType == XMLStreamConstants.START_ELEMENT) {
+          localName = reader.getLocalName();
+          if (isSkipped(localName)) {
+            reader.skipElement();
+          } else if (localName.equals("id")) {
+            document.setID(getText());
+          } else if (localName.equals("infon")) {
+            document.putInfon(getAttribute("key"), getText());
+          } else if (!acceptDocument()) {
+            skipDocument();
+            state = 1;
+          } else if (localName.equals("passage")) {
+            // read passage
+            passage = new BioCPassage();
+            state = 3;
+          } else if (localName.equals("annotation")) {
+            document.addAnnotation(readAnnotation());
+          } else if (localName.equals("relation")) {
+            document.addRelation(readRelation());
+          }
+        } else if (eventType == XMLStreamConstants.END_ELEMENT) {
+          localName = reader.getLocalName();
+          if (localName.equals("document")) {
+            state = 1;
+            if (acceptDocument()) {
+              if (level == Level.DOCUMENT_LEVEL) {
+                return document;
+              } else if (isRetained(Level.DOCUMENT_LEVEL)) {
+                collection.addDocument(document);
+              }
+            }
+          }
+        }
+        break;
+      case 3:
+        if (eventType == XMLStreamConstants.START_ELEMENT) {
+          localName = reader.getLocalName();
+          if (isSkipped(localName)) {
+            reader.skipElement();
+          } else if (localName.equals("offset")) {
+            passage.setOffset(Integer.parseInt(getText()));
+          } else if (localName.equals("text")) {
+            readText(passage);
+          } else if (localName.equals("infon")) {
+            passage.putInfon(getAttribute("key"), getText());
+          } else if (localName.equals("annotation")) {
+            passage.addAnnotation(readAnnotation());
+          } else if (localName.equals("relation")) {
+            passage.addRelation(readRelation());
+          } else if (localName.equals("sentence")) {
+            // read sentence
+            sentence = new BioCSentence();
+            state = 4;
+          }
+        } else if (eventType == XMLStreamConstants.END_ELEMENT) {
+          localName = reader.getLocalName();
+          if (localName.equals("passage")) {
+            state = 2;
+            if (level == Level.PASSAGE_LEVEL) {
+              return passage;
+            } else if (isRetained(Level.PASSAGE_LEVEL)) {
+              document.addPassage(passage);
+            }
+          }
+        }
+        break;
+      case 4:
+        if (eventType == XMLStreamConstants.START_ELEMENT) {
+          localName = reader.getLocalName();
+          if (isSkipped(localName)) {
+            reader.skipElement();
+          } else if (localName.equals("offset")) {
+            sentence.setOffset(Integer.parseInt(getText()));
+          } else if (localName.equals("text")) {
+            readText(sentence);
+          } else if (localName.equals("infon")) {
+            sentence.putInfon(getAttribute("key"), getText());
+          } else if (localName.equals("annotation")) {
+            sentence.addAnnotation(readAnnotation());
+          } else if (localName.equals("relation")) {
+            sentence.addRelation(readRelation());
+          }
+        } else if (eventType == XMLStreamConstants.END_ELEMENT) {
+          localName = reader.getLocalName();
+          if (localName.equals("sentence")) {
+            state = 3;
+            if (level == Level.SENTENCE_LEVEL) {
+              return sentence;
+            } else if (isRetained(Level.SENTENCE_LEVEL)) {
+              passage.addSentence(sentence);
+            }
+          }
+        }
+        break;
+      }
+    }
+    return collection;
+  }
+
+  /**
+   * Skips the rest of the current document, from the start tag of one of its
+   * children to the end tag of the document, without building any object.
+   */
+  private void skipDocument()
+      throws XMLStreamException {
+    reader.skipElement();
+    while (reader.hasNext()) {
+      int eventType = reader.next();
+      if (eventType == XMLStreamConstants.START_ELEMENT) {
+        reader.skipElement();
+      } else if (eventType == XMLStreamConstants.END_ELEMENT) {
+        return;
+      }
+    }
+  }
+
+  private BioCAnnotation readAnnotation()
+      throws XMLStreamException {
+    BioCAnnotation ann = new BioCAnnotation();
+    ann.setID(getAttribute("id"));
+
+    String localName = null;
+
+    while (reader.hasNext()) {
+      int eventType = reader.next();
+      if (eventType == XMLStreamConstants.START_ELEMENT) {
+        localName = reader.getLocalName();
+        if (localName.equals("infon") && !isRead(BioCLayer.INFONS)) {
+          reader.skipElement();
+        } else if (localName.equals("text")) {
+          readText(ann);
+        } else if (localName.equals("infon")) {
+          ann.putInfon(getAttribute("key"), getText());
+        } else if (localName.equals("location")) {
+          ann.addLocation(new BioCLocation(
+              Integer.parseInt(getAttribute("offset")),
+              Integer.parseInt(getAttribute("length"))));
+        }
+      } else if (eventType == XMLStreamConstants.END_ELEMENT) {
+        localName = reader.getLocalName();
+        if (localName.equals("annotation")) {
+          return ann;
+        }
+      }
+    }
+    Validate.isTrue(false, "should not reach here");
+    return null;
+  }
+
+  private BioCRelation readRelation()
+      throws XMLStreamException {
+    BioCRelation rel = new BioCRelation();
+    rel.setID(getAttribute("id"));
+
+    String localName = null;
+
+    while (reader.hasNext()) {
+      int eventType = reader.next();
+      if (eventType == XMLStreamConstants.START_ELEMENT) {
+        localName = reader.getLocalName();
+        if (localName.equals("infon") && !isRead(BioCLayer.INFONS)) {
+          reader.skipElement();
+        } else if (localName.equals("infon")) {
+          rel.putInfon(getAttribute("key"), getText());
+        } else if (localName.equals("node")) {
+          rel.addNode(new BioCNode(getAttribute("refid"), getAttribute("role")));
+        }
+      } else if (eventType == XMLStreamConstants.END_ELEMENT) {
+        localName = reader.getLocalName();
+        if (localName.equals("relation")) {
+          return rel;
+        }
+      }
+    }
+    Validate.isTrue(false, "should not reach here");
+    return null;
+  }
+}
@@ -0,0 +1,99 @@
+package com.pengyifan.bioc.io;
+
+import java.io.IOException;
+import java.io.Writer;
+import javanet.staxutils.IndentingXMLStreamWriter;
+import javax.xml.stream.FactoryConfigurationError;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Writes BioC files through the StAX cursor API. Elements, attributes and
+ * characters are written directly, so no event or name object is allocated
+ * per element.
+ */
+class BioCCursorWriter extends BioCWriter {
+
+  XMLStreamWriter writer;
+  Writer out;
+
+  protected BioCCursorWriter(Writer writer, BioCWriterOptions options)
+      throws FactoryConfigurationError, XMLStreamException {
+    this.out = writer;
+    XMLOutputFactory xmlOutputFactory = options.getFactories().getOutputFactory();
+    this.writer = xmlOutputFactory.createXMLStreamWriter(writer);
+    if (!options.isCompact()) {
+      IndentingXMLStreamWriter indentingWriter = new IndentingXMLStreamWriter(this.writer);
+      indentingWriter.setIndent(options.getIndent());
+      indentingWriter.setNewLine(options.getNewLine());
+      this.writer = indentingWriter;
+    }
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    try {
+      writer.flush();
+      writer.close();
+      // the StAX writer does not close the underlying writer, e.g., to finish a
+      // compressed stream
+      out.close();
+    } catch (XMLStreamException e) {
+      throw new IOException(e.getMessage());
+    }
+  }
+
+  @Override
+  protected BioCWriter flush()
+      throws XMLStreamException {
+    writer.flush();
+    return this;
+  }
+
+  @Override
+  protected BioCWriter writeAttribute(String key, String value)
+      throws XMLStreamException {
+    writer.writeAttribute(key, value);
+    return this;
+  }
+
+  @Override
+  protected BioCWriter writeCharacters(String text)
+      throws XMLStreamException {
+    writer.writeCharacters(text);
+    return this;
+  }
+
+  @Override
+  protected BioCWriter writeEndDocument()
+      throws XMLStreamException {
+    writer.writeEndDocument();
+    return this;
+  }
+
+  @Override
+  protected BioCWriter writeEndElement(String localPart)
+      throws XMLStreamException {
+    writer.writeEndElement();
+    return this;
+  }
+
+  @Override
+  protected BioCWriter writeStartDocument(String encoding,
+      String version,
+      boolean standalone)
+      throws XMLStreamException {
+    // same as the event engine, which does not write the standalone declaration
+    writer.writeStartDocument(encoding, version);
+    return this;
+  }
+
+  @Override
+  protected BioCWriter writeStartElement(String localPart)
+      throws XMLStreamException {
+    writer.writeStartElement(localPart);
+    return this;
+  }
+}
@@ -0,0 +1,313 @@
+package com.pengyifan.bioc.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Byte offsets, lengths and ids of the documents in a BioC file. The index can
+ * be saved in a compact sidecar file next to the BioC file, and is used by
+ * {@link BioCRandomAccessDocumentReader} to parse only the requested
+ * documents. For example,
+ * <p>
+ * <pre>
+ * BioCDocumentIndex index = BioCDocumentIndex.build(path);
+ * index.write(BioCDocumentIndex.getIndexPath(path));
+ * </pre>
+ *
+ * @since 1.0.4
+ * @see BioCRandomAccessDocumentReader
+ * @author Yifan Peng
+ */
+public class BioCDocumentIndex {
+
+  private static final int MAGIC = 0x42696f43;
+  private static final int VERSION = 1;
+
+  private final long sourceSize;
+  private final long sourceModified;
+  private final String encoding;
+  private final int headerLength;
+  private final long[] offsets;
+  private final int[] lengths;
+  private final String[] ids;
+  private final Map<String, Integer> idIndex;
+
+  private BioCDocumentIndex(long sourceSize, long sourceModified, String encoding,
+      int headerLength, long[] offsets, int[] lengths, String[] ids) {
+    this.sourceSize = sourceSize;
+    this.sourceModified = sourceModified;
+    this.encoding = encoding;
+    this.headerLength = headerLength;
+    this.offsets = offsets;
+    this.lengths = lengths;
+    this.ids = ids;
+    this.idIndex = Maps.newHashMapWithExpectedSize(ids.length);
+    for (int i = ids.length - 1; i >= 0; i--) {
+      idIndex.put(ids[i], i);
+    }
+  }
+
+  /**
+   * Returns the default path of the index of a BioC file, i.e., the file name
+   * followed by {@code .idx}.
+   *
+   * @param path the BioC file
+   * @return the default index path
+   */
+  public static Path getIndexPath(Path path) {
+    return path.resolveSibling(path.getFileName() + ".idx");
+  }
+
+  /**
+   * Builds the index by scanning the BioC file once.
+   *
+   * @param path the BioC file
+   * @return the index of the BioC file
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws IOException if the file is compressed, or an I/O exception of some
+   *           sort has occurred
+   */
+  public static BioCDocumentIndex build(Path path)
+      throws XMLStreamException, IOException {
+    return build(path, false);
+  }
+
+  /**
+   * Builds the index by scanning the BioC file once. If asked for, the file is
+   * mapped into memory while it is scanned.
+   *
+   * @param path the BioC file
+   * @param isMemoryMapped true if the file is mapped into memory
+   * @return the index of the BioC file
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws IOException if the file is compressed, or an I/O exception of some
+   *           sort has occurred
+   */
+  public static BioCDocumentIndex build(Path path, boolean isMemoryMapped)
+      throws XMLStreamException, IOException {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+      Optional<BioCCodec> codec = BioCCodecs.detect(in);
+      if (codec.isPresent()) {
+        throw new IOException("Cannot index a " + codec.get().getName() + " file: " + path);
+      }
+    }
+
+    long size = Files.size(path);
+    long modified = Files.getLastModifiedTime(path).toMillis();
+
+    try (BioCDocumentScanner scanner = new BioCDocumentScanner(
+        BioCReader.newInputStream(path, isMemoryMapped))) {
+      byte[] header = scanner.readHeader();
+      BioCCursorReader headerReader = BioCCursorReader.newHeaderReader(header);
+      headerReader.read();
+      String encoding = headerReader.getInputEncoding();
+      headerReader.close();
+
+      XMLInputFactory factory = BioCXMLFactories.getDefault().getInputFactory();
+      long[] offsets = new long[1024];
+      int[] lengths = new int[1024];
+      String[] ids = new String[1024];
+      int count = 0;
+      BioCDocumentScanner.Chunk chunk;
+      while ((chunk = scanner.nextDocument()) != null) {
+        if (count == offsets.length) {
+          offsets = Arrays.copyOf(offsets, count * 2);
+          lengths = Arrays.copyOf(lengths, count * 2);
+          ids = Arrays.copyOf(ids, count * 2);
+        }
+        offsets[count] = chunk.offset;
+        lengths[count] = chunk.bytes.length;
+        ids[count] = readID(factory, chunk.bytes, encoding);
+        count++;
+      }
+      return new BioCDocumentIndex(size, modified, encoding, header.length,
+          Arrays.copyOf(offsets, count), Arrays.copyOf(lengths, count),
+          Arrays.copyOf(ids, count));
+    }
+  }
+
+  /**
+   * Reads the id of the document without parsing the rest of it.
+   */
+  private static String readID(XMLInputFactory factory, byte[] bytes, String encoding)
+      throws XMLStreamException {
+    XMLStreamReader reader = factory.createXMLStreamReader(
+        new ByteArrayInputStream(bytes), encoding);
+    try {
+      int depth = 0;
+      while (reader.hasNext()) {
+        int eventType = reader.next();
+        if (eventType == XMLStreamConstants.START_ELEMENT) {
+          depth++;
+          if (depth == 2 && reader.getLocalName().equals("id")) {
+            return reader.getElementText();
+          }
+        } else if (eventType == XMLStreamConstants.END_ELEMENT) {
+          depth--;
+        }
+      }
+      return "";
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * Reads the index from a sidecar file.
+   *
+   * @param indexPath the index file
+   * @return the index
+   * @throws IOException if the file is not a BioC index, or an I/O exception
+   *           of some sort has occurred
+   */
+  public static BioCDocumentIndex read(Path indexPath)
+      throws IOException {
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(indexPath)))) {
+      if (in.readInt() != MAGIC) {
+        throw new IOException("Not a BioC index: " + indexPath);
+      }
+      int version = in.readInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported BioC index version: " + version);
+      }
+      long sourceSize = in.readLong();
+      long sourceModified = in.readLong();
+      String encoding = in.readUTF();
+      int headerLength = in.readInt();
+      int n = in.readInt();
+      long[] offsets = new long[n];
+      int[] lengths = new int[n];
+      String[] ids = new String[n];
+      for (int i = 0; i < n; i++) {
+        offsets[i] = in.readLong();
+        lengths[i] = in.readInt();
+        ids[i] = in.readUTF();
+      }
+      return new BioCDocumentIndex(sourceSize, sourceModified, encoding, headerLength,
+          offsets, lengths, ids);
+    }
+  }
+
+  /**
+   * Writes the index into a sidecar file.
+   *
+   * @param indexPath the index file
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public void write(Path indexPath)
+      throws IOException {
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(indexPath)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeLong(sourceSize);
+      out.writeLong(sourceModified);
+      out.writeUTF(encoding);
+      out.writeInt(headerLength);
+      out.writeInt(offsets.length);
+      for (int i = 0; i < offsets.length; i++) {
+        out.writeLong(offsets[i]);
+        out.writeInt(lengths[i]);
+        out.writeUTF(ids[i]);
+      }
+    }
+  }
+
+  /**
+   * Returns true if the BioC file has the same size and modification time as
+   * when this index was built.
+   *
+   * @param path the BioC file
+   * @return true if this index is up to date with the BioC file
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public boolean isUpToDate(Path path)
+      throws IOException {
+    return Files.size(path) == sourceSize
+        && Files.getLastModifiedTime(path).toMillis() == sourceModified;
+  }
+
+  /**
+   * Returns the number of documents in the index.
+   *
+   * @return the number of documents in the index
+   */
+  public int size() {
+    return offsets.length;
+  }
+
+  /**
+   * Returns the id of the document at the specified position.
+   *
+   * @param index document position in the BioC file
+   * @return the id of the document
+   */
+  public String getID(int index) {
+    return ids[index];
+  }
+
+  /**
+   * Returns the byte offset of the document at the specified position.
+   *
+   * @param index document position in the BioC file
+   * @return the byte offset of the {@code <document>} start tag
+   */
+  public long getOffset(int index) {
+    return offsets[index];
+  }
+
+  /**
+   * Returns the length in bytes of the document at the specified position.
+   *
+   * @param index document position in the BioC file
+   * @return the length in bytes of the {@code <document>} element
+   */
+  public int getLength(int index) {
+    return lengths[index];
+  }
+
+  /**
+   * Returns the position of the first document with the specified id.
+   *
+   * @param id the document id
+   * @return the position of the document
+   */
+  public OptionalInt indexOf(String id) {
+    Integer index = idIndex.get(id);
+    return index == null ? OptionalInt.empty() : OptionalInt.of(index);
+  }
+
+  /**
+   * Returns the length in bytes of the collection header, i.e., everything
+   * before the first document.
+   */
+  int getHeaderLength() {
+    return headerLength;
+  }
+
+  /**
+   * Returns the character encoding of the BioC file.
+   */
+  String getEncoding() {
+    return encoding;
+  }
+}
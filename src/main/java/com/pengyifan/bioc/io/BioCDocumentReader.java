@@ -3,13 +3,12 @@ package com.pengyifan.bioc.io;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.Reader;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.stream.Stream;
 
 import javax.xml.stream.FactoryConfigurationError;
 import javax.xml.stream.XMLStreamException;
@@ -53,11 +52,12 @@ public class BioCDocumentReader implements Closeable {
   public BioCDocumentReader(File file)
       throws FactoryConfigurationError, XMLStreamException,
       FileNotFoundException {
-    this(new FileReader(file));
+    this(new FileInputStream(file));
   }
 
   /**
-   * Creates a new BioCDocumentReader, given the Path to read from.
+   * Creates a new BioCDocumentReader, given the Path to read from. A compressed file
+   * is decompressed transparently.
    *
    * @param path the file path to read from
    * @throws FactoryConfigurationError if a factory configuration error occurs
@@ -67,7 +67,25 @@ public class BioCDocumentReader implements Closeable {
   public BioCDocumentReader(Path path)
       throws FactoryConfigurationError, XMLStreamException,
       IOException {
-    this(Files.newBufferedReader(path));
+    this(path, new BioCReaderOptions());
+  }
+
+  /**
+   * Creates a new BioCDocumentReader, given the Path to read from, and parses it
+   * with the specified options. A compressed file is decompressed
+   * transparently.
+   *
+   * @param path the file path to read from
+   * @param options the options of the reader, such as engine and lazy text
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws IOException if an I/O exception of some sort has occurred
+   * @since 1.0.4
+   */
+  public BioCDocumentReader(Path path, BioCReaderOptions options)
+      throws FactoryConfigurationError, XMLStreamException,
+      IOException {
+    this(BioCReader.newReader(path, Level.DOCUMENT_LEVEL, options));
   }
 
   /**
@@ -79,7 +97,7 @@ public class BioCDocumentReader implements Closeable {
    */
   public BioCDocumentReader(InputStream in)
       throws FactoryConfigurationError, XMLStreamException {
-    this(new InputStreamReader(in));
+    this(in, BioCEngine.CURSOR);
   }
 
   /**
@@ -91,7 +109,79 @@ public class BioCDocumentReader implements Closeable {
    */
   public BioCDocumentReader(Reader in)
       throws FactoryConfigurationError, XMLStreamException {
-    reader = new BioCReader(in, Level.DOCUMENT_LEVEL);
+    this(in, BioCEngine.CURSOR);
+  }
+
+  /**
+   * Creates an BioCDocumentReader that uses the reader in and parses it with the
+   * specified engine.
+   *
+   * @param in a Reader
+   * @param engine the StAX engine used to parse the BioC file
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @since 1.0.4
+   */
+  public BioCDocumentReader(Reader in, BioCEngine engine)
+      throws FactoryConfigurationError, XMLStreamException {
+    this(in, newOptions(engine));
+  }
+
+  /**
+   * Creates a BioCDocumentReader that uses the reader in and parses it with the
+   * specified options.
+   *
+   * @param in a Reader
+   * @param options the options of the reader, such as engine and factories
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @since 1.0.4
+   */
+  public BioCDocumentReader(Reader in, BioCReaderOptions options)
+      throws FactoryConfigurationError, XMLStreamException {
+    this(BioCReader.newReader(in, Level.DOCUMENT_LEVEL, options));
+  }
+
+  /**
+   * Creates a BioCDocumentReader that uses the input stream in and parses it with
+   * the specified engine. The bytes are decoded by the XML parser, using the
+   * encoding in the XML declaration.
+   *
+   * @param in an InputStream
+   * @param engine the StAX engine used to parse the BioC file
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @since 1.0.4
+   */
+  public BioCDocumentReader(InputStream in, BioCEngine engine)
+      throws FactoryConfigurationError, XMLStreamException {
+    this(in, newOptions(engine));
+  }
+
+  /**
+   * Creates a BioCDocumentReader that uses the input stream in and parses it with
+   * the specified options.
+   *
+   * @param in an InputStream
+   * @param options the options of the reader, such as engine and factories
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @since 1.0.4
+   */
+  public BioCDocumentReader(InputStream in, BioCReaderOptions options)
+      throws FactoryConfigurationError, XMLStreamException {
+    this(BioCReader.newReader(in, Level.DOCUMENT_LEVEL, options));
+  }
+
+  private static BioCReaderOptions newOptions(BioCEngine engine) {
+    BioCReaderOptions options = new BioCReaderOptions();
+    options.setEngine(engine);
+    return options;
+  }
+
+  private BioCDocumentReader(BioCReader reader)
+      throws XMLStreamException {
+    this.reader = reader;
     reader.read();
   }
 
@@ -108,7 +198,7 @@ public class BioCDocumentReader implements Closeable {
   public BioCDocumentReader(String fileName)
       throws FactoryConfigurationError, XMLStreamException,
       FileNotFoundException {
-    this(new FileReader(fileName));
+    this(new FileInputStream(fileName));
   }
 
   /**
@@ -122,6 +212,26 @@ public class BioCDocumentReader implements Closeable {
     reader.close();
   }
 
+  /**
+   * Returns a stream of the remaining documents. The stream is sequential;
+   * if it is made parallel, batches of documents are processed on multiple
+   * threads. Closing the stream closes the reader. For example,
+   * <p>
+   * <pre>
+   * try (Stream&lt;BioCDocument&gt; documents = reader.documents()) {
+   *   documents.parallel().map(...).forEach(...);
+   * }
+   * </pre>
+   * <p>
+   * Errors are thrown as {@link java.io.UncheckedIOException}.
+   *
+   * @return a stream of the remaining documents
+   * @since 1.0.4
+   */
+  public Stream<BioCDocument> documents() {
+    return BioCDocumentSpliterator.stream(this::readDocument, d -> d, this);
+  }
+
   /**
    * Reads the collection information: encoding, version, DTD, source, date,
    * key, infons, etc.
@@ -0,0 +1,324 @@
+package com.pengyifan.bioc.io;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Splits the bytes of a BioC file on {@code <document>} boundaries without
+ * parsing the documents. Comments, processing instructions, CDATA sections,
+ * the DOCTYPE declaration and quoted attribute values are skipped, so markup
+ * inside them is never mistaken for a document boundary.
+ * <p>
+ * The scanner works on any ASCII-compatible encoding, such as UTF-8 or
+ * ISO-8859-1.
+ */
+class BioCDocumentScanner implements Closeable {
+
+  /**
+   * The bytes of one {@code <document>} element and where they start in the
+   * file.
+   */
+  static class Chunk {
+
+    final long offset;
+    final byte[] bytes;
+
+    Chunk(long offset, byte[] bytes) {
+      this.offset = offset;
+      this.bytes = bytes;
+    }
+  }
+
+  private static final byte[] DOCUMENT = "document".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] COLLECTION = "collection".getBytes(StandardCharsets.US_ASCII);
+
+  private static final int START = 1;
+  private static final int END = 2;
+  private static final int EMPTY = 3;
+
+  private final InputStream in;
+  private final byte[] buffer;
+  private int pos;
+  private int limit;
+  // absolute offset of the next byte to be read
+  private long position;
+
+  // bytes read since recordStart
+  private byte[] record;
+  private int recordLength;
+  private long recordStart;
+  // first byte in buffer not copied to record yet
+  private int recordFrom;
+
+  private final byte[] name;
+  private int nameLength;
+  private long tagOffset;
+
+  private boolean hasReadHeader;
+  private boolean inDocument;
+  // the header ends with an empty document element
+  private boolean pendingEmpty;
+
+  BioCDocumentScanner(InputStream in) {
+    this(in, 0);
+  }
+
+  /**
+   * Creates a scanner whose first byte is at the given offset in the file.
+   */
+  BioCDocumentScanner(InputStream in, long offset) {
+    this.in = in;
+    this.buffer = new byte[64 * 1024];
+    this.record = new byte[64 * 1024];
+    this.name = new byte[16];
+    this.position = offset;
+    this.recordStart = offset;
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    in.close();
+  }
+
+  /**
+   * Reads the collection header, i.e., all bytes before the first
+   * {@code <document>}, or before {@code </collection>} if there is no
+   * document.
+   */
+  byte[] readHeader()
+      throws IOException {
+    if (hasReadHeader) {
+      throw new IllegalStateException("readHeader can only be invoked once.");
+    }
+    hasReadHeader = true;
+
+    int kind;
+    while ((kind = nextTag()) != -1) {
+      if ((kind == START || kind == EMPTY) && isName(DOCUMENT)) {
+        inDocument = true;
+        break;
+      } else if (kind == END && isName(COLLECTION)) {
+        break;
+      }
+    }
+    sync();
+    long end = kind == -1 ? position : tagOffset;
+    byte[] header = Arrays.copyOf(record, (int) (end - recordStart));
+    discardBefore(end);
+    if (inDocument && kind == EMPTY) {
+      inDocument = false;
+      pendingEmpty = true;
+    }
+    return header;
+  }
+
+  /**
+   * Returns the next {@code <document>} element, or null if there are no more
+   * documents.
+   */
+  Chunk nextDocument()
+      throws IOException {
+    if (!hasReadHeader) {
+      readHeader();
+    }
+    if (pendingEmpty) {
+      pendingEmpty = false;
+      return cut();
+    }
+    if (!inDocument) {
+      int kind;
+      while ((kind = nextTag()) != -1) {
+        if (kind == EMPTY && isName(DOCUMENT)) {
+          sync();
+          discardBefore(tagOffset);
+          return cut();
+        } else if (kind == START && isName(DOCUMENT)) {
+          break;
+        } else if (kind == END && isName(COLLECTION)) {
+          return null;
+        }
+      }
+      if (kind == -1) {
+        return null;
+      }
+      sync();
+      discardBefore(tagOffset);
+      inDocument = true;
+    }
+    int kind;
+    while ((kind = nextTag()) != -1) {
+      if (kind == END && isName(DOCUMENT)) {
+        inDocument = false;
+        return cut();
+      }
+    }
+    throw new EOFException("Unexpected end of file in document at " + recordStart);
+  }
+
+  /**
+   * Cuts the recorded bytes up to the current position into a chunk.
+   */
+  private Chunk cut() {
+    sync();
+    Chunk chunk = new Chunk(recordStart, Arrays.copyOf(record, recordLength));
+    discardBefore(position);
+    return chunk;
+  }
+
+  private void discardBefore(long offset) {
+    int n = (int) (offset - recordStart);
+    System.arraycopy(record, n, record, 0, recordLength - n);
+    recordLength -= n;
+    recordStart = offset;
+  }
+
+  private void sync() {
+    int n = pos - recordFrom;
+    if (n > 0) {
+      if (recordLength + n > record.length) {
+        record = Arrays.copyOf(record, Math.max(record.length * 2, recordLength + n));
+      }
+      System.arraycopy(buffer, recordFrom, record, recordLength, n);
+      recordLength += n;
+    }
+    recordFrom = pos;
+  }
+
+  private int read()
+      throws IOException {
+    if (pos == limit) {
+      sync();
+      int n = in.read(buffer);
+      if (n <= 0) {
+        return -1;
+      }
+      pos = 0;
+      limit = n;
+      recordFrom = 0;
+    }
+    position++;
+    return buffer[pos++] & 0xff;
+  }
+
+  private boolean isName(byte[] expected) {
+    if (nameLength != expected.length) {
+      return false;
+    }
+    for (int i = 0; i < nameLength; i++) {
+      if (name[i] != expected[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isDelimiter(int c) {
+    return c == '>' || c == '/' || c == ' ' || c == '\t' || c == '\n' || c == '\r';
+  }
+
+  /**
+   * Skips to the next start or end tag and reads its name.
+   *
+   * @return the kind of the tag, or -1 at the end of the stream
+   */
+  private int nextTag()
+      throws IOException {
+    int c;
+    while ((c = read()) != -1) {
+      if (c != '<') {
+        continue;
+      }
+      tagOffset = position - 1;
+      c = read();
+      if (c == '?') {
+        skipPast('?', '>');
+        continue;
+      } else if (c == '!') {
+        skipDeclaration();
+        continue;
+      }
+
+      int kind = START;
+      if (c == '/') {
+        kind = END;
+        c = read();
+      }
+      nameLength = 0;
+      while (c != -1 && !isDelimiter(c)) {
+        if (nameLength < name.length) {
+          name[nameLength] = (byte) c;
+        }
+        nameLength++;
+        c = read();
+      }
+      int prev = 0;
+      while (c != '>') {
+        if (c == -1) {
+          throw new EOFException("Unexpected end of file in tag at " + tagOffset);
+        }
+        if (c == '"' || c == '\'') {
+          int quote = c;
+          while ((c = read()) != quote) {
+            if (c == -1) {
+              throw new EOFException("Unexpected end of file in tag at " + tagOffset);
+            }
+          }
+        }
+        prev = c;
+        c = read();
+      }
+      if (kind == START && prev == '/') {
+        kind = EMPTY;
+      }
+      return kind;
+    }
+    return -1;
+  }
+
+  /**
+   * Skips a comment, a CDATA section, or a DOCTYPE declaration after
+   * {@code <!}.
+   */
+  private void skipDeclaration()
+      throws IOException {
+    int c = read();
+    if (c == '-') {
+      read();
+      skipPast('-', '-', '>');
+    } else if (c == '[') {
+      skipPast(']', ']', '>');
+    } else {
+      int depth = 0;
+      while (c != -1 && (c != '>' || depth > 0)) {
+        if (c == '[') {
+          depth++;
+        } else if (c == ']') {
+          depth--;
+        } else if (c == '"' || c == '\'') {
+          int quote = c;
+          while ((c = read()) != quote && c != -1) {
+          }
+        }
+        c = read();
+      }
+    }
+  }
+
+  private void skipPast(int... end)
+      throws IOException {
+    int[] window = new int[end.length];
+    int c;
+    while ((c = read()) != -1) {
+      System.arraycopy(window, 1, window, 0, window.length - 1);
+      window[window.length - 1] = c;
+      if (Arrays.equals(window, end)) {
+        return;
+      }
+    }
+  }
+}
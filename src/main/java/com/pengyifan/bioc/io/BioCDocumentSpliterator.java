@@ -0,0 +1,189 @@
+package com.pengyifan.bioc.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.xml.stream.XMLStreamException;
+
+import com.pengyifan.bioc.BioCDocument;
+
+/**
+ * A spliterator of the documents read sequentially from a source. The source
+ * returns units, i.e., documents or the unparsed bytes of documents, which are
+ * turned into documents by a parser. {@link #trySplit()} hands off a batch of
+ * units, so that a parallel stream parses and processes the batches on
+ * multiple threads, while the source is read by one thread at a time.
+ * <p>
+ * Errors are thrown as {@link UncheckedIOException}.
+ *
+ * @param <T> the type of units
+ */
+class BioCDocumentSpliterator<T> implements Spliterator<BioCDocument> {
+
+  /**
+   * Returns the next unit, or null at the end.
+   */
+  interface Source<T> {
+
+    T next()
+        throws XMLStreamException, IOException;
+  }
+
+  /**
+   * Turns a unit into a document.
+   */
+  interface Parser<T> {
+
+    BioCDocument parse(T unit)
+        throws XMLStreamException, IOException;
+  }
+
+  private static final int BATCH_UNIT = 16;
+  private static final int MAX_BATCH = 1024;
+
+  private final Source<T> source;
+  private final Parser<T> parser;
+  private int batch;
+  private boolean isEnd;
+
+  BioCDocumentSpliterator(Source<T> source, Parser<T> parser) {
+    this.source = source;
+    this.parser = parser;
+  }
+
+  /**
+   * Returns a sequential stream of the documents, which closes the resource
+   * when the stream is closed.
+   */
+  static <T> Stream<BioCDocument> stream(Source<T> source, Parser<T> parser,
+      Closeable closeable) {
+    return StreamSupport.stream(new BioCDocumentSpliterator<>(source, parser), false)
+        .onClose(() -> {
+          try {
+            closeable.close();
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+  }
+
+  private static UncheckedIOException unchecked(Exception e) {
+    if (e instanceof IOException) {
+      return new UncheckedIOException((IOException) e);
+    }
+    return new UncheckedIOException(new IOException(e.getMessage(), e));
+  }
+
+  private T next() {
+    if (isEnd) {
+      return null;
+    }
+    T unit;
+    try {
+      unit = source.next();
+    } catch (XMLStreamException | IOException e) {
+      isEnd = true;
+      throw unchecked(e);
+    }
+    if (unit == null) {
+      isEnd = true;
+    }
+    return unit;
+  }
+
+  private BioCDocument parse(T unit) {
+    try {
+      return parser.parse(unit);
+    } catch (XMLStreamException | IOException e) {
+      throw unchecked(e);
+    }
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super BioCDocument> action) {
+    T unit = next();
+    if (unit == null) {
+      return false;
+    }
+    action.accept(parse(unit));
+    return true;
+  }
+
+  @Override
+  public Spliterator<BioCDocument> trySplit() {
+    // batches grow, so that short streams are split, too
+    batch = Math.min(batch + BATCH_UNIT, MAX_BATCH);
+    Object[] units = new Object[batch];
+    int n = 0;
+    T unit;
+    while (n < units.length && (unit = next()) != null) {
+      units[n++] = unit;
+    }
+    return n == 0 ? null : new Batch(units, 0, n);
+  }
+
+  @Override
+  public long estimateSize() {
+    return isEnd ? 0 : Long.MAX_VALUE;
+  }
+
+  @Override
+  public int characteristics() {
+    return ORDERED | NONNULL;
+  }
+
+  /**
+   * Units that have been read from the source, and are parsed by the thread
+   * that consumes them.
+   */
+  private final class Batch implements Spliterator<BioCDocument> {
+
+    private final Object[] units;
+    private int from;
+    private final int to;
+
+    private Batch(Object[] units, int from, int to) {
+      this.units = units;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean tryAdvance(Consumer<? super BioCDocument> action) {
+      if (from >= to) {
+        return false;
+      }
+      T unit = (T) units[from];
+      units[from++] = null;
+      action.accept(parse(unit));
+      return true;
+    }
+
+    @Override
+    public Spliterator<BioCDocument> trySplit() {
+      int mid = (from + to) >>> 1;
+      if (mid <= from) {
+        return null;
+      }
+      Batch prefix = new Batch(units, from, mid);
+      from = mid;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      return to - from;
+    }
+
+    @Override
+    public int characteristics() {
+      return ORDERED | NONNULL | SIZED | SUBSIZED;
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.pengyifan.bioc.io;
+
+/**
+ * The StAX API that BioC readers and writers are built on.
+ *
+ * @since 1.0.4
+ * @author Yifan Peng
+ */
+public enum BioCEngine {
+  /**
+   * The event iterator API ({@code XMLEventReader}/{@code XMLEventWriter}).
+   * One event object is allocated for every token.
+   */
+  EVENT,
+  /**
+   * The cursor API ({@code XMLStreamReader}/{@code XMLStreamWriter}). Tokens
+   * are accessed in place without allocating event objects. This is the
+   * default engine.
+   */
+  CURSOR
+}
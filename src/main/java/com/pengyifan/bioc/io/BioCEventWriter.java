@@ -0,0 +1,104 @@
+package com.pengyifan.bioc.io;
+
+import java.io.IOException;
+import java.io.Writer;
+import javanet.staxutils.IndentingXMLEventWriter;
+import javax.xml.namespace.QName;
+import javax.xml.stream.FactoryConfigurationError;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import org.codehaus.stax2.evt.XMLEventFactory2;
+
+class BioCEventWriter extends BioCWriter {
+
+  XMLEventWriter writer;
+  Writer out;
+  XMLEventFactory2 eventFactory;
+
+  protected BioCEventWriter(Writer writer, BioCWriterOptions options)
+      throws FactoryConfigurationError, XMLStreamException {
+    this.out = writer;
+    XMLOutputFactory xmlOutputFactory = options.getFactories().getOutputFactory();
+    this.eventFactory = options.getFactories().getEventFactory();
+    this.writer = xmlOutputFactory.createXMLEventWriter(writer);
+    if (!options.isCompact()) {
+      IndentingXMLEventWriter indentingWriter = new IndentingXMLEventWriter(this.writer);
+      indentingWriter.setIndent(options.getIndent());
+      indentingWriter.setNewLine(options.getNewLine());
+      this.writer = indentingWriter;
+    }
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    try {
+      writer.flush();
+      writer.close();
+      // the StAX writer does not close the underlying writer, e.g., to finish a
+      // compressed stream
+      out.close();
+    } catch (XMLStreamException e) {
+      throw new IOException(e.getMessage());
+    }
+  }
+
+  private QName getElement(String localPart) {
+    return new QName(localPart);
+  }
+
+  @Override
+  protected BioCWriter flush()
+      throws XMLStreamException {
+    writer.flush();
+    return this;
+  }
+
+  @Override
+  protected BioCWriter writeAttribute(String key, String value)
+      throws XMLStreamException {
+    writer.add(eventFactory.createAttribute(key, value));
+    return this;
+  }
+
+  @Override
+  protected BioCWriter writeCharacters(String text)
+      throws XMLStreamException {
+    writer.add(eventFactory.createCharacters(text));
+    return this;
+  }
+
+  @Override
+  protected BioCWriter writeEndDocument()
+      throws XMLStreamException {
+    writer.add(eventFactory.createEndDocument());
+    return this;
+  }
+
+  @Override
+  protected BioCWriter writeEndElement(String localPart)
+      throws XMLStreamException {
+    writer.add(eventFactory.createEndElement(getElement(localPart), null));
+    return this;
+  }
+
+  @Override
+  protected BioCWriter writeStartDocument(String encoding,
+      String version,
+      boolean standalone)
+      throws XMLStreamException {
+    writer.add(eventFactory.createStartDocument(encoding, version, standalone));
+    return this;
+  }
+
+  @Override
+  protected BioCWriter writeStartElement(String localPart)
+      throws XMLStreamException {
+    writer.add(eventFactory.createStartElement(
+        getElement(localPart),
+        null,
+        null));
+    return this;
+  }
+}
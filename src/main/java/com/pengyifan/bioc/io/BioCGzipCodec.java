@@ -0,0 +1,42 @@
+package com.pengyifan.bioc.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The gzip codec, detected by the magic bytes {@code 1f 8b}.
+ */
+class BioCGzipCodec implements BioCCodec {
+
+  @Override
+  public String getName() {
+    return "gzip";
+  }
+
+  @Override
+  public String getExtension() {
+    return ".gz";
+  }
+
+  @Override
+  public boolean matches(byte[] header, int length) {
+    return length >= 2
+        && (header[0] & 0xff) == (GZIPInputStream.GZIP_MAGIC & 0xff)
+        && (header[1] & 0xff) == (GZIPInputStream.GZIP_MAGIC >>> 8);
+  }
+
+  @Override
+  public InputStream newInputStream(InputStream in)
+      throws IOException {
+    return new GZIPInputStream(in, BioCCodecs.BUFFER_SIZE);
+  }
+
+  @Override
+  public OutputStream newOutputStream(OutputStream out)
+      throws IOException {
+    return new GZIPOutputStream(out, BioCCodecs.BUFFER_SIZE);
+  }
+}
@@ -0,0 +1,368 @@
+package com.pengyifan.bioc.io;
+
+import java.io.IOException;
+import java.util.Map;
+
+import com.pengyifan.bioc.BioCAnnotation;
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+import com.pengyifan.bioc.BioCLocation;
+import com.pengyifan.bioc.BioCNode;
+import com.pengyifan.bioc.BioCPassage;
+import com.pengyifan.bioc.BioCRelation;
+import com.pengyifan.bioc.BioCSentence;
+import com.pengyifan.bioc.BioCStructure;
+
+/**
+ * Converts BioC objects to and from BioC-JSON, in which every element of the
+ * XML format is an object member of the same name, and repeated elements are
+ * arrays in plural, e.g.,
+ * <p>
+ * <pre>
+ * {"source":"","date":"","key":"","infons":{},"documents":[
+ *   {"id":"1","infons":{},"passages":[
+ *     {"offset":0,"infons":{},"text":"...","sentences":[],
+ *      "annotations":[{"id":"T1","infons":{},"text":"...",
+ *                      "locations":[{"offset":0,"length":3}]}],
+ *      "relations":[{"id":"R1","infons":{},
+ *                    "nodes":[{"refid":"T1","role":"..."}]}]}],
+ *    "annotations":[],"relations":[]}]}
+ * </pre>
+ * <p>
+ * Unknown members are skipped when reading.
+ */
+final class BioCJson {
+
+  private BioCJson() {
+  }
+
+  /**
+   * Writes the members of the collection information, without the documents.
+   */
+  static void writeCollectionInfo(BioCJsonGenerator generator, BioCCollection collection)
+      throws IOException {
+    generator.name("source").value(collection.getSource())
+        .name("date").value(collection.getDate())
+        .name("key").value(collection.getKey());
+    writeInfons(generator, collection.getInfons());
+  }
+
+  /**
+   * Reads a member of the collection information, whose name has been read.
+   */
+  static void readCollectionInfo(BioCJsonTokenizer tokenizer, String name,
+      BioCCollection collection)
+      throws IOException {
+    switch (name) {
+    case "source":
+      collection.setSource(tokenizer.nextString());
+      break;
+    case "date":
+      collection.setDate(tokenizer.nextString());
+      break;
+    case "key":
+      collection.setKey(tokenizer.nextString());
+      break;
+    case "infons":
+      readInfons(tokenizer, collection.getInfons());
+      break;
+    default:
+      tokenizer.skipValue();
+    }
+  }
+
+  static void write(BioCJsonGenerator generator, BioCDocument document)
+      throws IOException {
+    generator.beginObject()
+        .name("id").value(document.getID());
+    writeInfons(generator, document.getInfons());
+    generator.name("passages").beginArray();
+    for (BioCPassage passage : document.getPassages()) {
+      generator.beginObject()
+          .name("offset").value(passage.getOffset());
+      writeInfons(generator, passage.getInfons());
+      if (passage.getText().isPresent()) {
+        generator.name("text").value(passage.getText().get());
+      }
+      generator.name("sentences").beginArray();
+      for (BioCSentence sentence : passage.getSentences()) {
+        generator.beginObject()
+            .name("offset").value(sentence.getOffset());
+        writeInfons(generator, sentence.getInfons());
+        if (sentence.getText().isPresent()) {
+          generator.name("text").value(sentence.getText().get());
+        }
+        writeAnnotationsAndRelations(generator, sentence);
+        generator.endObject();
+      }
+      generator.endArray();
+      writeAnnotationsAndRelations(generator, passage);
+      generator.endObject();
+    }
+    generator.endArray();
+    writeAnnotationsAndRelations(generator, document);
+    generator.endObject();
+  }
+
+  private static void writeAnnotationsAndRelations(BioCJsonGenerator generator,
+      BioCStructure structure)
+      throws IOException {
+    generator.name("annotations").beginArray();
+    for (BioCAnnotation annotation : structure.getAnnotations()) {
+      generator.beginObject()
+          .name("id").value(annotation.getID());
+      writeInfons(generator, annotation.getInfons());
+      if (annotation.getText().isPresent()) {
+        generator.name("text").value(annotation.getText().get());
+      }
+      generator.name("locations").beginArray();
+      for (BioCLocation location : annotation.getLocations()) {
+        generator.beginObject()
+            .name("offset").value(location.getOffset())
+            .name("length").value(location.getLength())
+            .endObject();
+      }
+      generator.endArray()
+          .endObject();
+    }
+    generator.endArray()
+        .name("relations").beginArray();
+    for (BioCRelation relation : structure.getRelations()) {
+      generator.beginObject()
+          .name("id").value(relation.getID());
+      writeInfons(generator, relation.getInfons());
+      generator.name("nodes").beginArray();
+      for (BioCNode node : relation.getNodes()) {
+        generator.beginObject()
+            .name("refid").value(node.getRefid())
+            .name("role").value(node.getRole())
+            .endObject();
+      }
+      generator.endArray()
+          .endObject();
+    }
+    generator.endArray();
+  }
+
+  private static void writeInfons(BioCJsonGenerator generator, Map<String, String> infons)
+      throws IOException {
+    generator.name("infons").beginObject();
+    for (Map.Entry<String, String> infon : infons.entrySet()) {
+      generator.name(infon.getKey()).value(infon.getValue());
+    }
+    generator.endObject();
+  }
+
+  static BioCDocument readDocument(BioCJsonTokenizer tokenizer)
+      throws IOException {
+    BioCDocument document = new BioCDocument();
+    tokenizer.beginObject();
+    while (tokenizer.hasNext()) {
+      String name = tokenizer.nextName();
+      switch (name) {
+      case "id":
+        document.setID(tokenizer.nextString());
+        break;
+      case "passages":
+        tokenizer.beginArray();
+        while (tokenizer.hasNext()) {
+          document.addPassage(readPassage(tokenizer));
+        }
+        tokenizer.endArray();
+        break;
+      default:
+        readStructureMember(tokenizer, name, document);
+      }
+    }
+    tokenizer.endObject();
+    return document;
+  }
+
+  private static BioCPassage readPassage(BioCJsonTokenizer tokenizer)
+      throws IOException {
+    BioCPassage passage = new BioCPassage();
+    tokenizer.beginObject();
+    while (tokenizer.hasNext()) {
+      String name = tokenizer.nextName();
+      switch (name) {
+      case "offset":
+        passage.setOffset(tokenizer.nextInt());
+        break;
+      case "text":
+        passage.setText(tokenizer.nextString());
+        break;
+      case "sentences":
+        tokenizer.beginArray();
+        while (tokenizer.hasNext()) {
+          passage.addSentence(readSentence(tokenizer));
+        }
+        tokenizer.endArray();
+        break;
+      default:
+        readStructureMember(tokenizer, name, passage);
+      }
+    }
+    tokenizer.endObject();
+    return passage;
+  }
+
+  private static BioCSentence readSentence(BioCJsonTokenizer tokenizer)
+      throws IOException {
+    BioCSentence sentence = new BioCSentence();
+    tokenizer.beginObject();
+    while (tokenizer.hasNext()) {
+      String name = tokenizer.nextName();
+      switch (name) {
+      case "offset":
+        sentence.setOffset(tokenizer.nextInt());
+        break;
+      case "text":
+        sentence.setText(tokenizer.nextString());
+        break;
+      default:
+        readStructureMember(tokenizer, name, sentence);
+      }
+    }
+    tokenizer.endObject();
+    return sentence;
+  }
+
+  /**
+   * Reads the infons, annotations or relations of a structure, or skips an
+   * unknown member.
+   */
+  private static void readStructureMember(BioCJsonTokenizer tokenizer, String name,
+      BioCStructure structure)
+      throws IOException {
+    switch (name) {
+    case "infons":
+      readInfons(tokenizer, structure.getInfons());
+      break;
+    case "annotations":
+      tokenizer.beginArray();
+      while (tokenizer.hasNext()) {
+        structure.addAnnotation(readAnnotation(tokenizer));
+      }
+      tokenizer.endArray();
+      break;
+    case "relations":
+      tokenizer.beginArray();
+      while (tokenizer.hasNext()) {
+        structure.addRelation(readRelation(tokenizer));
+      }
+      tokenizer.endArray();
+      break;
+    default:
+      tokenizer.skipValue();
+    }
+  }
+
+  private static BioCAnnotation readAnnotation(BioCJsonTokenizer tokenizer)
+      throws IOException {
+    BioCAnnotation annotation = new BioCAnnotation();
+    tokenizer.beginObject();
+    while (tokenizer.hasNext()) {
+      switch (tokenizer.nextName()) {
+      case "id":
+        annotation.setID(tokenizer.nextString());
+        break;
+      case "infons":
+        readInfons(tokenizer, annotation.getInfons());
+        break;
+      case "text":
+        annotation.setText(tokenizer.nextString());
+        break;
+      case "locations":
+        tokenizer.beginArray();
+        while (tokenizer.hasNext()) {
+          annotation.addLocation(readLocation(tokenizer));
+        }
+        tokenizer.endArray();
+        break;
+      default:
+        tokenizer.skipValue();
+      }
+    }
+    tokenizer.endObject();
+    return annotation;
+  }
+
+  private static BioCLocation readLocation(BioCJsonTokenizer tokenizer)
+      throws IOException {
+    int offset = 0;
+    int length = 0;
+    tokenizer.beginObject();
+    while (tokenizer.hasNext()) {
+      switch (tokenizer.nextName()) {
+      case "offset":
+        offset = tokenizer.nextInt();
+        break;
+      case "length":
+        length = tokenizer.nextInt();
+        break;
+      default:
+        tokenizer.skipValue();
+      }
+    }
+    tokenizer.endObject();
+    return new BioCLocation(offset, length);
+  }
+
+  private static BioCRelation readRelation(BioCJsonTokenizer tokenizer)
+      throws IOException {
+    BioCRelation relation = new BioCRelation();
+    tokenizer.beginObject();
+    while (tokenizer.hasNext()) {
+      switch (tokenizer.nextName()) {
+      case "id":
+        relation.setID(tokenizer.nextString());
+        break;
+      case "infons":
+        readInfons(tokenizer, relation.getInfons());
+        break;
+      case "nodes":
+        tokenizer.beginArray();
+        while (tokenizer.hasNext()) {
+          relation.addNode(readNode(tokenizer));
+        }
+        tokenizer.endArray();
+        break;
+      default:
+        tokenizer.skipValue();
+      }
+    }
+    tokenizer.endObject();
+    return relation;
+  }
+
+  private static BioCNode readNode(BioCJsonTokenizer tokenizer)
+      throws IOException {
+    String refid = null;
+    String role = null;
+    tokenizer.beginObject();
+    while (tokenizer.hasNext()) {
+      switch (tokenizer.nextName()) {
+      case "refid":
+        refid = tokenizer.nextString();
+        break;
+      case "role":
+        role = tokenizer.nextString();
+        break;
+      default:
+        tokenizer.skipValue();
+      }
+    }
+    tokenizer.endObject();
+    return new BioCNode(refid, role);
+  }
+
+  private static void readInfons(BioCJsonTokenizer tokenizer, Map<String, String> infons)
+      throws IOException {
+    tokenizer.beginObject();
+    while (tokenizer.hasNext()) {
+      String key = tokenizer.nextName();
+      infons.put(key, tokenizer.nextString());
+    }
+    tokenizer.endObject();
+  }
+}
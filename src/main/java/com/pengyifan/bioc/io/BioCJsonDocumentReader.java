@@ -0,0 +1,150 @@
+package com.pengyifan.bioc.io;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+
+/**
+ * Reads a BioC-JSON file, as written by {@link BioCJsonDocumentWriter},
+ * sequentially into BioCDocument every time the method {@link #readDocument}
+ * is called. Only one document is held in memory at a time. For example,
+ * <p>
+ * <pre>
+ * BioCJsonDocumentReader reader = new BioCJsonDocumentReader(path);
+ * BioCCollection collection = reader.readCollectionInfo();
+ * BioCDocument doc = null;
+ * while ((doc = reader.readDocument()) != null) {
+ *   collection.addDocument(doc);
+ * }
+ * reader.close();
+ * </pre>
+ * <p>
+ * The collection information is read up to the {@code documents} member.
+ * Members after the documents are read into the same collection when the
+ * last document has been read.
+ *
+ * @since 1.0.4
+ * @see BioCDocumentReader
+ * @author Yifan Peng
+ */
+public class BioCJsonDocumentReader implements Closeable {
+
+  private final BioCJsonTokenizer tokenizer;
+  private final BioCCollection collection;
+  private boolean isEnd;
+
+  /**
+   * Creates a new BioCJsonDocumentReader, given the Path to read from, in
+   * UTF-8. A compressed file is decompressed transparently.
+   *
+   * @param path the file path to read from
+   * @throws IOException if the file cannot be opened or is not a BioC-JSON
+   *           file
+   */
+  public BioCJsonDocumentReader(Path path)
+      throws IOException {
+    this(BioCCodecs.newInputStream(path));
+  }
+
+  /**
+   * Creates a BioCJsonDocumentReader that uses the input stream in, in UTF-8.
+   *
+   * @param in an InputStream
+   * @throws IOException if an I/O exception of some sort has occurred, or the
+   *           stream is not a BioC-JSON file
+   */
+  public BioCJsonDocumentReader(InputStream in)
+      throws IOException {
+    this(new InputStreamReader(in, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Creates a BioCJsonDocumentReader that uses the reader in.
+   *
+   * @param in a Reader
+   * @throws IOException if an I/O exception of some sort has occurred, or the
+   *           reader is not a BioC-JSON file
+   */
+  public BioCJsonDocumentReader(Reader in)
+      throws IOException {
+    this.tokenizer = new BioCJsonTokenizer(in instanceof BufferedReader ? in
+        : new BufferedReader(in, BioCCodecs.BUFFER_SIZE));
+    this.collection = new BioCCollection();
+    tokenizer.beginObject();
+    while (tokenizer.hasNext()) {
+      String name = tokenizer.nextName();
+      if (name.equals("documents")) {
+        tokenizer.beginArray();
+        return;
+      }
+      BioCJson.readCollectionInfo(tokenizer, name, collection);
+    }
+    // no documents
+    tokenizer.endObject();
+    isEnd = true;
+  }
+
+  /**
+   * Closes the reader and releases any system resources associated with it.
+   */
+  @Override
+  public void close()
+      throws IOException {
+    tokenizer.close();
+  }
+
+  /**
+   * Reads the collection information: source, date, key, infons, etc.
+   *
+   * @return the BioC collection that contains only information
+   */
+  public BioCCollection readCollectionInfo() {
+    return collection;
+  }
+
+  /**
+   * Reads one BioC document from the file.
+   *
+   * @return the BioC document, or null if there are no more documents
+   * @throws IOException if an I/O exception of some sort has occurred, or the
+   *           file is malformed
+   */
+  public BioCDocument readDocument()
+      throws IOException {
+    if (isEnd) {
+      return null;
+    }
+    if (tokenizer.hasNext()) {
+      return BioCJson.readDocument(tokenizer);
+    }
+    isEnd = true;
+    tokenizer.endArray();
+    while (tokenizer.hasNext()) {
+      BioCJson.readCollectionInfo(tokenizer, tokenizer.nextName(), collection);
+    }
+    tokenizer.endObject();
+    return null;
+  }
+
+  /**
+   * Returns a stream of the remaining documents. The stream is sequential;
+   * if it is made parallel, batches of documents are processed on multiple
+   * threads. Closing the stream closes the reader.
+   * <p>
+   * Errors are thrown as {@link java.io.UncheckedIOException}.
+   *
+   * @return a stream of the remaining documents
+   */
+  public Stream<BioCDocument> documents() {
+    return BioCDocumentSpliterator.stream(this::readDocument, d -> d, this);
+  }
+}
@@ -0,0 +1,151 @@
+package com.pengyifan.bioc.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Writes JSON values token by token. Commas and colons are written as
+ * needed, and no whitespace is written.
+ */
+final class BioCJsonGenerator implements Closeable {
+
+  private final Writer out;
+  // true if the object or array at the depth has elements
+  private boolean[] hasElements;
+  private int depth;
+  private boolean isAfterName;
+
+  BioCJsonGenerator(Writer out) {
+    this.out = out;
+    this.hasElements = new boolean[32];
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    out.close();
+  }
+
+  void flush()
+      throws IOException {
+    out.flush();
+  }
+
+  /**
+   * Writes the line separator between top-level values, as in JSON Lines.
+   */
+  BioCJsonGenerator newLine()
+      throws IOException {
+    out.write('\n');
+    return this;
+  }
+
+  private void beforeValue()
+      throws IOException {
+    if (isAfterName) {
+      isAfterName = false;
+    } else if (depth > 0) {
+      if (hasElements[depth - 1]) {
+        out.write(',');
+      }
+      hasElements[depth - 1] = true;
+    }
+  }
+
+  private BioCJsonGenerator open(char c)
+      throws IOException {
+    beforeValue();
+    if (depth == hasElements.length) {
+      hasElements = Arrays.copyOf(hasElements, depth * 2);
+    }
+    hasElements[depth++] = false;
+    out.write(c);
+    return this;
+  }
+
+  private BioCJsonGenerator close(char c)
+      throws IOException {
+    depth--;
+    out.write(c);
+    return this;
+  }
+
+  BioCJsonGenerator beginObject()
+      throws IOException {
+    return open('{');
+  }
+
+  BioCJsonGenerator endObject()
+      throws IOException {
+    return close('}');
+  }
+
+  BioCJsonGenerator beginArray()
+      throws IOException {
+    return open('[');
+  }
+
+  BioCJsonGenerator endArray()
+      throws IOException {
+    return close(']');
+  }
+
+  BioCJsonGenerator name(String name)
+      throws IOException {
+    beforeValue();
+    writeString(name);
+    out.write(':');
+    isAfterName = true;
+    return this;
+  }
+
+  BioCJsonGenerator value(String value)
+      throws IOException {
+    beforeValue();
+    if (value == null) {
+      out.write("null");
+    } else {
+      writeString(value);
+    }
+    return this;
+  }
+
+  BioCJsonGenerator value(int value)
+      throws IOException {
+    beforeValue();
+    out.write(Integer.toString(value));
+    return this;
+  }
+
+  private void writeString(String s)
+      throws IOException {
+    out.write('"');
+    int start = 0;
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      String escape;
+      if (c == '"') {
+        escape = "\\\"";
+      } else if (c == '\\') {
+        escape = "\\\\";
+      } else if (c == '\n') {
+        escape = "\\n";
+      } else if (c == '\r') {
+        escape = "\\r";
+      } else if (c == '\t') {
+        escape = "\\t";
+      } else if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+        escape = String.format("\\u%04x", (int) c);
+      } else {
+        continue;
+      }
+      out.write(s, start, i - start);
+      out.write(escape);
+      start = i + 1;
+    }
+    out.write(s, start, s.length() - start);
+    out.write('"');
+  }
+}
@@ -0,0 +1,260 @@
+package com.pengyifan.bioc.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+
+/**
+ * Reads a BioC JSON Lines file, as written by {@link BioCJsonLinesWriter},
+ * sequentially into BioCDocument every time the method {@link #readDocument}
+ * is called. For example,
+ * <p>
+ * <pre>
+ * BioCJsonLinesReader reader = new BioCJsonLinesReader(path);
+ * BioCCollection collection = reader.readCollectionInfo();
+ * BioCDocument doc = null;
+ * while ((doc = reader.readDocument()) != null) {
+ *   collection.addDocument(doc);
+ * }
+ * reader.close();
+ * </pre>
+ * <p>
+ * An uncompressed file can be split into byte ranges that are read
+ * independently, e.g., by different workers. A reader of the range
+ * {@code [start, end)} reads the documents whose lines start in the range, so
+ * ranges that cover the file read every document exactly once, wherever they
+ * are cut. For example,
+ * <p>
+ * <pre>
+ * long size = Files.size(path);
+ * long start = size * i / n;
+ * long end = size * (i + 1) / n;
+ * BioCJsonLinesReader reader = new BioCJsonLinesReader(path, start, end);
+ * </pre>
+ *
+ * @since 1.0.4
+ * @see BioCJsonDocumentReader
+ * @author Yifan Peng
+ */
+public class BioCJsonLinesReader implements Closeable {
+
+  private final BioCLineScanner scanner;
+  private final BioCCollection collection;
+  private final long end;
+
+  /**
+   * Creates a new BioCJsonLinesReader, given the Path to read from, in UTF-8.
+   * A compressed file is decompressed transparently.
+   *
+   * @param path the file path to read from
+   * @throws IOException if the file cannot be opened or the collection
+   *           information is malformed
+   */
+  public BioCJsonLinesReader(Path path)
+      throws IOException {
+    this(BioCCodecs.newInputStream(path));
+  }
+
+  /**
+   * Creates a BioCJsonLinesReader that uses the input stream in, in UTF-8.
+   *
+   * @param in an InputStream
+   * @throws IOException if an I/O exception of some sort has occurred, or the
+   *           collection information is malformed
+   */
+  public BioCJsonLinesReader(InputStream in)
+      throws IOException {
+    this.scanner = new BioCLineScanner(in);
+    this.end = Long.MAX_VALUE;
+    try {
+      this.collection = readHeader(scanner);
+    } catch (IOException | RuntimeException e) {
+      scanner.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Creates a new BioCJsonLinesReader of the documents whose lines start in
+   * the byte range {@code [start, end)} of the file, in UTF-8. The collection
+   * information is always read from the first line.
+   *
+   * @param path the file path to read from, which cannot be compressed
+   * @param start the first byte of the range
+   * @param end the byte after the range
+   * @throws IOException if the file cannot be opened, is compressed, or the
+   *           collection information is malformed
+   */
+  public BioCJsonLinesReader(Path path, long start, long end)
+      throws IOException {
+    checkArgument(start >= 0 && start <= end, "Illegal range: [%s, %s)", start, end);
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      InputStream head = new BufferedInputStream(Channels.newInputStream(channel),
+          BioCCodecs.BUFFER_SIZE);
+      if (BioCCodecs.detect(head).isPresent()) {
+        throw new IOException("Cannot split a compressed file: " + path);
+      }
+      this.collection = readHeader(new BioCLineScanner(head));
+      // the line that ends at start - 1 is the last one before the range
+      long from = Math.max(start - 1, 0);
+      channel.position(from);
+      this.scanner = new BioCLineScanner(Channels.newInputStream(channel), from);
+      this.end = end;
+      // skip the line that ends in the range, or the collection line
+      scanner.nextLine();
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private static BioCCollection readHeader(BioCLineScanner scanner)
+      throws IOException {
+    BioCDocumentScanner.Chunk line = scanner.nextLine();
+    if (line == null) {
+      throw new IOException("Malformed BioC JSON Lines: collection expected");
+    }
+    BioCCollection collection = new BioCCollection();
+    try (BioCJsonTokenizer tokenizer = newTokenizer(line)) {
+      tokenizer.beginObject();
+      while (tokenizer.hasNext()) {
+        BioCJson.readCollectionInfo(tokenizer, tokenizer.nextName(), collection);
+      }
+      tokenizer.endObject();
+      checkEnd(tokenizer);
+    }
+    return collection;
+  }
+
+  private static BioCJsonTokenizer newTokenizer(BioCDocumentScanner.Chunk line) {
+    return new BioCJsonTokenizer(new InputStreamReader(new ByteArrayInputStream(line.bytes),
+        StandardCharsets.UTF_8));
+  }
+
+  private static void checkEnd(BioCJsonTokenizer tokenizer)
+      throws IOException {
+    if (tokenizer.peek() != BioCJsonTokenizer.Token.END) {
+      throw new IOException("Malformed BioC JSON Lines: end of the line expected");
+    }
+  }
+
+  /**
+   * Returns the next line that is not blank and starts before end, or null.
+   */
+  private static BioCDocumentScanner.Chunk nextLine(BioCLineScanner scanner, long end)
+      throws IOException {
+    while (scanner.position() < end) {
+      BioCDocumentScanner.Chunk line = scanner.nextLine();
+      if (line == null) {
+        return null;
+      }
+      for (byte b : line.bytes) {
+        if (b != ' ' && b != '\t' && b != '\r') {
+          return line;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Parses one line into a document.
+   */
+  static BioCDocument parse(BioCDocumentScanner.Chunk line)
+      throws IOException {
+    try (BioCJsonTokenizer tokenizer = newTokenizer(line)) {
+      BioCDocument document = BioCJson.readDocument(tokenizer);
+      checkEnd(tokenizer);
+      return document;
+    } catch (IOException e) {
+      throw new IOException(e.getMessage() + " in the line at byte " + line.offset, e);
+    }
+  }
+
+  /**
+   * Returns a stream of the documents of the file. Lines are split without
+   * being parsed, and each document is parsed by the thread that processes
+   * it. The stream is sequential; if it is made parallel, batches of unparsed
+   * lines are handed off to multiple threads. Closing the stream closes the
+   * file.
+   * <p>
+   * Errors of the stream are thrown as {@link java.io.UncheckedIOException}.
+   *
+   * @param path the file path to read from
+   * @return a stream of the documents of the file
+   * @throws IOException if the file cannot be opened or the collection
+   *           information is malformed
+   */
+  public static Stream<BioCDocument> documents(Path path)
+      throws IOException {
+    BioCLineScanner scanner = new BioCLineScanner(BioCCodecs.newInputStream(path));
+    try {
+      readHeader(scanner);
+    } catch (IOException | RuntimeException e) {
+      scanner.close();
+      throw e;
+    }
+    return BioCDocumentSpliterator.stream(() -> nextLine(scanner, Long.MAX_VALUE),
+        BioCJsonLinesReader::parse, scanner);
+  }
+
+  /**
+   * Closes the reader and releases any system resources associated with it.
+   */
+  @Override
+  public void close()
+      throws IOException {
+    scanner.close();
+  }
+
+  /**
+   * Reads the collection information: source, date, key, infons, etc.
+   *
+   * @return the BioC collection that contains only information
+   */
+  public BioCCollection readCollectionInfo() {
+    return collection;
+  }
+
+  /**
+   * Reads one BioC document from the file, or from the range of the file.
+   *
+   * @return the BioC document, or null if there are no more documents
+   * @throws IOException if an I/O exception of some sort has occurred, or the
+   *           line is malformed
+   */
+  public BioCDocument readDocument()
+      throws IOException {
+    BioCDocumentScanner.Chunk line = nextLine(scanner, end);
+    return line == null ? null : parse(line);
+  }
+
+  /**
+   * Returns a stream of the remaining documents. The stream is sequential;
+   * if it is made parallel, batches of unparsed lines are handed off to
+   * multiple threads. Closing the stream closes the reader.
+   * <p>
+   * Errors are thrown as {@link java.io.UncheckedIOException}.
+   *
+   * @return a stream of the remaining documents
+   */
+  public Stream<BioCDocument> documents() {
+    return BioCDocumentSpliterator.stream(() -> nextLine(scanner, end),
+        BioCJsonLinesReader::parse, this);
+  }
+}
@@ -0,0 +1,114 @@
+package com.pengyifan.bioc.io;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+
+/**
+ * Writes documents into a BioC JSON Lines file. The first line is the
+ * collection information, as a BioC-JSON collection without documents, and
+ * every following line is one BioC-JSON document. Line breaks in texts are
+ * escaped, so a file can be split on any line and read by
+ * {@link BioCJsonLinesReader}. For example,
+ * <p>
+ * <pre>
+ * BioCJsonLinesWriter writer = new BioCJsonLinesWriter(path);
+ * writer.writeBeginCollectionInfo(collection);
+ * for (BioCDocument document : collection.getDocuments()) {
+ *   writer.writeDocument(document);
+ * }
+ * writer.close();
+ * </pre>
+ *
+ * @since 1.0.4
+ * @see BioCJsonDocumentWriter
+ * @author Yifan Peng
+ */
+public class BioCJsonLinesWriter implements Closeable {
+
+  private final BioCJsonGenerator generator;
+  private boolean hasWrittenCollectionInfo;
+
+  /**
+   * Creates a new BioCJsonLinesWriter, given the Path to write to, in UTF-8.
+   * The output is compressed if the file name extension is of a codec, e.g.,
+   * {@code .gz}.
+   *
+   * @param path the file path to write to
+   * @throws IOException if the file cannot be opened
+   */
+  public BioCJsonLinesWriter(Path path)
+      throws IOException {
+    this(BioCCodecs.newOutputStream(path));
+  }
+
+  /**
+   * Creates a BioCJsonLinesWriter that uses the output stream out, in UTF-8.
+   *
+   * @param out an OutputStream
+   */
+  public BioCJsonLinesWriter(OutputStream out) {
+    this(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Creates a BioCJsonLinesWriter that uses the writer out.
+   *
+   * @param out a Writer
+   */
+  public BioCJsonLinesWriter(Writer out) {
+    this.generator = new BioCJsonGenerator(out instanceof BufferedWriter ? out
+        : new BufferedWriter(out, BioCCodecs.BUFFER_SIZE));
+  }
+
+  /**
+   * Closes the writer and releases any system resources associated with it.
+   */
+  @Override
+  public void close()
+      throws IOException {
+    generator.close();
+  }
+
+  /**
+   * Writes the BioC collection information as the first line.
+   *
+   * @param collection the BioC collection whose information will be written
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public void writeBeginCollectionInfo(BioCCollection collection)
+      throws IOException {
+    if (hasWrittenCollectionInfo) {
+      throw new IllegalStateException(
+          "writeCollectionInfo can only be invoked once.");
+    }
+    hasWrittenCollectionInfo = true;
+    generator.beginObject();
+    BioCJson.writeCollectionInfo(generator, collection);
+    generator.endObject().newLine();
+  }
+
+  /**
+   * Writes the BioC document as one line.
+   *
+   * @param document the BioC document
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public void writeDocument(BioCDocument document)
+      throws IOException {
+    if (!hasWrittenCollectionInfo) {
+      throw new IllegalStateException(
+          "writeCollectionInfo should be invoked before.");
+    }
+    BioCJson.write(generator, document);
+    generator.newLine();
+  }
+}
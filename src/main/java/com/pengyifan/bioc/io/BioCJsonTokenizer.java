@@ -0,0 +1,427 @@
+package com.pengyifan.bioc.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Reads JSON values token by token, without building a tree. Top-level
+ * values may follow each other, separated by whitespace, as in JSON Lines.
+ * For example,
+ * <p>
+ * <pre>
+ * tokenizer.beginObject();
+ * while (tokenizer.hasNext()) {
+ *   String name = tokenizer.nextName();
+ *   ...
+ * }
+ * tokenizer.endObject();
+ * </pre>
+ */
+final class BioCJsonTokenizer implements Closeable {
+
+  enum Token {
+    BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END
+  }
+
+  private static final int EMPTY_DOCUMENT = 0;
+  private static final int NONEMPTY_DOCUMENT = 1;
+  private static final int EMPTY_OBJECT = 2;
+  private static final int DANGLING_NAME = 3;
+  private static final int NONEMPTY_OBJECT = 4;
+  private static final int EMPTY_ARRAY = 5;
+  private static final int NONEMPTY_ARRAY = 6;
+
+  private final Reader in;
+  private final char[] buffer;
+  private int pos;
+  private int limit;
+  // number of characters before the buffer
+  private long consumed;
+
+  private int[] scopes;
+  private int depth;
+  private Token peeked;
+  private final StringBuilder sb;
+
+  BioCJsonTokenizer(Reader in) {
+    this.in = in;
+    this.buffer = new char[8192];
+    this.scopes = new int[32];
+    this.scopes[depth++] = EMPTY_DOCUMENT;
+    this.sb = new StringBuilder();
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    in.close();
+  }
+
+  private IOException error(String message) {
+    return new IOException("Malformed BioC JSON: " + message + " at character "
+        + (consumed + pos));
+  }
+
+  private boolean fill()
+      throws IOException {
+    consumed += limit;
+    pos = 0;
+    limit = 0;
+    int n = in.read(buffer);
+    if (n <= 0) {
+      return false;
+    }
+    limit = n;
+    return true;
+  }
+
+  private int read()
+      throws IOException {
+    if (pos == limit && !fill()) {
+      return -1;
+    }
+    return buffer[pos++];
+  }
+
+  /**
+   * Reads the next character that is not whitespace, or -1 at the end.
+   */
+  private int readNonWhitespace()
+      throws IOException {
+    while (true) {
+      int c = read();
+      if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+        return c;
+      }
+    }
+  }
+
+  private void push(int scope) {
+    if (depth == scopes.length) {
+      scopes = Arrays.copyOf(scopes, depth * 2);
+    }
+    scopes[depth++] = scope;
+  }
+
+  /**
+   * Returns the type of the next token without consuming it.
+   */
+  Token peek()
+      throws IOException {
+    if (peeked != null) {
+      return peeked;
+    }
+    int scope = scopes[depth - 1];
+    int c;
+    switch (scope) {
+    case EMPTY_ARRAY:
+      scopes[depth - 1] = NONEMPTY_ARRAY;
+      c = readNonWhitespace();
+      if (c == ']') {
+        return peeked = Token.END_ARRAY;
+      } else if (c != -1) {
+        pos--;
+      }
+      break;
+    case NONEMPTY_ARRAY:
+      c = readNonWhitespace();
+      if (c == ']') {
+        return peeked = Token.END_ARRAY;
+      } else if (c != ',') {
+        throw error("',' or ']' expected");
+      }
+      break;
+    case EMPTY_OBJECT:
+    case NONEMPTY_OBJECT:
+      scopes[depth - 1] = DANGLING_NAME;
+      c = readNonWhitespace();
+      if (c == '}') {
+        return peeked = Token.END_OBJECT;
+      }
+      if (scope == NONEMPTY_OBJECT) {
+        if (c != ',') {
+          throw error("',' or '}' expected");
+        }
+        c = readNonWhitespace();
+      }
+      if (c != '"') {
+        throw error("name expected");
+      }
+      return peeked = Token.NAME;
+    case DANGLING_NAME:
+      scopes[depth - 1] = NONEMPTY_OBJECT;
+      if (readNonWhitespace() != ':') {
+        throw error("':' expected");
+      }
+      break;
+    default:
+      scopes[depth - 1] = NONEMPTY_DOCUMENT;
+      break;
+    }
+
+    c = readNonWhitespace();
+    switch (c) {
+    case -1:
+      if (depth == 1) {
+        return peeked = Token.END;
+      }
+      throw error("unexpected end of the input");
+    case '{':
+      return peeked = Token.BEGIN_OBJECT;
+    case '[':
+      return peeked = Token.BEGIN_ARRAY;
+    case '"':
+      return peeked = Token.STRING;
+    case 't':
+    case 'f':
+      pos--;
+      return peeked = Token.BOOLEAN;
+    case 'n':
+      pos--;
+      return peeked = Token.NULL;
+    default:
+      if (c == '-' || (c >= '0' && c <= '9')) {
+        pos--;
+        return peeked = Token.NUMBER;
+      }
+      throw error("value expected");
+    }
+  }
+
+  private void expect(Token token)
+      throws IOException {
+    if (peek() != token) {
+      throw error(token + " expected but was " + peeked);
+    }
+    peeked = null;
+  }
+
+  /**
+   * Returns true if the current object or array has more elements, or if
+   * there are more top-level values.
+   */
+  boolean hasNext()
+      throws IOException {
+    Token token = peek();
+    return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END;
+  }
+
+  void beginObject()
+      throws IOException {
+    expect(Token.BEGIN_OBJECT);
+    push(EMPTY_OBJECT);
+  }
+
+  void endObject()
+      throws IOException {
+    expect(Token.END_OBJECT);
+    depth--;
+  }
+
+  void beginArray()
+      throws IOException {
+    expect(Token.BEGIN_ARRAY);
+    push(EMPTY_ARRAY);
+  }
+
+  void endArray()
+      throws IOException {
+    expect(Token.END_ARRAY);
+    depth--;
+  }
+
+  String nextName()
+      throws IOException {
+    expect(Token.NAME);
+    return readString();
+  }
+
+  /**
+   * Returns the next string, or null if the next value is null.
+   */
+  String nextString()
+      throws IOException {
+    if (peek() == Token.NULL) {
+      nextNull();
+      return null;
+    }
+    expect(Token.STRING);
+    return readString();
+  }
+
+  int nextInt()
+      throws IOException {
+    String number = readNumber();
+    try {
+      return Integer.parseInt(number);
+    } catch (NumberFormatException e) {
+      double d;
+      try {
+        d = Double.parseDouble(number);
+      } catch (NumberFormatException e2) {
+        throw error("number expected");
+      }
+      if (d != (int) d) {
+        throw error("integer expected");
+      }
+      return (int) d;
+    }
+  }
+
+  private String readNumber()
+      throws IOException {
+    expect(Token.NUMBER);
+    sb.setLength(0);
+    while (true) {
+      if (pos == limit && !fill()) {
+        break;
+      }
+      char c = buffer[pos];
+      if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+        sb.append(c);
+        pos++;
+      } else {
+        break;
+      }
+    }
+    return sb.toString();
+  }
+
+  boolean nextBoolean()
+      throws IOException {
+    expect(Token.BOOLEAN);
+    if (readLiteral("true")) {
+      return true;
+    } else if (readLiteral("false")) {
+      return false;
+    }
+    throw error("boolean expected");
+  }
+
+  void nextNull()
+      throws IOException {
+    expect(Token.NULL);
+    if (!readLiteral("null")) {
+      throw error("null expected");
+    }
+  }
+
+  private boolean readLiteral(String literal)
+      throws IOException {
+    if (pos == limit) {
+      fill();
+    }
+    if (buffer[pos] != literal.charAt(0)) {
+      return false;
+    }
+    for (int i = 0; i < literal.length(); i++) {
+      if (read() != literal.charAt(i)) {
+        throw error(literal + " expected");
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Skips the next value, including all nested values.
+   */
+  void skipValue()
+      throws IOException {
+    switch (peek()) {
+    case BEGIN_OBJECT:
+      beginObject();
+      while (hasNext()) {
+        nextName();
+        skipValue();
+      }
+      endObject();
+      break;
+    case BEGIN_ARRAY:
+      beginArray();
+      while (hasNext()) {
+        skipValue();
+      }
+      endArray();
+      break;
+    case STRING:
+      nextString();
+      break;
+    case NUMBER:
+      readNumber();
+      break;
+    case BOOLEAN:
+      nextBoolean();
+      break;
+    case NULL:
+      nextNull();
+      break;
+    default:
+      throw error("value expected but was " + peeked);
+    }
+  }
+
+  /**
+   * Reads the rest of a string, whose opening quote has been consumed.
+   */
+  private String readString()
+      throws IOException {
+    sb.setLength(0);
+    while (true) {
+      int start = pos;
+      while (pos < limit) {
+        char c = buffer[pos];
+        if (c == '"') {
+          sb.append(buffer, start, pos - start);
+          pos++;
+          return sb.toString();
+        } else if (c == '\\') {
+          sb.append(buffer, start, pos - start);
+          pos++;
+          sb.append(readEscape());
+          start = pos;
+        } else {
+          pos++;
+        }
+      }
+      sb.append(buffer, start, pos - start);
+      if (!fill()) {
+        throw error("unterminated string");
+      }
+    }
+  }
+
+  private char readEscape()
+      throws IOException {
+    int c = read();
+    switch (c) {
+    case '"':
+    case '\\':
+    case '/':
+      return (char) c;
+    case 'b':
+      return '\b';
+    case 'f':
+      return '\f';
+    case 'n':
+      return '\n';
+    case 'r':
+      return '\r';
+    case 't':
+      return '\t';
+    case 'u':
+      int value = 0;
+      for (int i = 0; i < 4; i++) {
+        int digit = Character.digit(read(), 16);
+        if (digit == -1) {
+          throw error("invalid unicode escape");
+        }
+        value = (value << 4) | digit;
+      }
+      return (char) value;
+    default:
+      throw error("invalid escape");
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package com.pengyifan.bioc.io;
+
+/**
+ * The layers of a BioC file that readers can be restricted to. The elements of
+ * a layer that is not read are skipped without building any object.
+ *
+ * @since 1.0.4
+ * @see BioCReaderOptions#setLayers(java.util.Set)
+ * @author Yifan Peng
+ */
+public enum BioCLayer {
+  /**
+   * The text of passages and sentences.
+   */
+  TEXT,
+  /**
+   * The infons of documents, passages, sentences, annotations and relations.
+   * The infons of the collection are always read.
+   */
+  INFONS,
+  /**
+   * The annotations, including their locations and text.
+   */
+  ANNOTATIONS,
+  /**
+   * The relations, including their nodes.
+   */
+  RELATIONS,
+  /**
+   * The sentences of passages.
+   */
+  SENTENCES
+}
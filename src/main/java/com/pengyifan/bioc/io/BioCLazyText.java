@@ -0,0 +1,115 @@
+package com.pengyifan.bioc.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+
+/**
+ * The text of an element, held as a range of characters in a mapped file.
+ * The characters are decoded and unescaped every time the text is supplied.
+ */
+final class BioCLazyText implements Supplier<String> {
+
+  private final BioCMappedFile file;
+  private final long from;
+  private final long to;
+
+  /**
+   * Creates the text between the start tag and the end tag of an element.
+   *
+   * @param file the mapped file
+   * @param from the character offset after the start tag
+   * @param to the character offset of the end tag
+   */
+  BioCLazyText(BioCMappedFile file, long from, long to) {
+    this.file = file;
+    this.from = from;
+    this.to = to;
+  }
+
+  @Override
+  public String get() {
+    try {
+      return unescape(file.decode(from, to));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Returns the text of the raw content of an element, as returned by the XML
+   * parser: line breaks are normalized, the predefined entities and character
+   * references are replaced, CDATA sections are unwrapped, and comments and
+   * processing instructions are removed.
+   */
+  static String unescape(String raw) {
+    if (raw.indexOf('&') == -1 && raw.indexOf('<') == -1 && raw.indexOf('\r') == -1) {
+      return raw;
+    }
+    StringBuilder sb = new StringBuilder(raw.length());
+    int i = 0;
+    while (i < raw.length()) {
+      char c = raw.charAt(i);
+      if (c == '&') {
+        int end = raw.indexOf(';', i);
+        String name = raw.substring(i + 1, end);
+        switch (name) {
+        case "lt":
+          sb.append('<');
+          break;
+        case "gt":
+          sb.append('>');
+          break;
+        case "amp":
+          sb.append('&');
+          break;
+        case "quot":
+          sb.append('"');
+          break;
+        case "apos":
+          sb.append('\'');
+          break;
+        default:
+          if (name.startsWith("#x")) {
+            sb.appendCodePoint(Integer.parseInt(name.substring(2), 16));
+          } else if (name.startsWith("#")) {
+            sb.appendCodePoint(Integer.parseInt(name.substring(1)));
+          } else {
+            throw new IllegalStateException("Unknown entity: " + name);
+          }
+        }
+        i = end + 1;
+      } else if (raw.startsWith("<![CDATA[", i)) {
+        int end = raw.indexOf("]]>", i);
+        appendNormalized(sb, raw, i + "<![CDATA[".length(), end);
+        i = end + "]]>".length();
+      } else if (raw.startsWith("<!--", i)) {
+        i = raw.indexOf("-->", i) + "-->".length();
+      } else if (raw.startsWith("<?", i)) {
+        i = raw.indexOf("?>", i) + "?>".length();
+      } else {
+        int end = i + 1;
+        while (end < raw.length() && "&<".indexOf(raw.charAt(end)) == -1) {
+          end++;
+        }
+        appendNormalized(sb, raw, i, end);
+        i = end;
+      }
+    }
+    return sb.toString();
+  }
+
+  private static void appendNormalized(StringBuilder sb, String raw, int from, int to) {
+    for (int i = from; i < to; i++) {
+      char c = raw.charAt(i);
+      if (c == '\r') {
+        sb.append('\n');
+        if (i + 1 < to && raw.charAt(i + 1) == '\n') {
+          i++;
+        }
+      } else {
+        sb.append(c);
+      }
+    }
+  }
+}
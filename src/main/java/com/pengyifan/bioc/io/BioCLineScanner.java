@@ -0,0 +1,93 @@
+package com.pengyifan.bioc.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Splits the bytes of a file into lines, without decoding them. A line ends
+ * with {@code \n} or {@code \r\n}, which is not part of the line.
+ * <p>
+ * The scanner works on any ASCII-compatible encoding, such as UTF-8.
+ */
+class BioCLineScanner implements Closeable {
+
+  private final InputStream in;
+  private final byte[] buffer;
+  private int pos;
+  private int limit;
+  // absolute offset of buffer[pos]
+  private long position;
+  private byte[] line;
+
+  BioCLineScanner(InputStream in) {
+    this(in, 0);
+  }
+
+  /**
+   * Creates a scanner whose first byte is at the given offset in the file.
+   */
+  BioCLineScanner(InputStream in, long offset) {
+    this.in = in;
+    this.buffer = new byte[BioCCodecs.BUFFER_SIZE];
+    this.line = new byte[1024];
+    this.position = offset;
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    in.close();
+  }
+
+  /**
+   * Returns the offset of the next line in the file.
+   */
+  long position() {
+    return position;
+  }
+
+  /**
+   * Returns the next line, or null at the end of the input.
+   */
+  BioCDocumentScanner.Chunk nextLine()
+      throws IOException {
+    long start = position;
+    int length = 0;
+    while (true) {
+      if (pos == limit) {
+        int n = in.read(buffer);
+        if (n <= 0) {
+          if (length == 0 && position == start) {
+            return null;
+          }
+          break;
+        }
+        pos = 0;
+        limit = n;
+      }
+      int from = pos;
+      while (pos < limit && buffer[pos] != '\n') {
+        pos++;
+      }
+      int n = pos - from;
+      if (length + n > line.length) {
+        line = Arrays.copyOf(line, Math.max(line.length * 2, length + n));
+      }
+      System.arraycopy(buffer, from, line, length, n);
+      length += n;
+      position += n;
+      if (pos < limit) {
+        // the line feed
+        pos++;
+        position++;
+        break;
+      }
+    }
+    if (length > 0 && line[length - 1] == '\r') {
+      length--;
+    }
+    return new BioCDocumentScanner.Chunk(start, Arrays.copyOf(line, length));
+  }
+}
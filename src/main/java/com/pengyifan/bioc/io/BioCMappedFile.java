@@ -0,0 +1,336 @@
+package com.pengyifan.bioc.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A BioC file mapped into memory. The file is decoded sequentially by
+ * {@link #newReader()}, which records where in the file the characters it
+ * returns start, so that any range of characters can be decoded again later
+ * without keeping the decoded text in memory. Its bytes can also be read by
+ * {@link #newInputStream()} straight from the mapped pages, without read
+ * calls into the kernel.
+ * <p>
+ * The mapping stays valid after the reader is closed, until the file and all
+ * texts that refer to it are garbage collected.
+ */
+final class BioCMappedFile {
+
+  /**
+   * Files are mapped in windows of this size, because a single mapping
+   * cannot exceed 2 GB.
+   */
+  private static final int WINDOW_SIZE = 1 << 30;
+  /**
+   * Consecutive windows overlap, so that a character never straddles the end
+   * of a window.
+   */
+  private static final int OVERLAP = 16;
+  private static final Pattern ENCODING = Pattern
+      .compile("^<\\?xml[^>]*encoding\\s*=\\s*[\"']([A-Za-z0-9._:-]+)[\"']");
+
+  private final ByteBuffer[] windows;
+  private final long size;
+  // detected when the file is first decoded, as the bytes may be read without
+  // decoding them
+  private long start;
+  private Charset charset;
+  private float maxBytesPerChar;
+
+  // the character and byte offsets where the reads of the reader started
+  private long[] charOffsets;
+  private long[] byteOffsets;
+  private int checkpoints;
+
+  private BioCMappedFile(ByteBuffer[] windows, long size) {
+    this.windows = windows;
+    this.size = size;
+    charOffsets = new long[64];
+    byteOffsets = new long[64];
+  }
+
+  /**
+   * Detects the encoding from the byte order mark or the XML declaration. It
+   * is UTF-8 by default.
+   */
+  private synchronized Charset detectCharset() {
+    if (charset != null) {
+      return charset;
+    }
+    byte[] header = new byte[(int) Math.min(size, 256)];
+    if (windows.length > 0) {
+      windows[0].duplicate().get(header);
+    }
+    // the byte order mark is not part of the document
+    if (startsWith(header, 0xEF, 0xBB, 0xBF)) {
+      start = 3;
+      charset = StandardCharsets.UTF_8;
+    } else if (startsWith(header, 0xFE, 0xFF)) {
+      start = 2;
+      charset = StandardCharsets.UTF_16BE;
+    } else if (startsWith(header, 0xFF, 0xFE)) {
+      start = 2;
+      charset = StandardCharsets.UTF_16LE;
+    } else if (startsWith(header, 0x00, 0x3C)) {
+      start = 0;
+      charset = StandardCharsets.UTF_16BE;
+    } else if (startsWith(header, 0x3C, 0x00)) {
+      start = 0;
+      charset = StandardCharsets.UTF_16LE;
+    } else {
+      start = 0;
+      Matcher m = ENCODING.matcher(new String(header, StandardCharsets.ISO_8859_1));
+      charset = m.find() ? Charset.forName(m.group(1)) : StandardCharsets.UTF_8;
+    }
+    maxBytesPerChar = charset.canEncode() ? charset.newEncoder().maxBytesPerChar() : 4;
+    return charset;
+  }
+
+  /**
+   * Maps the file into memory. The encoding is detected when the file is
+   * first decoded.
+   *
+   * @param path the file path
+   * @return the mapped file
+   * @throws IOException if the file cannot be mapped
+   */
+  static BioCMappedFile open(Path path)
+      throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      ByteBuffer[] windows = new ByteBuffer[(int) ((size + WINDOW_SIZE - 1) / WINDOW_SIZE)];
+      for (int i = 0; i < windows.length; i++) {
+        long position = (long) i * WINDOW_SIZE;
+        windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, position,
+            Math.min(size - position, (long) WINDOW_SIZE + OVERLAP));
+      }
+      return new BioCMappedFile(windows, size);
+    }
+  }
+
+  private static boolean startsWith(byte[] bytes, int... prefix) {
+    if (bytes.length < prefix.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if ((bytes[i] & 0xFF) != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the character encoding of the file.
+   */
+  Charset getCharset() {
+    return detectCharset();
+  }
+
+  private CharsetDecoder newDecoder() {
+    return detectCharset().newDecoder()
+        .onMalformedInput(CodingErrorAction.REPORT)
+        .onUnmappableCharacter(CodingErrorAction.REPORT);
+  }
+
+  /**
+   * Returns the bytes from the offset to the end of the window that contains
+   * it.
+   */
+  private ByteBuffer bytesFrom(long offset) {
+    int i = (int) Math.min(offset / WINDOW_SIZE, windows.length - 1);
+    ByteBuffer bytes = windows[i].duplicate();
+    bytes.position((int) (offset - (long) i * WINDOW_SIZE));
+    return bytes;
+  }
+
+  private ByteBuffer copy(long offset, int length) {
+    byte[] bytes = new byte[length];
+    int n = 0;
+    while (n < length) {
+      ByteBuffer window = bytesFrom(offset + n);
+      int k = Math.min(window.remaining(), length - n);
+      window.get(bytes, n, k);
+      n += k;
+    }
+    return ByteBuffer.wrap(bytes);
+  }
+
+  private synchronized void addCheckpoint(long charOffset, long byteOffset) {
+    if (checkpoints == charOffsets.length) {
+      charOffsets = Arrays.copyOf(charOffsets, checkpoints * 2);
+      byteOffsets = Arrays.copyOf(byteOffsets, checkpoints * 2);
+    }
+    charOffsets[checkpoints] = charOffset;
+    byteOffsets[checkpoints] = byteOffset;
+    checkpoints++;
+  }
+
+  /**
+   * Decodes the characters between the offsets, which refer to characters
+   * already returned by a reader of this file.
+   *
+   * @param from the offset of the first character
+   * @param to the offset after the last character
+   * @return the characters
+   * @throws IOException if the bytes cannot be decoded
+   */
+  String decode(long from, long to)
+      throws IOException {
+    long charOffset;
+    long byteOffset;
+    float bytesPerChar;
+    synchronized (this) {
+      int i = Arrays.binarySearch(charOffsets, 0, checkpoints, from);
+      if (i < 0) {
+        i = -i - 2;
+      }
+      if (i < 0) {
+        throw new IllegalArgumentException("The characters have not been read: " + from);
+      }
+      charOffset = charOffsets[i];
+      byteOffset = byteOffsets[i];
+      bytesPerChar = maxBytesPerChar;
+    }
+    int skip = (int) (from - charOffset);
+    CharBuffer out = CharBuffer.allocate(skip + (int) (to - from));
+    ByteBuffer in = bytesFrom(byteOffset);
+    long maxBytes = Math.min(size - byteOffset, (long) Math.ceil(out.capacity() * bytesPerChar));
+    if (in.remaining() < maxBytes) {
+      // the characters continue in the next window
+      in = copy(byteOffset, (int) Math.min(maxBytes, Integer.MAX_VALUE - 8));
+    }
+    CoderResult result = newDecoder().decode(in, out, true);
+    if (result.isError()) {
+      result.throwException();
+    }
+    out.flip();
+    out.position(skip);
+    return out.toString();
+  }
+
+  /**
+   * Returns a new stream of the bytes of the file, including the byte order
+   * mark. Closing the stream does not unmap the file.
+   */
+  InputStream newInputStream() {
+    return new InputStream() {
+
+      private long position;
+      private long mark;
+
+      @Override
+      public int read() {
+        if (position >= size) {
+          return -1;
+        }
+        return bytesFrom(position++).get() & 0xFF;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+          return 0;
+        }
+        if (position >= size) {
+          return -1;
+        }
+        ByteBuffer in = bytesFrom(position);
+        int n = (int) Math.min(len, Math.min(in.remaining(), size - position));
+        in.get(b, off, n);
+        position += n;
+        return n;
+      }
+
+      @Override
+      public long skip(long n) {
+        long k = Math.max(0, Math.min(n, size - position));
+        position += k;
+        return k;
+      }
+
+      @Override
+      public int available() {
+        return (int) Math.min(size - position, Integer.MAX_VALUE);
+      }
+
+      @Override
+      public boolean markSupported() {
+        return true;
+      }
+
+      @Override
+      public synchronized void mark(int readlimit) {
+        mark = position;
+      }
+
+      @Override
+      public synchronized void reset() {
+        position = mark;
+      }
+    };
+  }
+
+  /**
+   * Returns a new reader of the characters of the file. Character offsets
+   * reported by a parser of the reader can be decoded by
+   * {@link #decode(long, long)}.
+   */
+  Reader newReader() {
+    CharsetDecoder newDecoder = newDecoder();
+    long newStart;
+    synchronized (this) {
+      newStart = start;
+    }
+    return new Reader() {
+
+      private final CharsetDecoder decoder = newDecoder;
+      private long byteOffset = newStart;
+      private long charOffset = 0;
+
+      @Override
+      public int read(char[] cbuf, int off, int len)
+          throws IOException {
+        if (len == 0) {
+          return 0;
+        }
+        if (byteOffset >= size) {
+          return -1;
+        }
+        addCheckpoint(charOffset, byteOffset);
+        ByteBuffer in = bytesFrom(byteOffset);
+        long windowStart = byteOffset - in.position();
+        CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+        CoderResult result = decoder.decode(in, out, windowStart + in.limit() == size);
+        if (result.isError()) {
+          result.throwException();
+        }
+        byteOffset = windowStart + in.position();
+        int n = out.position() - off;
+        if (n == 0) {
+          throw new IOException("The buffer is too small to decode a character");
+        }
+        charOffset += n;
+        return n;
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+  }
+}
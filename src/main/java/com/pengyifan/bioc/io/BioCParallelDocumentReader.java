@@ -0,0 +1,343 @@
+package com.pengyifan.bioc.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+import javax.xml.stream.FactoryConfigurationError;
+import javax.xml.stream.XMLStreamException;
+
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+
+/**
+ * Reads the documents of one BioC file on multiple threads. The file is split
+ * on {@code <document>} boundaries by scanning its bytes, and the documents are
+ * parsed on a thread pool. Documents are returned either in their original
+ * order or as soon as they are parsed. For example,
+ * <p>
+ * <pre>
+ * BioCParallelDocumentReader reader = new BioCParallelDocumentReader(path);
+ * BioCCollection collection = reader.readCollectionInfo();
+ * BioCDocument doc = null;
+ * while ((doc = reader.readDocument()) != null) {
+ *   collection.addDocument(doc);
+ * }
+ * reader.close();
+ * </pre>
+ * <p>
+ * The file must be in an ASCII-compatible encoding, such as UTF-8.
+ *
+ * @since 1.0.4
+ * @see BioCDocumentReader
+ * @author Yifan Peng
+ */
+public class BioCParallelDocumentReader implements Closeable {
+
+  private static final Future<BioCDocument> END = new FutureTask<>(() -> null);
+
+  private final BioCDocumentScanner scanner;
+  private final BioCCollection collection;
+  private final String encoding;
+  private final ExecutorService executor;
+  private final boolean ownsExecutor;
+  private final boolean ordered;
+  private final int maxPending;
+  private final Semaphore pending;
+  private final BlockingQueue<Future<BioCDocument>> queue;
+  private final Thread splitter;
+  private boolean isEnd;
+
+  /**
+   * Creates a new BioCParallelDocumentReader, given the Path to read from. The
+   * documents are parsed on all available processors and returned in their
+   * original order.
+   *
+   * @param path the file path to read from
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public BioCParallelDocumentReader(Path path)
+      throws FactoryConfigurationError, XMLStreamException, IOException {
+    this(path, Runtime.getRuntime().availableProcessors(), true);
+  }
+
+  /**
+   * Creates a new BioCParallelDocumentReader, given the Path to read from. A
+   * compressed file is decompressed transparently.
+   *
+   * @param path the file path to read from
+   * @param threads the number of threads used to parse documents
+   * @param ordered true if documents are returned in their original order,
+   *          false if they are returned as soon as they are parsed
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public BioCParallelDocumentReader(Path path, int threads, boolean ordered)
+      throws FactoryConfigurationError, XMLStreamException, IOException {
+    this(path, threads, ordered, false);
+  }
+
+  /**
+   * Creates a new BioCParallelDocumentReader, given the Path to read from. If
+   * asked for, an uncompressed file is mapped into memory and split straight
+   * from the mapped pages; see {@link BioCReaderOptions#setMemoryMapped(boolean)}
+   * for when the mapping is released. A compressed file is decompressed
+   * transparently.
+   *
+   * @param path the file path to read from
+   * @param threads the number of threads used to parse documents
+   * @param ordered true if documents are returned in their original order,
+   *          false if they are returned as soon as they are parsed
+   * @param isMemoryMapped true if an uncompressed file is mapped into memory
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public BioCParallelDocumentReader(Path path, int threads, boolean ordered,
+      boolean isMemoryMapped)
+      throws FactoryConfigurationError, XMLStreamException, IOException {
+    this(BioCReader.newInputStream(path, isMemoryMapped), newExecutor(threads), true, threads,
+        ordered);
+  }
+
+  /**
+   * Creates a BioCParallelDocumentReader that uses the input stream in and
+   * parses documents on the given executor. The executor is not shut down when
+   * the reader is closed.
+   *
+   * @param in an InputStream
+   * @param executor the executor used to parse documents
+   * @param threads the number of threads of the executor
+   * @param ordered true if documents are returned in their original order,
+   *          false if they are returned as soon as they are parsed
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public BioCParallelDocumentReader(InputStream in, ExecutorService executor, int threads,
+      boolean ordered)
+      throws FactoryConfigurationError, XMLStreamException, IOException {
+    this(in, executor, false, threads, ordered);
+  }
+
+  private BioCParallelDocumentReader(InputStream in, ExecutorService executor,
+      boolean ownsExecutor, int threads, boolean ordered)
+      throws FactoryConfigurationError, XMLStreamException, IOException {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads has to be > 0");
+    }
+    this.scanner = new BioCDocumentScanner(in);
+    this.executor = executor;
+    this.ownsExecutor = ownsExecutor;
+    this.ordered = ordered;
+    this.maxPending = 4 * threads;
+    this.pending = new Semaphore(maxPending);
+    this.queue = new LinkedBlockingQueue<>();
+
+    // collection header
+    BioCCursorReader reader = BioCCursorReader.newHeaderReader(scanner.readHeader());
+    this.collection = (BioCCollection) reader.read();
+    this.encoding = reader.getInputEncoding();
+    reader.close();
+
+    splitter = new Thread(this::split, "bioc-splitter");
+    splitter.setDaemon(true);
+    splitter.start();
+  }
+
+  private static ExecutorService newExecutor(int threads) {
+    return Executors.newFixedThreadPool(threads, r -> {
+      Thread thread = new Thread(r, "bioc-parser");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  private void split() {
+    try {
+      BioCDocumentScanner.Chunk chunk;
+      while ((chunk = scanner.nextDocument()) != null) {
+        pending.acquire();
+        FutureTask<BioCDocument> task = newTask(chunk);
+        if (ordered) {
+          queue.add(task);
+        }
+        executor.execute(task);
+      }
+      if (!ordered) {
+        // wait until all documents are taken
+        pending.acquire(maxPending);
+      }
+    } catch (InterruptedException e) {
+      return;
+    } catch (IOException | RuntimeException e) {
+      FutureTask<BioCDocument> failure = new FutureTask<>(() -> {
+        throw e;
+      });
+      failure.run();
+      try {
+        // readDocument releases a permit for the failure, as for any document
+        pending.acquire();
+      } catch (InterruptedException ie) {
+        return;
+      }
+      queue.add(failure);
+    }
+    queue.add(END);
+  }
+
+  private FutureTask<BioCDocument> newTask(BioCDocumentScanner.Chunk chunk) {
+    if (ordered) {
+      return new FutureTask<>(() -> parse(chunk, encoding));
+    }
+    return new FutureTask<BioCDocument>(() -> parse(chunk, encoding)) {
+      @Override
+      protected void done() {
+        queue.add(this);
+      }
+    };
+  }
+
+  private static BioCDocument parse(BioCDocumentScanner.Chunk chunk, String encoding)
+      throws XMLStreamException, IOException {
+    BioCReader reader = BioCCursorReader.newDocumentReader(
+        new ByteArrayInputStream(chunk.bytes), encoding);
+    try {
+      return (BioCDocument) reader.read();
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * Returns a stream of the documents of the file. The file is split on
+   * {@code <document>} boundaries without parsing the documents, and each
+   * document is parsed by the thread that processes it. The stream is
+   * sequential; if it is made parallel, batches of unparsed documents are
+   * handed off to multiple threads, so that the documents are parsed and
+   * processed on all of them. Closing the stream closes the file. For example,
+   * <p>
+   * <pre>
+   * try (Stream&lt;BioCDocument&gt; documents = BioCParallelDocumentReader.documents(path)) {
+   *   documents.parallel().map(...).forEach(...);
+   * }
+   * </pre>
+   * <p>
+   * Errors of the stream are thrown as {@link java.io.UncheckedIOException}.
+   *
+   * @param path the file path to read from
+   * @return a stream of the documents of the file
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public static Stream<BioCDocument> documents(Path path)
+      throws FactoryConfigurationError, XMLStreamException, IOException {
+    return documents(path, false);
+  }
+
+  /**
+   * Returns a stream of the documents of the file, see
+   * {@link #documents(Path)}. If asked for, an uncompressed file is mapped
+   * into memory.
+   *
+   * @param path the file path to read from
+   * @param isMemoryMapped true if an uncompressed file is mapped into memory
+   * @return a stream of the documents of the file
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public static Stream<BioCDocument> documents(Path path, boolean isMemoryMapped)
+      throws FactoryConfigurationError, XMLStreamException, IOException {
+    BioCDocumentScanner scanner = new BioCDocumentScanner(
+        BioCReader.newInputStream(path, isMemoryMapped));
+    String encoding;
+    try {
+      BioCCursorReader reader = BioCCursorReader.newHeaderReader(scanner.readHeader());
+      reader.read();
+      encoding = reader.getInputEncoding();
+      reader.close();
+    } catch (XMLStreamException | IOException | RuntimeException e) {
+      scanner.close();
+      throw e;
+    }
+    return BioCDocumentSpliterator.stream(scanner::nextDocument,
+        chunk -> parse(chunk, encoding), scanner);
+  }
+
+  /**
+   * Closes the reader and releases any system resources associated with it.
+   * Documents that are being parsed are discarded.
+   */
+  @Override
+  public void close()
+      throws IOException {
+    splitter.interrupt();
+    if (ownsExecutor) {
+      executor.shutdownNow();
+    }
+    scanner.close();
+  }
+
+  /**
+   * Reads the collection information: encoding, version, DTD, source, date,
+   * key, infons, etc.
+   *
+   * @return the BioC collection that contains only information
+   */
+  public BioCCollection readCollectionInfo() {
+    return collection;
+  }
+
+  /**
+   * Reads one BioC document from the XML file.
+   *
+   * @return the BioC document, or null if there are no more documents
+   * @throws XMLStreamException if an unexpected processing error occurs
+   */
+  public BioCDocument readDocument()
+      throws XMLStreamException {
+    if (isEnd) {
+      return null;
+    }
+    Future<BioCDocument> future;
+    try {
+      future = queue.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new XMLStreamException("Interrupted while waiting for a document", e);
+    }
+    if (future == END) {
+      isEnd = true;
+      return null;
+    }
+    pending.release();
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new XMLStreamException("Interrupted while waiting for a document", e);
+    } catch (ExecutionException e) {
+      isEnd = true;
+      if (e.getCause() instanceof XMLStreamException) {
+        throw (XMLStreamException) e.getCause();
+      }
+      throw new XMLStreamException(e.getCause().getMessage(), e.getCause());
+    }
+  }
+}
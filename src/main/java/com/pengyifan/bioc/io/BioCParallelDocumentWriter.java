@@ -0,0 +1,243 @@
+package com.pengyifan.bioc.io;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import javax.xml.stream.FactoryConfigurationError;
+import javax.xml.stream.XMLStreamException;
+
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+
+/**
+ * Writes documents into a BioC file on multiple threads. Each document is
+ * serialized into a byte buffer on a thread pool, and the buffers are written
+ * into the file in the order the documents were submitted. The output is the
+ * same as that of {@link BioCDocumentWriter}. For example,
+ * <p>
+ * <pre>
+ * BioCParallelDocumentWriter writer = new BioCParallelDocumentWriter(path);
+ * writer.writeBeginCollectionInfo(collection);
+ * for (BioCDocument document : collection.getDocuments()) {
+ *   writer.writeDocument(document);
+ * }
+ * writer.close();
+ * </pre>
+ * <p>
+ * A document must not be modified after it is passed to
+ * {@link #writeDocument(BioCDocument)}, because it may be serialized later on
+ * another thread.
+ *
+ * @since 1.0.4
+ * @see BioCDocumentWriter
+ * @author Yifan Peng
+ */
+public class BioCParallelDocumentWriter implements Closeable {
+
+  /**
+   * Documents are serialized inside this element so that they are indented
+   * as in the collection.
+   */
+  private static final String FRAGMENT_PREFIX = "<collection>";
+
+  private final OutputStream out;
+  private final BioCWriterOptions options;
+  private final ExecutorService executor;
+  private final boolean ownsExecutor;
+  private final int maxPending;
+  private final Queue<Future<byte[]>> pending;
+  private BioCWriter writer;
+  private Charset charset;
+  // the number of bytes the charset writes before any text, e.g., a byte order mark
+  private int prefixLength;
+
+  /**
+   * Creates a new BioCParallelDocumentWriter, given the Path to write to. The
+   * documents are serialized on all available processors.
+   *
+   * @param path the file path to write to
+   * @throws IOException if the file cannot be opened
+   */
+  public BioCParallelDocumentWriter(Path path)
+      throws IOException {
+    this(path, Runtime.getRuntime().availableProcessors(), new BioCWriterOptions());
+  }
+
+  /**
+   * Creates a new BioCParallelDocumentWriter, given the Path to write to. The
+   * output is compressed if the file name extension is of a codec, e.g.,
+   * {@code .gz}.
+   *
+   * @param path the file path to write to
+   * @param threads the number of threads used to serialize documents
+   * @param options the options of the writer, such as engine and indentation
+   * @throws IOException if the file cannot be opened
+   */
+  public BioCParallelDocumentWriter(Path path, int threads, BioCWriterOptions options)
+      throws IOException {
+    this(BioCCodecs.newOutputStream(path), options, newExecutor(threads), true, threads);
+  }
+
+  /**
+   * Creates a BioCParallelDocumentWriter that uses the output stream out and
+   * serializes documents on the given executor. The executor is not shut down
+   * when the writer is closed.
+   *
+   * @param out an OutputStream
+   * @param options the options of the writer, such as engine and indentation
+   * @param executor the executor used to serialize documents
+   * @param threads the number of threads of the executor
+   */
+  public BioCParallelDocumentWriter(OutputStream out, BioCWriterOptions options,
+      ExecutorService executor, int threads) {
+    this(out, options, executor, false, threads);
+  }
+
+  private BioCParallelDocumentWriter(OutputStream out, BioCWriterOptions options,
+      ExecutorService executor, boolean ownsExecutor, int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads has to be > 0");
+    }
+    this.out = new BufferedOutputStream(out, BioCCodecs.BUFFER_SIZE);
+    this.options = options;
+    this.executor = executor;
+    this.ownsExecutor = ownsExecutor;
+    this.maxPending = 4 * threads;
+    this.pending = new ArrayDeque<>();
+  }
+
+  private static ExecutorService newExecutor(int threads) {
+    return Executors.newFixedThreadPool(threads, r -> {
+      Thread thread = new Thread(r, "bioc-serializer");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Closes the writer after all submitted documents are written.
+   */
+  @Override
+  public void close()
+      throws IOException {
+    try {
+      if (writer != null) {
+        while (!pending.isEmpty()) {
+          writeNext();
+        }
+        writer.writeEndCollection()
+            .writeEndDocument()
+            .close();
+      }
+    } catch (XMLStreamException e) {
+      throw new IOException(e.getMessage(), e);
+    } finally {
+      if (ownsExecutor) {
+        executor.shutdownNow();
+      }
+      out.close();
+    }
+  }
+
+  /**
+   * Writes the BioC collection information: source, date, key, infons, etc.
+   *
+   * @param collection the BioC collection whose information will be written
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   */
+  public void writeBeginCollectionInfo(BioCCollection collection)
+      throws FactoryConfigurationError, XMLStreamException {
+    if (writer != null) {
+      throw new IllegalStateException(
+          "writeCollectionInfo can only be invoked once.");
+    }
+    charset = Charset.forName(collection.getEncoding());
+    prefixLength = prefixLength(charset);
+    writer = BioCWriter.newWriter(new OutputStreamWriter(out, charset), options);
+    writer
+        .writeStartDocument(
+            collection.getEncoding(),
+            collection.getVersion(),
+            collection.isStandalone())
+        .writeBeginCollectionInfo(collection)
+        .flush();
+  }
+
+  /**
+   * Submits the BioC document to be written into the XML file. This method can
+   * be called sequentially. Errors of previously submitted documents are
+   * thrown by this method or by {@link #close()}.
+   *
+   * @param document the BioC document
+   * @throws XMLStreamException if an unexpected processing error occurs
+   */
+  public void writeDocument(BioCDocument document)
+      throws XMLStreamException {
+    if (writer == null) {
+      throw new IllegalStateException(
+          "writeCollectionInfo should be invoked before.");
+    }
+    FutureTask<byte[]> task = new FutureTask<>(() -> serialize(document));
+    pending.add(task);
+    executor.execute(task);
+    // write finished documents, and wait if too many are pending
+    while (!pending.isEmpty()
+        && (pending.size() > maxPending || pending.peek().isDone())) {
+      writeNext();
+    }
+  }
+
+  /**
+   * Returns the number of bytes that the charset writes before any text, such
+   * as the byte order mark of UTF-16. They are written only once, at the
+   * start of the file, and are dropped from the serialized documents.
+   */
+  private static int prefixLength(Charset charset) {
+    return 2 * "x".getBytes(charset).length - "xx".getBytes(charset).length;
+  }
+
+  private byte[] serialize(BioCDocument document)
+      throws XMLStreamException, IOException {
+    StringWriter buffer = new StringWriter();
+    BioCWriter fragmentWriter = BioCWriter.newWriter(buffer, options);
+    fragmentWriter.writeStartElement("collection")
+        .write(document)
+        .flush();
+    return buffer.getBuffer().substring(FRAGMENT_PREFIX.length()).getBytes(charset);
+  }
+
+  private void writeNext()
+      throws XMLStreamException {
+    byte[] bytes;
+    try {
+      bytes = pending.remove().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new XMLStreamException("Interrupted while writing a document", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof XMLStreamException) {
+        throw (XMLStreamException) e.getCause();
+      }
+      throw new XMLStreamException(e.getCause().getMessage(), e.getCause());
+    }
+    try {
+      out.write(bytes, prefixLength, bytes.length - prefixLength);
+    } catch (IOException e) {
+      throw new XMLStreamException(e.getMessage(), e);
+    }
+  }
+}
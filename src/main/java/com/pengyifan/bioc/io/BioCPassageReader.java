@@ -0,0 +1,272 @@
+package com.pengyifan.bioc.io;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Path;
+
+import javax.xml.stream.FactoryConfigurationError;
+import javax.xml.stream.XMLStreamException;
+
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+import com.pengyifan.bioc.BioCPassage;
+import com.pengyifan.bioc.io.BioCReader.Level;
+
+/**
+ * Reads the BioC file sequentially into BioCPassage every time the method
+ * {@link #readPassage} is called. Passages are not kept in their documents, so
+ * the memory is bounded by the largest passage instead of the largest
+ * document. For example,
+ * <p>
+ * <pre>
+ * BioCPassageReader reader = new BioCPassageReader(&quot;foo.xml&quot;);
+ * BioCCollection collection = reader.readCollectionInfo();
+ * BioCPassage passage = null;
+ * while ((passage = reader.readPassage()) != null) {
+ *   BioCDocument document = reader.getDocumentInfo();
+ *   ...
+ * }
+ * reader.close();
+ * </pre>
+ *
+ * @since 1.0.4
+ * @see BioCDocumentReader
+ * @see BioCSentenceReader
+ * @author Yifan Peng
+ */
+public class BioCPassageReader implements Closeable {
+
+  private BioCReader reader;
+  private BioCPassage nextPassage;
+  private BioCDocument nextDocument;
+  private BioCDocument document;
+
+  /**
+   * Creates a new BioCPassageReader, given the File to read from.
+   *
+   * @param file the File to read from
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws FileNotFoundException if the file does not exist, is a directory
+   *           rather than a regular file, or for some other reason cannot be
+   *           opened for reading.
+   */
+  public BioCPassageReader(File file)
+      throws FactoryConfigurationError, XMLStreamException,
+      FileNotFoundException {
+    this(new FileInputStream(file));
+  }
+
+  /**
+   * Creates a new BioCPassageReader, given the Path to read from. A compressed file
+   * is decompressed transparently.
+   *
+   * @param path the file path to read from
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public BioCPassageReader(Path path)
+      throws FactoryConfigurationError, XMLStreamException,
+      IOException {
+    this(path, new BioCReaderOptions());
+  }
+
+  /**
+   * Creates a new BioCPassageReader, given the Path to read from, and parses it
+   * with the specified options. A compressed file is decompressed
+   * transparently.
+   *
+   * @param path the file path to read from
+   * @param options the options of the reader, such as engine and lazy text
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws IOException if an I/O exception of some sort has occurred
+   * @since 1.0.4
+   */
+  public BioCPassageReader(Path path, BioCReaderOptions options)
+      throws FactoryConfigurationError, XMLStreamException,
+      IOException {
+    this(BioCReader.newReader(path, Level.PASSAGE_LEVEL, options));
+  }
+
+  /**
+   * Creates an BioCPassageReader that uses the input stream in.
+   *
+   * @param in an InputStream
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   */
+  public BioCPassageReader(InputStream in)
+      throws FactoryConfigurationError, XMLStreamException {
+    this(in, BioCEngine.CURSOR);
+  }
+
+  /**
+   * Creates an BioCPassageReader that uses the reader in.
+   *
+   * @param in a Reader
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   */
+  public BioCPassageReader(Reader in)
+      throws FactoryConfigurationError, XMLStreamException {
+    this(in, BioCEngine.CURSOR);
+  }
+
+  /**
+   * Creates an BioCPassageReader that uses the reader in and parses it with
+   * the specified engine.
+   *
+   * @param in a Reader
+   * @param engine the StAX engine used to parse the BioC file
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   */
+  public BioCPassageReader(Reader in, BioCEngine engine)
+      throws FactoryConfigurationError, XMLStreamException {
+    this(in, newOptions(engine));
+  }
+
+  /**
+   * Creates a BioCPassageReader that uses the reader in and parses it with the
+   * specified options.
+   *
+   * @param in a Reader
+   * @param options the options of the reader, such as engine and factories
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @since 1.0.4
+   */
+  public BioCPassageReader(Reader in, BioCReaderOptions options)
+      throws FactoryConfigurationError, XMLStreamException {
+    this(BioCReader.newReader(in, Level.PASSAGE_LEVEL, options));
+  }
+
+  /**
+   * Creates a BioCPassageReader that uses the input stream in and parses it with
+   * the specified engine. The bytes are decoded by the XML parser, using the
+   * encoding in the XML declaration.
+   *
+   * @param in an InputStream
+   * @param engine the StAX engine used to parse the BioC file
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   */
+  public BioCPassageReader(InputStream in, BioCEngine engine)
+      throws FactoryConfigurationError, XMLStreamException {
+    this(in, newOptions(engine));
+  }
+
+  /**
+   * Creates a BioCPassageReader that uses the input stream in and parses it with
+   * the specified options.
+   *
+   * @param in an InputStream
+   * @param options the options of the reader, such as engine and factories
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @since 1.0.4
+   */
+  public BioCPassageReader(InputStream in, BioCReaderOptions options)
+      throws FactoryConfigurationError, XMLStreamException {
+    this(BioCReader.newReader(in, Level.PASSAGE_LEVEL, options));
+  }
+
+  private static BioCReaderOptions newOptions(BioCEngine engine) {
+    BioCReaderOptions options = new BioCReaderOptions();
+    options.setEngine(engine);
+    return options;
+  }
+
+  private BioCPassageReader(BioCReader reader)
+      throws XMLStreamException {
+    this.reader = reader;
+    advance();
+  }
+
+  /**
+   * Creates a new BioCPassageReader, given the name of the file to read from.
+   *
+   * @param fileName the name of the file to read from
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws FileNotFoundException if the file does not exist, is a directory
+   *           rather than a regular file, or for some other reason cannot be
+   *           opened for reading.
+   */
+  public BioCPassageReader(String fileName)
+      throws FactoryConfigurationError, XMLStreamException,
+      FileNotFoundException {
+    this(new FileInputStream(fileName));
+  }
+
+  private void advance()
+      throws XMLStreamException {
+    Object obj = reader.read();
+    if (obj instanceof BioCPassage) {
+      nextPassage = (BioCPassage) obj;
+      nextDocument = reader.document;
+    } else {
+      nextPassage = null;
+      nextDocument = null;
+    }
+  }
+
+  /**
+   * Closes the reader and releases any system resources associated with it.
+   * Once the reader has been closed, further readPassage() invocations will
+   * throw an IOException. Closing a previously closed reader has no effect.
+   */
+  @Override
+  public void close()
+      throws IOException {
+    reader.close();
+  }
+
+  /**
+   * Reads the collection information: encoding, version, DTD, source, date,
+   * key, infons, etc.
+   *
+   * @return the BioC collection that contains only information
+   * @throws XMLStreamException if an unexpected processing error occurs
+   */
+  public BioCCollection readCollectionInfo()
+      throws XMLStreamException {
+    return reader.collection;
+  }
+
+  /**
+   * Returns the document that encloses the passage last returned by
+   * {@link #readPassage}. The document contains its id and infons, but no
+   * passages.
+   *
+   * @return the enclosing document, or null if no passage has been read
+   */
+  public BioCDocument getDocumentInfo() {
+    return document;
+  }
+
+  /**
+   * Reads one BioC passage from the XML file.
+   *
+   * @return the BioC passage
+   * @throws XMLStreamException if an unexpected processing error occurs
+   */
+  public BioCPassage readPassage()
+      throws XMLStreamException {
+    if (nextPassage != null) {
+      BioCPassage thisPassage = nextPassage;
+      document = nextDocument;
+      advance();
+      return thisPassage;
+    } else {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,170 @@
+package com.pengyifan.bioc.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import javax.xml.stream.FactoryConfigurationError;
+import javax.xml.stream.XMLStreamException;
+
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+
+/**
+ * Reads documents of a BioC file in any order, using a
+ * {@link BioCDocumentIndex} to seek directly to the requested documents. Only
+ * the requested documents are parsed. For example,
+ * <p>
+ * <pre>
+ * BioCRandomAccessDocumentReader reader = new BioCRandomAccessDocumentReader(path);
+ * BioCCollection collection = reader.readCollectionInfo();
+ * Optional&lt;BioCDocument&gt; doc = reader.readDocument(&quot;8557975&quot;);
+ * reader.close();
+ * </pre>
+ * <p>
+ * The reader is thread-safe.
+ *
+ * @since 1.0.4
+ * @see BioCDocumentIndex
+ * @author Yifan Peng
+ */
+public class BioCRandomAccessDocumentReader implements Closeable {
+
+  private final FileChannel channel;
+  private final BioCDocumentIndex index;
+  private final BioCCollection collection;
+
+  /**
+   * Creates a new BioCRandomAccessDocumentReader, given the Path to read from.
+   * The index is read from the default sidecar file if it exists and is up to
+   * date, otherwise it is built by scanning the file.
+   *
+   * @param path the file path to read from
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public BioCRandomAccessDocumentReader(Path path)
+      throws FactoryConfigurationError, XMLStreamException, IOException {
+    this(path, loadIndex(path));
+  }
+
+  /**
+   * Creates a new BioCRandomAccessDocumentReader, given the Path to read from
+   * and its index.
+   *
+   * @param path the file path to read from
+   * @param index the index of the file
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public BioCRandomAccessDocumentReader(Path path, BioCDocumentIndex index)
+      throws FactoryConfigurationError, XMLStreamException, IOException {
+    this.index = index;
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+
+    BioCCursorReader reader = BioCCursorReader.newHeaderReader(
+        read(0, index.getHeaderLength()));
+    this.collection = (BioCCollection) reader.read();
+    reader.close();
+  }
+
+  private static BioCDocumentIndex loadIndex(Path path)
+      throws XMLStreamException, IOException {
+    Path indexPath = BioCDocumentIndex.getIndexPath(path);
+    if (Files.exists(indexPath)) {
+      BioCDocumentIndex index = BioCDocumentIndex.read(indexPath);
+      if (index.isUpToDate(path)) {
+        return index;
+      }
+    }
+    return BioCDocumentIndex.build(path);
+  }
+
+  private byte[] read(long offset, int length)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()) {
+      int n = channel.read(buffer, offset + buffer.position());
+      if (n < 0) {
+        throw new EOFException("Unexpected end of file at " + (offset + buffer.position()));
+      }
+    }
+    return buffer.array();
+  }
+
+  /**
+   * Closes the reader and releases any system resources associated with it.
+   */
+  @Override
+  public void close()
+      throws IOException {
+    channel.close();
+  }
+
+  /**
+   * Returns the index of the BioC file.
+   *
+   * @return the index of the BioC file
+   */
+  public BioCDocumentIndex getIndex() {
+    return index;
+  }
+
+  /**
+   * Reads the collection information: encoding, version, DTD, source, date,
+   * key, infons, etc.
+   *
+   * @return the BioC collection that contains only information
+   */
+  public BioCCollection readCollectionInfo() {
+    return collection;
+  }
+
+  /**
+   * Reads the document at the specified position in the BioC file.
+   *
+   * @param index document position in the BioC file
+   * @return the BioC document
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws IOException if an I/O exception of some sort has occurred
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public BioCDocument readDocument(int index)
+      throws XMLStreamException, IOException {
+    byte[] bytes = read(this.index.getOffset(index), this.index.getLength(index));
+    BioCReader reader = BioCCursorReader.newDocumentReader(
+        new ByteArrayInputStream(bytes), this.index.getEncoding());
+    try {
+      return (BioCDocument) reader.read();
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * Reads the document of the specified id.
+   *
+   * @param id the document id
+   * @return the BioC document of the specified id
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public Optional<BioCDocument> readDocument(String id)
+      throws XMLStreamException, IOException {
+    OptionalInt i = index.indexOf(id);
+    if (!i.isPresent()) {
+      return Optional.empty();
+    }
+    return Optional.of(readDocument(i.getAsInt()));
+  }
+}
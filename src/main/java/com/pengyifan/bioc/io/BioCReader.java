@@ -1,34 +1,29 @@
 package com.pengyifan.bioc.io;
 
+import java.io.BufferedInputStream;
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Predicate;
 
-import javax.xml.namespace.QName;
 import javax.xml.stream.FactoryConfigurationError;
-import javax.xml.stream.XMLInputFactory;
-import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.EndElement;
-import javax.xml.stream.events.StartDocument;
-import javax.xml.stream.events.StartElement;
-import javax.xml.stream.events.XMLEvent;
 
-import org.apache.commons.lang3.Validate;
 import org.codehaus.stax2.XMLEventReader2;
 import org.codehaus.stax2.XMLInputFactory2;
-import org.codehaus.stax2.evt.DTD2;
+import org.codehaus.stax2.XMLStreamReader2;
 
-import com.pengyifan.bioc.BioCAnnotation;
 import com.pengyifan.bioc.BioCCollection;
 import com.pengyifan.bioc.BioCDocument;
-import com.pengyifan.bioc.BioCLocation;
-import com.pengyifan.bioc.BioCNode;
 import com.pengyifan.bioc.BioCPassage;
-import com.pengyifan.bioc.BioCRelation;
 import com.pengyifan.bioc.BioCSentence;
 
-class BioCReader implements Closeable {
+abstract class BioCReader implements Closeable {
 
   enum Level {
     COLLECTION_LEVEL, DOCUMENT_LEVEL, PASSAGE_LEVEL, SENTENCE_LEVEL
@@ -38,290 +33,174 @@ class BioCReader implements Closeable {
   BioCDocument document;
   BioCPassage passage;
   BioCSentence sentence;
-  XMLEventReader2 reader;
-  private int state;
 
   Level level;
 
-  protected BioCReader(Reader reader, Level level)
-      throws FactoryConfigurationError, XMLStreamException {
-    XMLInputFactory2 factory = (XMLInputFactory2) XMLInputFactory2
-        .newInstance();
-    factory.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, false);
-    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
-    factory.setProperty(XMLInputFactory.IS_COALESCING, false);
-    factory.setProperty(XMLInputFactory.IS_VALIDATING, false);
-    factory.setProperty(XMLInputFactory.SUPPORT_DTD, true);
-    this.reader = (XMLEventReader2) factory.createXMLEventReader(reader);
+  private Predicate<BioCDocument> documentFilter;
+  private Set<BioCLayer> layers;
+  private boolean isDocumentChecked;
+  private boolean isDocumentAccepted;
+
+  protected BioCReader(Level level) {
     this.level = level;
-    state = 0;
+    this.documentFilter = d -> true;
+    this.layers = EnumSet.allOf(BioCLayer.class);
   }
 
-  @Override
-  public void close()
-      throws IOException {
-    try {
-      reader.close();
-    } catch (XMLStreamException e) {
-      throw new IOException(e.getMessage(), e);
-    }
+  private static BioCReader configure(BioCReader reader, BioCReaderOptions options) {
+    reader.documentFilter = options.getDocumentFilter();
+    reader.layers = options.getLayers();
+    return reader;
   }
 
-  private String getAttribute(StartElement startElement, String key) {
-    return startElement.getAttributeByName(new QName(key)).getValue();
+  /**
+   * Creates a reader of the engine given in the options.
+   */
+  static BioCReader newReader(Reader reader, Level level, BioCReaderOptions options)
+      throws FactoryConfigurationError, XMLStreamException {
+    XMLInputFactory2 factory = options.getFactories().getInputFactory();
+    switch (options.getEngine()) {
+    case EVENT:
+      return configure(new BioCEventReader(
+          (XMLEventReader2) factory.createXMLEventReader(reader), level),
+          options);
+    case CURSOR:
+      return configure(new BioCCursorReader(
+          (XMLStreamReader2) factory.createXMLStreamReader(reader), level),
+          options);
+    default:
+      throw new IllegalArgumentException("Unknown engine: " + options.getEngine());
+    }
   }
 
-  private String getText()
-      throws XMLStreamException {
-    XMLEvent event = reader.nextEvent();
-    if (event.isCharacters()) {
-      return event.asCharacters().getData();
-    } else {
-      return "";
+  /**
+   * Creates a reader of the engine given in the options over raw bytes, which
+   * are decoded by the XML parser.
+   */
+  static BioCReader newReader(InputStream in, Level level, BioCReaderOptions options)
+      throws FactoryConfigurationError, XMLStreamException {
+    XMLInputFactory2 factory = options.getFactories().getInputFactory();
+    switch (options.getEngine()) {
+    case EVENT:
+      return configure(new BioCEventReader(
+          (XMLEventReader2) factory.createXMLEventReader(in), level),
+          options);
+    case CURSOR:
+      return configure(new BioCCursorReader(
+          (XMLStreamReader2) factory.createXMLStreamReader(in), level),
+          options);
+    default:
+      throw new IllegalArgumentException("Unknown engine: " + options.getEngine());
     }
   }
 
-  protected Object read()
-      throws XMLStreamException {
-
-    String localName = null;
-
-    while (reader.hasNext()) {
-      XMLEvent event = reader.nextEvent();
-      switch (state) {
-      case 0:
-        if (event.isStartElement()) {
-          StartElement startElement = event.asStartElement();
-          localName = startElement.getName().getLocalPart();
-          if (localName.equals("collection")) {
-            state = 1;
-          }
-        } else if (event.isStartDocument()) {
-          StartDocument startDocument = (StartDocument) event;
-          collection = new BioCCollection();
-          collection.setEncoding(startDocument.getCharacterEncodingScheme());
-          collection.setVersion(startDocument.getVersion());
-          collection.setStandalone(startDocument.isStandalone());
-        } else if (event.getEventType() == XMLStreamConstants.DTD) {
-//          DTD2 dtd = (DTD2) event;
-        }
-        break;
-      case 1:
-        if (event.isStartElement()) {
-          StartElement startElement = event.asStartElement();
-          localName = startElement.getName().getLocalPart();
-          if (localName.equals("source")) {
-            collection.setSource(getText());
-          } else if (localName.equals("date")) {
-            collection.setDate(getText());
-          } else if (localName.equals("key")) {
-            collection.setKey(getText());
-          } else if (localName.equals("infon")) {
-            collection.putInfon(
-                getAttribute(startElement, "key"),
-                getText());
-          } else if (localName.equals("document")) {
-            // read document
-            document = new BioCDocument();
-            state = 2;
-          } else {
-            // blank
-          }
-        }
-        else if (event.isEndElement()) {
-          EndElement endElement = event.asEndElement();
-          localName = endElement.getName().getLocalPart();
-          if (localName.equals("collection")) {
-            sentence = null;
-            passage = null;
-            document = null;
+  /**
+   * Creates a reader of the engine given in the options over the file. If the
+   * texts are lazy, the file is mapped and parsed by the cursor engine. If the
+   * file is memory mapped, the parser reads the bytes of the mapped file.
+   */
+  static BioCReader newReader(Path path, Level level, BioCReaderOptions options)
+      throws FactoryConfigurationError, XMLStreamException, IOException {
+    boolean isLazyText = options.isLazyText() && options.getEngine() == BioCEngine.CURSOR;
+    if ((!isLazyText && !options.isMemoryMapped()) || isCompressed(path)) {
+      return newReader(BioCCodecs.newInputStream(path), level, options);
+    }
+    BioCMappedFile file = BioCMappedFile.open(path);
+    if (!isLazyText) {
+      return newReader(file.newInputStream(), level, options);
+    }
+    XMLInputFactory2 factory = options.getFactories().getInputFactory();
+    BioCCursorReader reader = new BioCCursorReader(
+        (XMLStreamReader2) factory.createXMLStreamReader(file.newReader()), level);
+    reader.mappedFile = file;
+    return configure(reader, options);
+  }
 
-            state = 0;
-          }
-          break;
-        }
-        break;
-      case 2:
-        if (event.isStartElement()) {
-          StartElement startElement = event.asStartElement();
-          localName = startElement.getName().getLocalPart();
-          if (localName.equals("id")) {
-            document.setID(getText());
-          } else if (localName.equals("infon")) {
-            document.putInfon(
-                getAttribute(startElement, "key"),
-                getText());
-          } else if (localName.equals("passage")) {
-            // read passage
-            passage = new BioCPassage();
-            state = 3;
-          } else if (localName.equals("annotation")) {
-            // read annotation
-            document.addAnnotation(readAnnotation(startElement));
-          } else if (localName.equals("relation")) {
-            // read relation
-            document.addRelation(readRelation(startElement));
-          } else {
-            // blank
-          }
-        }
-        else if (event.isEndElement()) {
-          EndElement endElement = event.asEndElement();
-          localName = endElement.getName().getLocalPart();
-          if (localName.equals("document")) {
-            state = 1;
-            if (level == Level.DOCUMENT_LEVEL) {
-              return document;
-            } else if (document != null) {
-              collection.addDocument(document);
-            }
-          }
-          break;
-        }
-        break;
-      case 3:
-        if (event.isStartElement()) {
-          StartElement startElement = event.asStartElement();
-          localName = startElement.getName().getLocalPart();
-          if (localName.equals("offset")) {
-            passage.setOffset(Integer.parseInt(getText()));
-          } else if (localName.equals("text")) {
-            passage.setText(getText());
-          } else if (localName.equals("infon")) {
-            passage.putInfon(
-                getAttribute(startElement, "key"),
-                getText());
-          } else if (localName.equals("annotation")) {
-            passage.addAnnotation(readAnnotation(startElement));
-          } else if (localName.equals("relation")) {
-            passage.addRelation(readRelation(startElement));
-          } else if (localName.equals("sentence")) {
-            // read sentence
-            sentence = new BioCSentence();
-            state = 4;
-          } else {
-            // blank
-          }
-        }
-        else if (event.isEndElement()) {
-          EndElement endElement = event.asEndElement();
-          localName = endElement.getName().getLocalPart();
-          if (localName.equals("passage")) {
-            state = 2;
-            if (level == Level.PASSAGE_LEVEL) {
-              return passage;
-            } else if (passage != null) {
-              document.addPassage(passage);
-            }
-          }
-          break;
-        }
-        break;
-      case 4:
-        if (event.isStartElement()) {
-          StartElement startElement = event.asStartElement();
-          localName = startElement.getName().getLocalPart();
-          if (localName.equals("offset")) {
-            sentence.setOffset(Integer.parseInt(getText()));
-          } else if (localName.equals("text")) {
-            sentence.setText(getText());
-          } else if (localName.equals("infon")) {
-            sentence.putInfon(
-                getAttribute(startElement, "key"),
-                getText());
-          } else if (localName.equals("annotation")) {
-            sentence.addAnnotation(readAnnotation(startElement));
-          } else if (localName.equals("relation")) {
-            sentence.addRelation(readRelation(startElement));
-          } else {
-            // blank
-          }
-        }
-        else if (event.isEndElement()) {
-          EndElement endElement = event.asEndElement();
-          localName = endElement.getName().getLocalPart();
-          if (localName.equals("sentence")) {
-            state = 3;
-            if (level == Level.SENTENCE_LEVEL) {
-              return sentence;
-            } else if (sentence != null) {
-              passage.addSentence(sentence);
-            }
-          }
-          break;
-        }
-      }
+  /**
+   * Opens the bytes of the file. A compressed file is decompressed. An
+   * uncompressed file is mapped into memory if asked for, and read by read
+   * calls otherwise.
+   */
+  static InputStream newInputStream(Path path, boolean isMemoryMapped)
+      throws IOException {
+    if (!isMemoryMapped || isCompressed(path)) {
+      return BioCCodecs.newInputStream(path);
     }
-    return collection;
+    return BioCMappedFile.open(path).newInputStream();
   }
 
-  private BioCAnnotation readAnnotation(StartElement annotationEvent)
-      throws XMLStreamException {
-    BioCAnnotation ann = new BioCAnnotation();
-    ann.setID(getAttribute(annotationEvent, "id"));
+  private static boolean isCompressed(Path path)
+      throws IOException {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+      return BioCCodecs.detect(in).isPresent();
+    }
+  }
 
-    String localName = null;
+  /**
+   * Starts a new document, whose filter is not evaluated yet.
+   */
+  void newDocument() {
+    document = new BioCDocument();
+    isDocumentChecked = false;
+  }
 
-    while (reader.hasNext()) {
-      XMLEvent event = reader.nextEvent();
-      if (event.isStartElement()) {
-        StartElement startElement = event.asStartElement();
-        localName = startElement.getName().getLocalPart();
-        if (localName.equals("text")) {
-          ann.setText(getText());
-        } else if (localName.equals("infon")) {
-          ann.putInfon(
-              startElement.getAttributeByName(new QName("key")).getValue(),
-              getText());
-        } else if (localName.equals("location")) {
-          ann.addLocation(new BioCLocation(
-              Integer.parseInt(getAttribute(startElement, "offset")),
-              Integer.parseInt(getAttribute(startElement, "length"))));
-        }
-      }
-      else if (event.isEndElement()) {
-        EndElement endElement = event.asEndElement();
-        localName = endElement.getName().getLocalPart();
-        if (localName.equals("annotation")) {
-          return ann;
-        }
-      }
+  /**
+   * Returns true if the current document passes the document filter. The
+   * filter is evaluated once per document, when the first element after the
+   * id and infons, or the end of the document, is read. A document that does
+   * not pass is skipped without building its passages, annotations and
+   * relations.
+   */
+  boolean acceptDocument() {
+    if (!isDocumentChecked) {
+      isDocumentChecked = true;
+      isDocumentAccepted = documentFilter.test(document);
     }
-    Validate.isTrue(false, "should not reach here");
-    return null;
+    return isDocumentAccepted;
   }
 
-  private BioCRelation readRelation(StartElement relationEvent)
-      throws XMLStreamException {
-    BioCRelation rel = new BioCRelation();
-    rel.setID(getAttribute(relationEvent, "id"));
-
-    String localName = null;
+  /**
+   * Returns true if the layer is read.
+   */
+  boolean isRead(BioCLayer layer) {
+    return layers.contains(layer);
+  }
 
-    while (reader.hasNext()) {
-      XMLEvent event = reader.nextEvent();
-      if (event.isStartElement()) {
-        StartElement startElement = event.asStartElement();
-        localName = startElement.getName().getLocalPart();
-        if (localName.equals("infon")) {
-          rel.putInfon(
-              getAttribute(startElement, "key"),
-              getText());
-        } else if (localName.equals("node")) {
-          BioCNode node = new BioCNode(getAttribute(startElement, "refid"),
-              getAttribute(startElement, "role"));
-          rel.addNode(node);
-        }
-      }
-      else if (event.isEndElement()) {
-        EndElement endElement = event.asEndElement();
-        localName = endElement.getName().getLocalPart();
-        if (localName.equals("relation")) {
-          return rel;
-        }
-      }
+  /**
+   * Returns true if the child element of a document, passage or sentence
+   * belongs to a layer that is not read.
+   */
+  boolean isSkipped(String localName) {
+    switch (localName) {
+    case "text":
+      return !isRead(BioCLayer.TEXT);
+    case "infon":
+      return !isRead(BioCLayer.INFONS);
+    case "annotation":
+      return !isRead(BioCLayer.ANNOTATIONS);
+    case "relation":
+      return !isRead(BioCLayer.RELATIONS);
+    case "sentence":
+      return !isRead(BioCLayer.SENTENCES);
+    default:
+      return false;
     }
-    Validate.isTrue(false, "should not reach here");
-    return null;
   }
+
+  /**
+   * Returns true if completed objects of the given level are added to their
+   * parents. Objects at or below the reader's level are returned to the
+   * caller instead, so that they are not kept in memory.
+   */
+  boolean isRetained(Level objectLevel) {
+    return level.compareTo(objectLevel) < 0;
+  }
+
+  /**
+   * Reads until the next object of the reader's level is completed.
+   *
+   * @return the completed object, or the collection at the end of the file
+   */
+  protected abstract Object read()
+      throws XMLStreamException;
 }
@@ -0,0 +1,210 @@
+package com.pengyifan.bioc.io;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import com.pengyifan.bioc.BioCDocument;
+
+/**
+ * Options of {@link BioCDocumentReader}, {@link BioCCollectionReader},
+ * {@link BioCPassageReader} and {@link BioCSentenceReader}. For example,
+ * <p>
+ * <pre>
+ * BioCReaderOptions options = new BioCReaderOptions();
+ * options.setEngine(BioCEngine.EVENT);
+ * BioCDocumentReader reader = new BioCDocumentReader(in, options);
+ * </pre>
+ *
+ * @since 1.0.4
+ * @author Yifan Peng
+ */
+public class BioCReaderOptions {
+
+  private BioCEngine engine;
+  private BioCXMLFactories factories;
+  private Predicate<BioCDocument> documentFilter;
+  private Set<BioCLayer> layers;
+  private boolean isLazyText;
+  private boolean isMemoryMapped;
+
+  /**
+   * Constructs the default options.
+   * <ul>
+   * <li>engine: cursor</li>
+   * <li>factories: the default factories</li>
+   * <li>document filter: all documents are read</li>
+   * <li>layers: all layers are read</li>
+   * <li>lazy text: false</li>
+   * <li>memory mapped: false</li>
+   * </ul>
+   */
+  public BioCReaderOptions() {
+    setEngine(BioCEngine.CURSOR);
+    setDocumentFilter(d -> true);
+    setLayers(EnumSet.allOf(BioCLayer.class));
+  }
+
+  /**
+   * Returns the predicate that documents have to pass to be read.
+   *
+   * @return the document filter
+   */
+  public Predicate<BioCDocument> getDocumentFilter() {
+    return documentFilter;
+  }
+
+  /**
+   * Returns the StAX engine used to parse the BioC file.
+   *
+   * @return the StAX engine used to parse the BioC file
+   */
+  public BioCEngine getEngine() {
+    return engine;
+  }
+
+  /**
+   * Returns the StAX factories used to parse the BioC file.
+   *
+   * @return the factories set in the options, or the default factories if
+   *         none is set
+   */
+  public BioCXMLFactories getFactories() {
+    return factories == null ? BioCXMLFactories.getDefault() : factories;
+  }
+
+  /**
+   * Returns the layers that are read.
+   *
+   * @return the layers that are read
+   */
+  public Set<BioCLayer> getLayers() {
+    return Collections.unmodifiableSet(layers);
+  }
+
+  /**
+   * Returns true if the texts of passages, sentences and annotations are
+   * decoded from the file when they are first needed.
+   *
+   * @return true if the texts are lazy
+   */
+  public boolean isLazyText() {
+    return isLazyText;
+  }
+
+  /**
+   * Returns true if a file is mapped into memory and parsed from the mapped
+   * pages.
+   *
+   * @return true if the file is mapped into memory
+   */
+  public boolean isMemoryMapped() {
+    return isMemoryMapped;
+  }
+
+  /**
+   * Sets the predicate that documents have to pass to be read. The predicate
+   * is tested on a document that contains only its id and infons, as soon as
+   * they are read. The rest of a document that does not pass is skipped
+   * without building any passage, sentence, annotation or relation. For
+   * example,
+   * <p>
+   * <pre>
+   * options.setDocumentFilter(d -&gt; ids.contains(d.getID()));
+   * </pre>
+   *
+   * @param documentFilter the document filter
+   */
+  public void setDocumentFilter(Predicate<BioCDocument> documentFilter) {
+    checkNotNull(documentFilter, "documentFilter cannot be null");
+    this.documentFilter = documentFilter;
+  }
+
+  /**
+   * Sets whether the texts of passages, sentences and annotations are decoded
+   * from the file when they are first needed, e.g., by {@code getText()}. The
+   * file is mapped into memory, and each text is held as a range of the file
+   * until then, so that texts that are never used are never decoded nor
+   * copied. For example,
+   * <p>
+   * <pre>
+   * options.setLazyText(true);
+   * BioCDocumentReader reader = new BioCDocumentReader(path, options);
+   * </pre>
+   * <p>
+   * Texts are lazy only if an uncompressed file is read by the cursor engine
+   * from a {@link java.nio.file.Path}; otherwise, the option has no effect.
+   * Texts that contain entity references other than the predefined ones
+   * cannot be lazy.
+   *
+   * @param isLazyText true if the texts are lazy
+   */
+  public void setLazyText(boolean isLazyText) {
+    this.isLazyText = isLazyText;
+  }
+
+  /**
+   * Sets whether a file is mapped into memory, in windows of 1 GB, and parsed
+   * straight from the mapped pages instead of being copied by read calls. This
+   * is faster for large files that are read once. For example,
+   * <p>
+   * <pre>
+   * options.setMemoryMapped(true);
+   * BioCDocumentReader reader = new BioCDocumentReader(path, options);
+   * </pre>
+   * <p>
+   * A file is mapped only if it is uncompressed and read from a
+   * {@link java.nio.file.Path}; otherwise, the option has no effect. The
+   * mapping is released when it is garbage collected, not when the reader is
+   * closed. Lazy texts always use a mapped file.
+   *
+   * @param isMemoryMapped true if the file is mapped into memory
+   */
+  public void setMemoryMapped(boolean isMemoryMapped) {
+    this.isMemoryMapped = isMemoryMapped;
+  }
+
+  /**
+   * Sets the layers that are read. The elements of the other layers are
+   * skipped without building any object. For example, to read only the
+   * annotations and relations,
+   * <p>
+   * <pre>
+   * options.setLayers(EnumSet.of(BioCLayer.ANNOTATIONS, BioCLayer.RELATIONS));
+   * </pre>
+   * <p>
+   * If {@link BioCLayer#INFONS} is not read, the document filter does not see
+   * the infons of documents. If {@link BioCLayer#SENTENCES} is not read, a
+   * {@link BioCSentenceReader} returns no sentence.
+   *
+   * @param layers the layers that are read
+   */
+  public void setLayers(Set<BioCLayer> layers) {
+    checkNotNull(layers, "layers cannot be null");
+    this.layers = layers.isEmpty() ? EnumSet.noneOf(BioCLayer.class) : EnumSet.copyOf(layers);
+  }
+
+  /**
+   * Sets the StAX engine used to parse the BioC file.
+   *
+   * @param engine the StAX engine used to parse the BioC file
+   */
+  public void setEngine(BioCEngine engine) {
+    checkNotNull(engine, "engine cannot be null");
+    this.engine = engine;
+  }
+
+  /**
+   * Sets the StAX factories used to parse the BioC file, instead of the
+   * default ones.
+   *
+   * @param factories the StAX factories
+   */
+  public void setFactories(BioCXMLFactories factories) {
+    checkNotNull(factories, "factories cannot be null");
+    this.factories = factories;
+  }
+}
@@ -0,0 +1,290 @@
+package com.pengyifan.bioc.io;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Path;
+
+import javax.xml.stream.FactoryConfigurationError;
+import javax.xml.stream.XMLStreamException;
+
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+import com.pengyifan.bioc.BioCPassage;
+import com.pengyifan.bioc.BioCSentence;
+import com.pengyifan.bioc.io.BioCReader.Level;
+
+/**
+ * Reads the BioC file sequentially into BioCSentence every time the method
+ * {@link #readSentence} is called. Sentences are not kept in their passages,
+ * nor passages in their documents, so the memory is bounded by the largest
+ * sentence. For example,
+ * <p>
+ * <pre>
+ * BioCSentenceReader reader = new BioCSentenceReader(&quot;foo.xml&quot;);
+ * BioCCollection collection = reader.readCollectionInfo();
+ * BioCSentence sentence = null;
+ * while ((sentence = reader.readSentence()) != null) {
+ *   BioCPassage passage = reader.getPassageInfo();
+ *   BioCDocument document = reader.getDocumentInfo();
+ *   ...
+ * }
+ * reader.close();
+ * </pre>
+ *
+ * @since 1.0.4
+ * @see BioCDocumentReader
+ * @see BioCPassageReader
+ * @author Yifan Peng
+ */
+public class BioCSentenceReader implements Closeable {
+
+  private BioCReader reader;
+  private BioCSentence nextSentence;
+  private BioCPassage nextPassage;
+  private BioCDocument nextDocument;
+  private BioCPassage passage;
+  private BioCDocument document;
+
+  /**
+   * Creates a new BioCSentenceReader, given the File to read from.
+   *
+   * @param file the File to read from
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws FileNotFoundException if the file does not exist, is a directory
+   *           rather than a regular file, or for some other reason cannot be
+   *           opened for reading.
+   */
+  public BioCSentenceReader(File file)
+      throws FactoryConfigurationError, XMLStreamException,
+      FileNotFoundException {
+    this(new FileInputStream(file));
+  }
+
+  /**
+   * Creates a new BioCSentenceReader, given the Path to read from. A compressed file
+   * is decompressed transparently.
+   *
+   * @param path the file path to read from
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws IOException if an I/O exception of some sort has occurred
+   */
+  public BioCSentenceReader(Path path)
+      throws FactoryConfigurationError, XMLStreamException,
+      IOException {
+    this(path, new BioCReaderOptions());
+  }
+
+  /**
+   * Creates a new BioCSentenceReader, given the Path to read from, and parses it
+   * with the specified options. A compressed file is decompressed
+   * transparently.
+   *
+   * @param path the file path to read from
+   * @param options the options of the reader, such as engine and lazy text
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws IOException if an I/O exception of some sort has occurred
+   * @since 1.0.4
+   */
+  public BioCSentenceReader(Path path, BioCReaderOptions options)
+      throws FactoryConfigurationError, XMLStreamException,
+      IOException {
+    this(BioCReader.newReader(path, Level.SENTENCE_LEVEL, options));
+  }
+
+  /**
+   * Creates an BioCSentenceReader that uses the input stream in.
+   *
+   * @param in an InputStream
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   */
+  public BioCSentenceReader(InputStream in)
+      throws FactoryConfigurationError, XMLStreamException {
+    this(in, BioCEngine.CURSOR);
+  }
+
+  /**
+   * Creates an BioCSentenceReader that uses the reader in.
+   *
+   * @param in a Reader
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   */
+  public BioCSentenceReader(Reader in)
+      throws FactoryConfigurationError, XMLStreamException {
+    this(in, BioCEngine.CURSOR);
+  }
+
+  /**
+   * Creates an BioCSentenceReader that uses the reader in and parses it with
+   * the specified engine.
+   *
+   * @param in a Reader
+   * @param engine the StAX engine used to parse the BioC file
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   */
+  public BioCSentenceReader(Reader in, BioCEngine engine)
+      throws FactoryConfigurationError, XMLStreamException {
+    this(in, newOptions(engine));
+  }
+
+  /**
+   * Creates a BioCSentenceReader that uses the reader in and parses it with the
+   * specified options.
+   *
+   * @param in a Reader
+   * @param options the options of the reader, such as engine and factories
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @since 1.0.4
+   */
+  public BioCSentenceReader(Reader in, BioCReaderOptions options)
+      throws FactoryConfigurationError, XMLStreamException {
+    this(BioCReader.newReader(in, Level.SENTENCE_LEVEL, options));
+  }
+
+  /**
+   * Creates a BioCSentenceReader that uses the input stream in and parses it with
+   * the specified engine. The bytes are decoded by the XML parser, using the
+   * encoding in the XML declaration.
+   *
+   * @param in an InputStream
+   * @param engine the StAX engine used to parse the BioC file
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   */
+  public BioCSentenceReader(InputStream in, BioCEngine engine)
+      throws FactoryConfigurationError, XMLStreamException {
+    this(in, newOptions(engine));
+  }
+
+  /**
+   * Creates a BioCSentenceReader that uses the input stream in and parses it with
+   * the specified options.
+   *
+   * @param in an InputStream
+   * @param options the options of the reader, such as engine and factories
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @since 1.0.4
+   */
+  public BioCSentenceReader(InputStream in, BioCReaderOptions options)
+      throws FactoryConfigurationError, XMLStreamException {
+    this(BioCReader.newReader(in, Level.SENTENCE_LEVEL, options));
+  }
+
+  private static BioCReaderOptions newOptions(BioCEngine engine) {
+    BioCReaderOptions options = new BioCReaderOptions();
+    options.setEngine(engine);
+    return options;
+  }
+
+  private BioCSentenceReader(BioCReader reader)
+      throws XMLStreamException {
+    this.reader = reader;
+    advance();
+  }
+
+  /**
+   * Creates a new BioCSentenceReader, given the name of the file to read from.
+   *
+   * @param fileName the name of the file to read from
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   * @throws XMLStreamException if an unexpected processing error occurs
+   * @throws FileNotFoundException if the file does not exist, is a directory
+   *           rather than a regular file, or for some other reason cannot be
+   *           opened for reading.
+   */
+  public BioCSentenceReader(String fileName)
+      throws FactoryConfigurationError, XMLStreamException,
+      FileNotFoundException {
+    this(new FileInputStream(fileName));
+  }
+
+  private void advance()
+      throws XMLStreamException {
+    Object obj = reader.read();
+    if (obj instanceof BioCSentence) {
+      nextSentence = (BioCSentence) obj;
+      nextPassage = reader.passage;
+      nextDocument = reader.document;
+    } else {
+      nextSentence = null;
+      nextPassage = null;
+      nextDocument = null;
+    }
+  }
+
+  /**
+   * Closes the reader and releases any system resources associated with it.
+   * Once the reader has been closed, further readSentence() invocations will
+   * throw an IOException. Closing a previously closed reader has no effect.
+   */
+  @Override
+  public void close()
+      throws IOException {
+    reader.close();
+  }
+
+  /**
+   * Reads the collection information: encoding, version, DTD, source, date,
+   * key, infons, etc.
+   *
+   * @return the BioC collection that contains only information
+   * @throws XMLStreamException if an unexpected processing error occurs
+   */
+  public BioCCollection readCollectionInfo()
+      throws XMLStreamException {
+    return reader.collection;
+  }
+
+  /**
+   * Returns the passage that encloses the sentence last returned by
+   * {@link #readSentence}. The passage contains its offset, infons and text
+   * if present, but no sentences.
+   *
+   * @return the enclosing passage, or null if no sentence has been read
+   */
+  public BioCPassage getPassageInfo() {
+    return passage;
+  }
+
+  /**
+   * Returns the document that encloses the sentence last returned by
+   * {@link #readSentence}. The document contains its id and infons, but no
+   * passages.
+   *
+   * @return the enclosing document, or null if no sentence has been read
+   */
+  public BioCDocument getDocumentInfo() {
+    return document;
+  }
+
+  /**
+   * Reads one BioC sentence from the XML file.
+   *
+   * @return the BioC sentence
+   * @throws XMLStreamException if an unexpected processing error occurs
+   */
+  public BioCSentence readSentence()
+      throws XMLStreamException {
+    if (nextSentence != null) {
+      BioCSentence thisSentence = nextSentence;
+      passage = nextPassage;
+      document = nextDocument;
+      advance();
+      return thisSentence;
+    } else {
+      return null;
+    }
+  }
+}
@@ -9,43 +9,34 @@ import com.pengyifan.bioc.BioCPassage;
 import com.pengyifan.bioc.BioCRelation;
 import com.pengyifan.bioc.BioCSentence;
 import java.io.Closeable;
-import java.io.IOException;
 import java.io.Writer;
 import java.util.Map;
 import java.util.Map.Entry;
-import javanet.staxutils.IndentingXMLEventWriter;
-import javax.xml.namespace.QName;
 import javax.xml.stream.FactoryConfigurationError;
-import javax.xml.stream.XMLEventWriter;
-import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
-import org.codehaus.stax2.evt.XMLEventFactory2;
 
-class BioCWriter implements Closeable {
+abstract class BioCWriter implements Closeable {
 
-  XMLEventWriter writer;
-  XMLEventFactory2 eventFactory = (XMLEventFactory2) XMLEventFactory2.newInstance();
-
-  protected BioCWriter(Writer writer)
+  /**
+   * Creates a writer of the engine given in the options.
+   */
+  static BioCWriter newWriter(Writer writer, BioCWriterOptions options)
       throws FactoryConfigurationError, XMLStreamException {
-    XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newInstance();
-    this.writer = new IndentingXMLEventWriter(xmlOutputFactory.createXMLEventWriter(writer));
-  }
-
-  @Override
-  public void close()
-      throws IOException {
-    try {
-      writer.flush();
-      writer.close();
-    } catch (XMLStreamException e) {
-      throw new IOException(e.getMessage());
+    switch (options.getEngine()) {
+    case EVENT:
+      return new BioCEventWriter(writer, options);
+    case CURSOR:
+      return new BioCCursorWriter(writer, options);
+    default:
+      throw new IllegalArgumentException("Unknown engine: " + options.getEngine());
     }
   }
 
-  private QName getElement(String localPart) {
-    return new QName(localPart);
-  }
+  /**
+   * Flushes any buffered output to the underlying writer.
+   */
+  protected abstract BioCWriter flush()
+      throws XMLStreamException;
 
   protected final BioCWriter write(BioCAnnotation annotation)
       throws XMLStreamException {
@@ -202,11 +193,8 @@ class BioCWriter implements Closeable {
     return writeAttribute(key, Integer.toString(value));
   }
 
-  private BioCWriter writeAttribute(String key, String value)
-      throws XMLStreamException {
-    writer.add(eventFactory.createAttribute(key, value));
-    return this;
-  }
+  protected abstract BioCWriter writeAttribute(String key, String value)
+      throws XMLStreamException;
 
   protected final BioCWriter
       writeBeginCollectionInfo(BioCCollection collection)
@@ -228,43 +216,25 @@ class BioCWriter implements Closeable {
         .write(collection.getInfons());
   }
 
-  private BioCWriter writeCharacters(String text)
-      throws XMLStreamException {
-    writer.add(eventFactory.createCharacters(text));
-    return this;
-  }
+  protected abstract BioCWriter writeCharacters(String text)
+      throws XMLStreamException;
 
   protected final BioCWriter writeEndCollection()
       throws XMLStreamException {
     return writeEndElement("collection");
   }
 
-  protected BioCWriter writeEndDocument()
-      throws XMLStreamException {
-    writer.add(eventFactory.createEndDocument());
-    return this;
-  }
+  protected abstract BioCWriter writeEndDocument()
+      throws XMLStreamException;
 
-  private BioCWriter writeEndElement(String localPart)
-      throws XMLStreamException {
-    writer.add(eventFactory.createEndElement(getElement(localPart), null));
-    return this;
-  }
+  protected abstract BioCWriter writeEndElement(String localPart)
+      throws XMLStreamException;
 
-  protected BioCWriter writeStartDocument(String encoding,
+  protected abstract BioCWriter writeStartDocument(String encoding,
       String version,
       boolean standalone)
-      throws XMLStreamException {
-    writer.add(eventFactory.createStartDocument(encoding, version, standalone));
-    return this;
-  }
+      throws XMLStreamException;
 
-  private BioCWriter writeStartElement(String localPart)
-      throws XMLStreamException {
-    writer.add(eventFactory.createStartElement(
-        getElement(localPart),
-        null,
-        null));
-    return this;
-  }
+  protected abstract BioCWriter writeStartElement(String localPart)
+      throws XMLStreamException;
 }
@@ -0,0 +1,140 @@
+package com.pengyifan.bioc.io;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Options of {@link BioCDocumentWriter} and {@link BioCCollectionWriter}. For
+ * example, to write a file without indentation,
+ * <p>
+ * <pre>
+ * BioCWriterOptions options = new BioCWriterOptions();
+ * options.setCompact(true);
+ * BioCCollectionWriter writer = new BioCCollectionWriter(out, options);
+ * </pre>
+ *
+ * @since 1.0.4
+ * @author Yifan Peng
+ */
+public class BioCWriterOptions {
+
+  private BioCEngine engine;
+  private BioCXMLFactories factories;
+  private boolean compact;
+  private String indent;
+  private String newLine;
+
+  /**
+   * Constructs the default options.
+   * <ul>
+   * <li>engine: cursor</li>
+   * <li>compact: false</li>
+   * <li>indent: two spaces</li>
+   * <li>new line: \n</li>
+   * <li>factories: the default factories</li>
+   * </ul>
+   */
+  public BioCWriterOptions() {
+    setEngine(BioCEngine.CURSOR);
+    setCompact(false);
+    setIndent("  ");
+    setNewLine("\n");
+  }
+
+  /**
+   * Returns the StAX engine used to write the BioC file.
+   *
+   * @return the StAX engine used to write the BioC file
+   */
+  public BioCEngine getEngine() {
+    return engine;
+  }
+
+  /**
+   * Returns the StAX factories used to write the BioC file.
+   *
+   * @return the factories set in the options, or the default factories if
+   *         none is set
+   */
+  public BioCXMLFactories getFactories() {
+    return factories == null ? BioCXMLFactories.getDefault() : factories;
+  }
+
+  /**
+   * Returns the string written once per nesting level before each element.
+   *
+   * @return the indentation string
+   */
+  public String getIndent() {
+    return indent;
+  }
+
+  /**
+   * Returns the line separator written before each element.
+   *
+   * @return the line separator
+   */
+  public String getNewLine() {
+    return newLine;
+  }
+
+  /**
+   * Returns true if no whitespace is written between elements.
+   *
+   * @return true if the output is compact
+   */
+  public boolean isCompact() {
+    return compact;
+  }
+
+  /**
+   * Sets whether whitespace is written between elements. Compact output is
+   * smaller and faster to write; the indent and new line are ignored.
+   *
+   * @param compact true if no whitespace is written between elements
+   */
+  public void setCompact(boolean compact) {
+    this.compact = compact;
+  }
+
+  /**
+   * Sets the StAX engine used to write the BioC file.
+   *
+   * @param engine the StAX engine used to write the BioC file
+   */
+  public void setEngine(BioCEngine engine) {
+    checkNotNull(engine, "engine cannot be null");
+    this.engine = engine;
+  }
+
+  /**
+   * Sets the StAX factories used to write the BioC file, instead of the
+   * default ones.
+   *
+   * @param factories the StAX factories
+   */
+  public void setFactories(BioCXMLFactories factories) {
+    checkNotNull(factories, "factories cannot be null");
+    this.factories = factories;
+  }
+
+  /**
+   * Sets the string written once per nesting level before each element, e.g.,
+   * two spaces or a tab.
+   *
+   * @param indent the indentation string
+   */
+  public void setIndent(String indent) {
+    checkNotNull(indent, "indent cannot be null");
+    this.indent = indent;
+  }
+
+  /**
+   * Sets the line separator written before each element.
+   *
+   * @param newLine the line separator
+   */
+  public void setNewLine(String newLine) {
+    checkNotNull(newLine, "newLine cannot be null");
+    this.newLine = newLine;
+  }
+}
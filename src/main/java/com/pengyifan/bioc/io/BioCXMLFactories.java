@@ -0,0 +1,152 @@
+package com.pengyifan.bioc.io;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import javax.xml.stream.FactoryConfigurationError;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+
+import org.codehaus.stax2.XMLInputFactory2;
+import org.codehaus.stax2.evt.XMLEventFactory2;
+
+/**
+ * The StAX factories used by BioC readers and writers. Looking up and
+ * configuring a factory is much more expensive than creating a reader or
+ * writer from it, so the factories are created once and shared. For example,
+ * to use custom factories for all readers and writers,
+ * <p>
+ * <pre>
+ * XMLInputFactory2 inputFactory = BioCXMLFactories.newInputFactory();
+ * inputFactory.setProperty(...);
+ * BioCXMLFactories.setDefault(new BioCXMLFactories(inputFactory,
+ *     XMLOutputFactory.newInstance(),
+ *     (XMLEventFactory2) XMLEventFactory2.newInstance()));
+ * </pre>
+ * <p>
+ * The factories can also be set per reader or writer in
+ * {@link BioCReaderOptions} and {@link BioCWriterOptions}. Creating readers
+ * and writers is thread-safe, as long as the factories are not reconfigured
+ * after they are shared.
+ *
+ * @since 1.0.4
+ * @author Yifan Peng
+ */
+public class BioCXMLFactories {
+
+  private static volatile BioCXMLFactories defaultFactories;
+
+  private final XMLInputFactory2 inputFactory;
+  private final XMLOutputFactory outputFactory;
+  private final XMLEventFactory2 eventFactory;
+
+  /**
+   * Creates new factories configured for BioC files.
+   *
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   */
+  public BioCXMLFactories()
+      throws FactoryConfigurationError {
+    this(newInputFactory(),
+        XMLOutputFactory.newInstance(),
+        (XMLEventFactory2) XMLEventFactory2.newInstance());
+  }
+
+  /**
+   * Creates the factories with the given ones.
+   *
+   * @param inputFactory the factory of readers
+   * @param outputFactory the factory of writers
+   * @param eventFactory the factory of events used by the event writer
+   */
+  public BioCXMLFactories(XMLInputFactory2 inputFactory, XMLOutputFactory outputFactory,
+      XMLEventFactory2 eventFactory) {
+    checkNotNull(inputFactory, "inputFactory cannot be null");
+    checkNotNull(outputFactory, "outputFactory cannot be null");
+    checkNotNull(eventFactory, "eventFactory cannot be null");
+    this.inputFactory = inputFactory;
+    this.outputFactory = outputFactory;
+    this.eventFactory = eventFactory;
+  }
+
+  /**
+   * Returns the factories shared by all readers and writers whose options do
+   * not specify any. They are created on the first call.
+   *
+   * @return the default factories
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   */
+  public static BioCXMLFactories getDefault()
+      throws FactoryConfigurationError {
+    BioCXMLFactories factories = defaultFactories;
+    if (factories == null) {
+      synchronized (BioCXMLFactories.class) {
+        factories = defaultFactories;
+        if (factories == null) {
+          factories = new BioCXMLFactories();
+          defaultFactories = factories;
+        }
+      }
+    }
+    return factories;
+  }
+
+  /**
+   * Sets the factories shared by all readers and writers whose options do not
+   * specify any.
+   *
+   * @param factories the default factories
+   */
+  public static void setDefault(BioCXMLFactories factories) {
+    checkNotNull(factories, "factories cannot be null");
+    defaultFactories = factories;
+  }
+
+  /**
+   * Creates a new input factory configured for BioC files: entity references
+   * are not replaced, external entities and validation are disabled, the DTD
+   * is reported, and the input is closed with the reader.
+   *
+   * @return a new input factory
+   * @throws FactoryConfigurationError if a factory configuration error occurs
+   */
+  public static XMLInputFactory2 newInputFactory()
+      throws FactoryConfigurationError {
+    XMLInputFactory2 factory = (XMLInputFactory2) XMLInputFactory2
+        .newInstance();
+    factory.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+    factory.setProperty(XMLInputFactory.IS_VALIDATING, false);
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, true);
+    // closes the underlying reader, e.g., to release a decompressor
+    factory.setProperty(XMLInputFactory2.P_AUTO_CLOSE_INPUT, true);
+    return factory;
+  }
+
+  /**
+   * Returns the factory of readers.
+   *
+   * @return the factory of readers
+   */
+  public XMLInputFactory2 getInputFactory() {
+    return inputFactory;
+  }
+
+  /**
+   * Returns the factory of writers.
+   *
+   * @return the factory of writers
+   */
+  public XMLOutputFactory getOutputFactory() {
+    return outputFactory;
+  }
+
+  /**
+   * Returns the factory of events used by the event writer.
+   *
+   * @return the factory of events
+   */
+  public XMLEventFactory2 getEventFactory() {
+    return eventFactory;
+  }
+}
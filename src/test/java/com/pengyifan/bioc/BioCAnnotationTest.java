@@ -6,7 +6,15 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -103,6 +111,25 @@ public class BioCAnnotationTest {
     assertFalse(base.getText().isPresent());
   }
 
+  @Test
+  public void test_lazyText() {
+    int[] calls = new int[1];
+    base.setLazyText(() -> {
+      calls[0]++;
+      return TEXT_2;
+    });
+    BioCAnnotation copy = new BioCAnnotation(base);
+    assertEquals(0, calls[0]);
+    assertEquals(TEXT_2, base.getText().get());
+    assertEquals(TEXT_2, base.getText().get());
+    assertEquals(1, calls[0]);
+    assertEquals(base, copy);
+
+    base.setLazyText(() -> TEXT);
+    base.setText(null);
+    assertFalse(base.getText().isPresent());
+  }
+
   @Test
   public void test_clearLocations() {
     base.clearLocations();
@@ -138,4 +165,102 @@ public class BioCAnnotationTest {
     List<BioCLocation> actual = Lists.newArrayList(base.locationIterator());
     assertThat(actual, contains(LOC_1, LOC_2));
   }
+
+  @Test
+  public void test_totalLocation() {
+    BioCAnnotation annotation = new BioCAnnotation("A1");
+    annotation.addLocation(new BioCLocation(5, 3));
+    assertEquals(new BioCLocation(5, 3), annotation.getTotalLocation());
+    annotation.addLocation(new BioCLocation(0, 2));
+    annotation.addLocation(new BioCLocation(6, 10));
+    assertEquals(new BioCLocation(0, 16), annotation.getTotalLocation());
+    annotation.getLocations().remove(new BioCLocation(6, 10));
+    assertEquals(new BioCLocation(0, 8), annotation.getTotalLocation());
+    for (int i = 0; i < 20; i++) {
+      annotation.addLocation(new BioCLocation(100 + i * 2, 1));
+    }
+    assertEquals(new BioCLocation(0, 139), annotation.getTotalLocation());
+
+    annotation.clearLocations();
+    thrown.expect(IllegalArgumentException.class);
+    annotation.getTotalLocation();
+  }
+
+  @Test
+  public void test_coalescedLocations() {
+    BioCAnnotation annotation = new BioCAnnotation("A1");
+    assertTrue(annotation.getCoalescedLocations().isEmpty());
+    annotation.addLocation(new BioCLocation(5, 3));
+    annotation.addLocation(new BioCLocation(0, 3));
+    annotation.addLocation(new BioCLocation(2, 2));
+    annotation.addLocation(new BioCLocation(8, 1));
+    annotation.addLocation(new BioCLocation(20, 1));
+    assertEquals(Arrays.asList(new BioCLocation(0, 4), new BioCLocation(5, 4),
+        new BioCLocation(20, 1)), annotation.getCoalescedLocations());
+    annotation.addLocation(new BioCLocation(4, 1));
+    assertEquals(Arrays.asList(new BioCLocation(0, 9), new BioCLocation(20, 1)),
+        annotation.getCoalescedLocations());
+  }
+
+  @Test
+  public void test_concurrentLocations()
+      throws Exception {
+    int threads = 4;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      for (int i = 0; i < 200; i++) {
+        BioCAnnotation annotation = new BioCAnnotation("A" + i);
+        for (int j = 0; j < i % 20; j++) {
+          annotation.addLocation(new BioCLocation(i + j * 3, 2));
+        }
+        annotation.addLocation(new BioCLocation(i, 1));
+        BioCLocation total = new BioCLocation(i, Math.max(1, (i % 20 - 1) * 3 + 2));
+        List<BioCLocation> coalesced = new ArrayList<>();
+        for (int j = 0; j < Math.max(1, i % 20); j++) {
+          coalesced.add(new BioCLocation(i + j * 3, i % 20 == 0 ? 1 : 2));
+        }
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+          results.add(executor.submit(() -> {
+            barrier.await();
+            return total.equals(annotation.getTotalLocation())
+                && coalesced.equals(annotation.getCoalescedLocations());
+          }));
+        }
+        for (Future<Boolean> result : results) {
+          assertTrue(result.get());
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void test_emptyLocations() {
+    BioCAnnotation annotation = new BioCAnnotation("A1");
+    annotation.addLocation(new BioCLocation(5, 3));
+    annotation.addLocation(new BioCLocation(1, 0));
+    annotation.addLocation(new BioCLocation(20, 0));
+    assertEquals(new BioCLocation(5, 3), annotation.getTotalLocation());
+    assertEquals(Collections.singletonList(new BioCLocation(5, 3)),
+        annotation.getCoalescedLocations());
+
+    annotation.getLocations().remove(new BioCLocation(5, 3));
+    assertTrue(annotation.getCoalescedLocations().isEmpty());
+    thrown.expect(NoSuchElementException.class);
+    annotation.getTotalLocation();
+  }
+
+  @Test
+  public void test_totalLocationNegOffset() {
+    BioCAnnotation annotation = new BioCAnnotation("A1");
+    annotation.addLocation(new BioCLocation(-2, 3));
+    annotation.addLocation(new BioCLocation(4, 1));
+    annotation.addLocation(new BioCLocation(-5, 1));
+    assertEquals(new BioCLocation(-5, 10), annotation.getTotalLocation());
+    assertEquals(Arrays.asList(new BioCLocation(-5, 1), new BioCLocation(-2, 3),
+        new BioCLocation(4, 1)), annotation.getCoalescedLocations());
+  }
 }
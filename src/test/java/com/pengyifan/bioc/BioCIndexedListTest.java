@@ -0,0 +1,196 @@
+package com.pengyifan.bioc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class BioCIndexedListTest {
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void test_addAnnotation() {
+    BioCPassage passage = new BioCPassage();
+    for (int i = 0; i < 50000; i++) {
+      passage.addAnnotation(new BioCAnnotation("T" + i));
+    }
+    assertEquals(50000, passage.getAnnotations().size());
+    assertEquals("T123", passage.getAnnotation("T123").get().getID());
+    assertFalse(passage.getAnnotation("T50000").isPresent());
+    assertFalse(passage.getAnnotation(null).isPresent());
+
+    thrown.expect(IllegalArgumentException.class);
+    passage.addAnnotation(new BioCAnnotation("T42"));
+  }
+
+  @Test
+  public void test_listMutation() {
+    BioCPassage passage = new BioCPassage();
+    BioCAnnotation a1 = new BioCAnnotation("A1");
+    BioCAnnotation a2 = new BioCAnnotation("A2");
+    BioCAnnotation a3 = new BioCAnnotation("A3");
+    List<BioCAnnotation> annotations = passage.getAnnotations();
+    annotations.add(a1);
+    annotations.add(a2);
+    annotations.add(a3);
+    assertSame(a2, passage.getAnnotation("A2").get());
+
+    annotations.remove(a2);
+    assertFalse(passage.getAnnotation("A2").isPresent());
+
+    BioCAnnotation b1 = new BioCAnnotation("B1");
+    annotations.set(0, b1);
+    assertFalse(passage.getAnnotation("A1").isPresent());
+    assertSame(b1, passage.getAnnotation("B1").get());
+
+    Iterator<BioCAnnotation> itr = annotations.iterator();
+    itr.next();
+    itr.remove();
+    assertFalse(passage.getAnnotation("B1").isPresent());
+    assertSame(a3, passage.getAnnotation("A3").get());
+
+    annotations.removeIf(a -> a.getID().equals("A3"));
+    assertFalse(passage.getAnnotation("A3").isPresent());
+
+    annotations.add(a1);
+    annotations.add(a2);
+    annotations.subList(0, 1).clear();
+    assertFalse(passage.getAnnotation("A1").isPresent());
+    assertSame(a2, passage.getAnnotation("A2").get());
+
+    passage.clearAnnotations();
+    assertFalse(passage.getAnnotation("A2").isPresent());
+  }
+
+  @Test
+  public void test_duplicates() {
+    BioCPassage passage = new BioCPassage();
+    BioCAnnotation first = new BioCAnnotation("A1");
+    BioCAnnotation second = new BioCAnnotation("A1");
+    passage.getAnnotations().add(second);
+    passage.getAnnotations().add(0, first);
+    assertSame(first, passage.getAnnotation("A1").get());
+
+    passage.getAnnotations().remove(0);
+    assertSame(second, passage.getAnnotation("A1").get());
+  }
+
+  @Test(timeout = 5000)
+  public void test_removedDuplicates() {
+    BioCPassage passage = new BioCPassage();
+    List<BioCAnnotation> annotations = passage.getAnnotations();
+    for (int i = 0; i < 200000; i++) {
+      annotations.add(new BioCAnnotation("T" + i));
+    }
+    BioCAnnotation duplicate = new BioCAnnotation("T1");
+    annotations.add(duplicate);
+    annotations.remove(annotations.size() - 1);
+    // without duplicates, removing an element takes constant time
+    while (annotations.size() > 2) {
+      annotations.remove(annotations.size() - 1);
+    }
+    assertSame(annotations.get(1), passage.getAnnotation("T1").get());
+  }
+
+  @Test
+  public void test_rename() {
+    BioCPassage passage = new BioCPassage();
+    BioCAnnotation annotation = new BioCAnnotation("A1");
+    passage.addAnnotation(annotation);
+    annotation.setID("A2");
+    assertFalse(passage.getAnnotation("A1").isPresent());
+    assertSame(annotation, passage.getAnnotation("A2").get());
+    passage.addAnnotation(new BioCAnnotation("A1"));
+  }
+
+  @Test
+  public void test_renameInOtherStructure() {
+    BioCPassage passage = new BioCPassage();
+    BioCAnnotation annotation = new BioCAnnotation("A1");
+    passage.addAnnotation(annotation);
+    BioCPassage other = new BioCPassage();
+    BioCAnnotation otherAnnotation = new BioCAnnotation("A1");
+    other.addAnnotation(otherAnnotation);
+
+    // only the index of the passage is told
+    assertSame(passage.getAnnotations(), ((WeakReference<?>) annotation.owners).get());
+    annotation.setID("A2");
+    assertSame(otherAnnotation, other.getAnnotation("A1").get());
+    assertFalse(other.getAnnotation("A2").isPresent());
+    assertSame(annotation, passage.getAnnotation("A2").get());
+
+    // a removed annotation no longer tells the passage
+    passage.getAnnotations().remove(annotation);
+    assertNull(annotation.owners);
+    annotation.setID("A3");
+    assertFalse(passage.getAnnotation("A3").isPresent());
+
+    other.clearAnnotations();
+    assertNull(otherAnnotation.owners);
+  }
+
+  @Test
+  public void test_renameCopy() {
+    BioCPassage passage = new BioCPassage();
+    BioCAnnotation annotation = new BioCAnnotation("A1");
+    passage.addAnnotation(new BioCAnnotation("A0"));
+    passage.addAnnotation(annotation);
+    BioCPassage copy = new BioCPassage(passage);
+    annotation.setID("A0");
+    assertSame(passage.getAnnotations().get(0), passage.getAnnotation("A0").get());
+    assertSame(copy.getAnnotations().get(0), copy.getAnnotation("A0").get());
+    assertFalse(copy.getAnnotation("A1").isPresent());
+
+    passage.getAnnotations().remove(0);
+    assertSame(annotation, passage.getAnnotation("A0").get());
+  }
+
+  @Test
+  public void test_relation() {
+    BioCDocument document = new BioCDocument("1");
+    BioCPassage passage = new BioCPassage();
+    for (int i = 0; i < 50000; i++) {
+      passage.addAnnotation(new BioCAnnotation("T" + i));
+      BioCRelation relation = new BioCRelation("R" + i);
+      relation.addNode(new BioCNode("T" + i, "agent"));
+      relation.addNode(new BioCNode("T" + (i + 1), "theme"));
+      document.addRelation(relation);
+    }
+    BioCRelation relation = document.getRelation("R42").get();
+    assertEquals("T42", passage.getAnnotation(relation, "agent").get().getID());
+    assertEquals("T43", passage.getAnnotation(relation, "theme").get().getID());
+
+    relation.setID("R");
+    assertFalse(document.getRelation("R42").isPresent());
+    assertSame(relation, document.getRelation("R").get());
+    document.getRelations().remove(relation);
+    assertFalse(document.getRelation("R").isPresent());
+
+    thrown.expect(IllegalArgumentException.class);
+    document.addRelation(new BioCRelation("R43"));
+  }
+
+  @Test
+  public void test_copy() {
+    BioCPassage passage = new BioCPassage();
+    BioCAnnotation annotation = new BioCAnnotation("A1");
+    passage.addAnnotation(annotation);
+    BioCPassage copy = new BioCPassage(passage);
+    assertEquals(Optional.of(annotation), copy.getAnnotation("A1"));
+    copy.clearAnnotations();
+    assertFalse(copy.getAnnotation("A1").isPresent());
+    assertSame(annotation, passage.getAnnotation("A1").get());
+    assertEquals(passage.getAnnotations(), new BioCPassage(passage).getAnnotations());
+  }
+}
@@ -0,0 +1,91 @@
+package com.pengyifan.bioc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class BioCLocationSetTest {
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void test_setSemantics() {
+    for (int n : new int[] { 0, 1, 2, BioCLocationSet.MAX_INLINE, BioCLocationSet.MAX_INLINE + 1,
+        100 }) {
+      BioCLocationSet locations = new BioCLocationSet();
+      Set<BioCLocation> expected = new HashSet<>();
+      List<BioCLocation> order = new ArrayList<>();
+      for (int i = 0; i < n; i++) {
+        BioCLocation location = new BioCLocation(i * 10, i + 1);
+        assertTrue(locations.add(location));
+        assertFalse(locations.add(new BioCLocation(location)));
+        expected.add(location);
+        order.add(location);
+      }
+      assertEquals(n, locations.size());
+      assertEquals(expected, locations);
+      assertEquals(locations, expected);
+      assertEquals(expected.hashCode(), locations.hashCode());
+      assertEquals(order, new ArrayList<>(locations));
+      for (BioCLocation location : order) {
+        assertTrue(locations.contains(location));
+      }
+      assertFalse(locations.contains(new BioCLocation(1, 1)));
+      assertFalse(locations.contains("foo"));
+
+      if (n > 1) {
+        assertTrue(locations.remove(order.get(1)));
+        assertFalse(locations.remove(order.get(1)));
+        assertFalse(locations.contains(order.get(1)));
+        assertEquals(n - 1, locations.size());
+      }
+      locations.clear();
+      assertTrue(locations.isEmpty());
+    }
+  }
+
+  @Test
+  public void test_iteratorRemove() {
+    BioCLocationSet locations = new BioCLocationSet();
+    for (int i = 0; i < 5; i++) {
+      locations.add(new BioCLocation(i, 1));
+    }
+    Iterator<BioCLocation> itr = locations.iterator();
+    while (itr.hasNext()) {
+      if (itr.next().getOffset() % 2 == 0) {
+        itr.remove();
+      }
+    }
+    List<BioCLocation> expected = new ArrayList<>();
+    expected.add(new BioCLocation(1, 1));
+    expected.add(new BioCLocation(3, 1));
+    assertEquals(expected, new ArrayList<>(locations));
+  }
+
+  @Test
+  public void test_byValue() {
+    BioCAnnotation annotation = new BioCAnnotation("A1");
+    BioCLocation location = new BioCLocation(1, 2);
+    annotation.addLocation(location);
+    location.setOffset(5);
+    assertTrue(annotation.containsLocation(new BioCLocation(1, 2)));
+    assertFalse(annotation.containsLocation(location));
+  }
+
+  @Test
+  public void test_null() {
+    thrown.expect(NullPointerException.class);
+    new BioCLocationSet().add(null);
+  }
+}
@@ -0,0 +1,48 @@
+package com.pengyifan.bioc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.junit.Test;
+
+public class BioCPackedLocationTest {
+
+  @Test
+  public void test_pack() {
+    int[][] cases = { { 0, 0 }, { 2, 1 }, { Integer.MAX_VALUE, Integer.MAX_VALUE },
+        { -1, 5 }, { 7, -1 }, { Integer.MIN_VALUE, Integer.MIN_VALUE } };
+    for (int[] c : cases) {
+      long packed = BioCPackedLocation.pack(c[0], c[1]);
+      assertEquals(c[0], BioCPackedLocation.getOffset(packed));
+      assertEquals(c[1], BioCPackedLocation.getLength(packed));
+      assertEquals(c[0] + c[1], BioCPackedLocation.getEnd(packed));
+      BioCLocation location = BioCPackedLocation.unpack(packed);
+      assertEquals(new BioCLocation(c[0], c[1]), location);
+      assertEquals(packed, location.pack());
+    }
+  }
+
+  @Test
+  public void test_order() {
+    long[] locations = {
+        BioCPackedLocation.pack(10, 2),
+        BioCPackedLocation.pack(3, 100),
+        BioCPackedLocation.pack(10, 1),
+        BioCPackedLocation.pack(0, 5) };
+    Arrays.sort(locations);
+    assertEquals(BioCPackedLocation.pack(0, 5), locations[0]);
+    assertEquals(BioCPackedLocation.pack(3, 100), locations[1]);
+    assertEquals(BioCPackedLocation.pack(10, 1), locations[2]);
+    assertEquals(BioCPackedLocation.pack(10, 2), locations[3]);
+  }
+
+  @Test
+  public void test_hashCode() {
+    BioCLocation location = new BioCLocation(3, 4);
+    assertEquals(Objects.hash(3, 4), location.hashCode());
+    assertTrue(location.equals(BioCPackedLocation.unpack(location.pack())));
+  }
+}
@@ -3,6 +3,7 @@ package com.pengyifan.bioc;
 import static org.hamcrest.Matchers.contains;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
@@ -44,6 +45,48 @@ public class BioCRelationTest {
     base.addNode(NODE_2);
   }
 
+  @Test
+  public void test_getNode() {
+    assertEquals(NODE_1, base.getNode("x").get());
+    assertFalse(base.getNode("z").isPresent());
+
+    BioCNode node = new BioCNode("4", "x");
+    base.addNode(node);
+    assertEquals(NODE_1, base.getNode("x").get());
+    base.getNodes().remove(NODE_1);
+    assertEquals(node, base.getNode("x").get());
+
+    node.setRole("w");
+    assertFalse(base.getNode("x").isPresent());
+    assertEquals(node, base.getNode("w").get());
+
+    base.clearNodes();
+    assertFalse(base.getNode("y").isPresent());
+  }
+
+  @Test
+  public void test_setRoleInOtherRelation() {
+    BioCNode node = new BioCNode("4", "x");
+    BioCRelation relation = new BioCRelation("2");
+    relation.addNode(node);
+    BioCRelation copy = new BioCRelation(relation);
+
+    // only the relations that contain the node are told
+    node.setRole("w");
+    assertEquals(NODE_1, base.getNode("x").get());
+    assertFalse(base.getNode("w").isPresent());
+    assertEquals(node, relation.getNode("w").get());
+    assertEquals(node, copy.getNode("w").get());
+
+    // a removed node no longer tells the relation
+    relation.clearNodes();
+    node.setRole("v");
+    assertFalse(relation.getNode("v").isPresent());
+    assertEquals(node, copy.getNode("v").get());
+    copy.clearNodes();
+    assertNull(node.owners);
+  }
+
   @Test
   public void test_equals() {
     BioCRelation baseCopy = new BioCRelation(base);
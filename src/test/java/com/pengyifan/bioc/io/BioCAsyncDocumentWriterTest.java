@@ -0,0 +1,132 @@
+package com.pengyifan.bioc.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.io.Files;
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+
+public class BioCAsyncDocumentWriterTest {
+
+  @Rule
+  public TemporaryFolder testFolder = new TemporaryFolder();
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void test_success()
+      throws Exception {
+    BioCCollection collection = BioCParallelDocumentReaderTest.newCollection(500);
+    File file = testFolder.newFile();
+    BioCAsyncDocumentWriter writer = new BioCAsyncDocumentWriter(file.toPath());
+    writer.writeBeginCollectionInfo(collection);
+    for (BioCDocument document : collection.getDocuments()) {
+      writer.writeDocument(document);
+    }
+    writer.close();
+    writer.close();
+
+    StringWriter expected = new StringWriter();
+    BioCDocumentWriter documentWriter = new BioCDocumentWriter(expected);
+    documentWriter.writeBeginCollectionInfo(collection);
+    for (BioCDocument document : collection.getDocuments()) {
+      documentWriter.writeDocument(document);
+    }
+    documentWriter.close();
+    assertEquals(expected.toString(), Files.asCharSource(file, StandardCharsets.UTF_8).read());
+  }
+
+  @Test
+  public void test_flush()
+      throws Exception {
+    BioCCollection collection = BioCParallelDocumentReaderTest.newCollection(10);
+    StringWriter out = new StringWriter();
+    BioCAsyncDocumentWriter writer = new BioCAsyncDocumentWriter(out, new BioCWriterOptions(),
+        2);
+    writer.writeBeginCollectionInfo(collection);
+    for (BioCDocument document : collection.getDocuments()) {
+      writer.writeDocument(document);
+    }
+    writer.flush().get();
+    assertTrue(out.toString().contains("<id>doc9</id>"));
+    writer.close();
+  }
+
+  @Test
+  public void test_error()
+      throws Exception {
+    Writer out = new Writer() {
+
+      @Override
+      public void write(char[] cbuf, int off, int len)
+          throws IOException {
+        throw new IOException("disk full");
+      }
+
+      @Override
+      public void flush() {
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+    BioCAsyncDocumentWriter writer = new BioCAsyncDocumentWriter(out, new BioCWriterOptions(),
+        2);
+    writer.writeBeginCollectionInfo(BioCParallelDocumentReaderTest.newCollection(0));
+    CompletableFuture<Void> future = writer.flush();
+    try {
+      future.get();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause().getMessage().contains("disk full"));
+    }
+    assertTrue(future.isCompletedExceptionally());
+
+    thrown.expect(XMLStreamException.class);
+    writer.writeDocument(new BioCDocument("1"));
+  }
+
+  @Test
+  public void test_errorOnClose()
+      throws Exception {
+    Writer out = new StringWriter() {
+
+      @Override
+      public void close()
+          throws IOException {
+        throw new IOException("disk full");
+      }
+    };
+    BioCAsyncDocumentWriter writer = new BioCAsyncDocumentWriter(out, new BioCWriterOptions(),
+        2);
+    writer.writeBeginCollectionInfo(BioCParallelDocumentReaderTest.newCollection(0));
+    thrown.expect(IOException.class);
+    writer.close();
+  }
+
+  @Test
+  public void test_writeDocumentBeforeCollectionInfo()
+      throws Exception {
+    BioCAsyncDocumentWriter writer = new BioCAsyncDocumentWriter(new StringWriter(),
+        new BioCWriterOptions(), 2);
+    thrown.expect(IllegalStateException.class);
+    writer.writeDocument(new BioCDocument("1"));
+  }
+}
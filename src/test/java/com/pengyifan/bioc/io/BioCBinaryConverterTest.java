@@ -0,0 +1,47 @@
+package com.pengyifan.bioc.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.pengyifan.bioc.BioCCollection;
+
+public class BioCBinaryConverterTest {
+
+  private static final String XML_FILENAME = "xml/PMID-8557975-simplified-sentences.xml";
+
+  @Rule
+  public TemporaryFolder testFolder = new TemporaryFolder();
+
+  @Test
+  public void test_roundTrip()
+      throws Exception {
+    URL url = this.getClass().getResource("/" + XML_FILENAME);
+    Path xml = new File(url.getFile()).toPath();
+    Path binary = testFolder.newFile("foo.bin").toPath();
+    Path xml2 = testFolder.newFile("foo.xml.gz").toPath();
+    BioCBinaryConverter.toBinary(xml, binary);
+    BioCBinaryConverter.toXML(binary, xml2);
+
+    BioCCollection expected = readCollection(xml);
+    BioCCollection actual = readCollection(xml2);
+    assertEquals(expected.getSource(), actual.getSource());
+    assertEquals(expected.getDate(), actual.getDate());
+    assertEquals(expected.getKey(), actual.getKey());
+    assertEquals(expected.getInfons(), actual.getInfons());
+    assertEquals(expected.getDocuments(), actual.getDocuments());
+  }
+
+  private static BioCCollection readCollection(Path path)
+      throws Exception {
+    try (BioCCollectionReader reader = new BioCCollectionReader(path)) {
+      return reader.readCollection();
+    }
+  }
+}
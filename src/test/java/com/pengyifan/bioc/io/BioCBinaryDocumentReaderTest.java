@@ -0,0 +1,141 @@
+package com.pengyifan.bioc.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+import com.pengyifan.bioc.BioCNode;
+import com.pengyifan.bioc.BioCRelation;
+
+public class BioCBinaryDocumentReaderTest {
+
+  private static final String XML_FILENAME = "xml/everything.xml";
+
+  @Rule
+  public TemporaryFolder testFolder = new TemporaryFolder();
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void test_success()
+      throws Exception {
+    URL url = this.getClass().getResource("/" + XML_FILENAME);
+    BioCCollection collection;
+    try (BioCCollectionReader reader = new BioCCollectionReader(new File(url.getFile()))) {
+      collection = reader.readCollection();
+    }
+    BioCRelation relation = new BioCRelation("R1");
+    relation.addNode(new BioCNode("A1", "agent"));
+    relation.putInfon("type", "binds");
+    collection.getDocument(0).addRelation(relation);
+
+    byte[] bytes = write(collection);
+    try (BioCBinaryDocumentReader reader = new BioCBinaryDocumentReader(
+        new ByteArrayInputStream(bytes))) {
+      BioCCollection info = reader.readCollectionInfo();
+      assertEquals(collection.getSource(), info.getSource());
+      assertEquals(collection.getDate(), info.getDate());
+      assertEquals(collection.getKey(), info.getKey());
+      assertEquals(collection.getInfons(), info.getInfons());
+      assertEquals(collection.getEncoding(), info.getEncoding());
+      assertEquals(collection.getVersion(), info.getVersion());
+      assertEquals(collection.isStandalone(), info.isStandalone());
+      for (BioCDocument expected : collection.getDocuments()) {
+        assertEquals(expected, reader.readDocument());
+      }
+      assertNull(reader.readDocument());
+      assertNull(reader.readDocument());
+    }
+  }
+
+  @Test
+  public void test_path()
+      throws Exception {
+    BioCCollection collection = BioCParallelDocumentReaderTest.newCollection(100);
+    Path path = testFolder.newFile("foo.bin.gz").toPath();
+    BioCBinaryDocumentWriter writer = new BioCBinaryDocumentWriter(path);
+    writer.writeBeginCollectionInfo(collection);
+    for (BioCDocument document : collection.getDocuments()) {
+      writer.writeDocument(document);
+    }
+    writer.close();
+    try (Stream<BioCDocument> documents = new BioCBinaryDocumentReader(path).documents()) {
+      assertEquals(collection.getDocuments(), documents.collect(Collectors.toList()));
+    }
+  }
+
+  @Test
+  public void test_dictionary()
+      throws Exception {
+    // infon keys are written once
+    BioCCollection collection = BioCParallelDocumentReaderTest.newCollection(100);
+    byte[] bytes = write(collection);
+    assertEquals(1, count(bytes, "type".getBytes("UTF-8")));
+  }
+
+  @Test
+  public void test_notBinary()
+      throws Exception {
+    thrown.expect(IOException.class);
+    new BioCBinaryDocumentReader(new ByteArrayInputStream("<?xml".getBytes("UTF-8")));
+  }
+
+  @Test
+  public void test_truncated()
+      throws Exception {
+    byte[] bytes = write(BioCParallelDocumentReaderTest.newCollection(2));
+    BioCBinaryDocumentReader reader = new BioCBinaryDocumentReader(
+        new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 10)));
+    reader.readDocument();
+    thrown.expect(EOFException.class);
+    reader.readDocument();
+  }
+
+  @Test
+  public void test_writeDocumentBeforeCollectionInfo()
+      throws Exception {
+    BioCBinaryDocumentWriter writer = new BioCBinaryDocumentWriter(new ByteArrayOutputStream());
+    thrown.expect(IllegalStateException.class);
+    writer.writeDocument(new BioCDocument("1"));
+  }
+
+  private static byte[] write(BioCCollection collection)
+      throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BioCBinaryDocumentWriter writer = new BioCBinaryDocumentWriter(out);
+    writer.writeBeginCollectionInfo(collection);
+    for (BioCDocument document : collection.getDocuments()) {
+      writer.writeDocument(document);
+    }
+    writer.close();
+    return out.toByteArray();
+  }
+
+  private static int count(byte[] bytes, byte[] pattern) {
+    int count = 0;
+    for (int i = 0; i + pattern.length <= bytes.length; i++) {
+      if (Arrays.equals(Arrays.copyOfRange(bytes, i, i + pattern.length), pattern)) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
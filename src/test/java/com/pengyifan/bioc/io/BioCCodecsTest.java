@@ -0,0 +1,174 @@
+package com.pengyifan.bioc.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+
+public class BioCCodecsTest {
+
+  @Rule
+  public TemporaryFolder testFolder = new TemporaryFolder();
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void test_gzip()
+      throws Exception {
+    BioCCollection collection = BioCParallelDocumentReaderTest.newCollection(50);
+    Path path = testFolder.getRoot().toPath().resolve("foo.xml.gz");
+    BioCCollectionWriter writer = new BioCCollectionWriter(path);
+    writer.writeCollection(collection);
+    writer.close();
+
+    byte[] bytes = Files.readAllBytes(path);
+    assertEquals(0x1f, bytes[0] & 0xff);
+    assertEquals(0x8b, bytes[1] & 0xff);
+    assertEquals(BioCCodecs.GZIP, BioCCodecs.forPath(path).get());
+
+    BioCCollectionReader reader = new BioCCollectionReader(path);
+    assertEquals(collection.getDocuments(), reader.readCollection().getDocuments());
+    reader.close();
+
+    // detected by magic bytes
+    Path renamed = testFolder.getRoot().toPath().resolve("foo.xml");
+    Files.move(path, renamed);
+    BioCDocumentReader documentReader = new BioCDocumentReader(renamed);
+    documentReader.readCollectionInfo();
+    assertEquals(collection.getDocument(0), documentReader.readDocument());
+    documentReader.close();
+
+    BioCParallelDocumentReader parallelReader = new BioCParallelDocumentReader(renamed);
+    List<BioCDocument> documents = Lists.newArrayList();
+    BioCDocument document;
+    while ((document = parallelReader.readDocument()) != null) {
+      documents.add(document);
+    }
+    parallelReader.close();
+    assertEquals(collection.getDocuments(), documents);
+  }
+
+  @Test
+  public void test_uncompressed()
+      throws Exception {
+    byte[] bytes = "<collection/>".getBytes("UTF-8");
+    InputStream in = BioCCodecs.decode(new ByteArrayInputStream(bytes));
+    byte[] actual = new byte[bytes.length];
+    assertEquals(bytes.length, in.read(actual));
+    assertEquals("<collection/>", new String(actual, "UTF-8"));
+    assertFalse(BioCCodecs.forPath(testFolder.getRoot().toPath().resolve("foo.xml"))
+        .isPresent());
+    assertFalse(BioCCodecs.detect(new ByteArrayInputStream(new byte[0])).isPresent());
+  }
+
+  @Test
+  public void test_register()
+      throws Exception {
+    BioCCodecs.register(new XorCodec());
+    assertTrue(BioCCodecs.forName("xor").isPresent());
+
+    BioCCollection collection = BioCParallelDocumentReaderTest.newCollection(5);
+    Path path = testFolder.getRoot().toPath().resolve("foo.xml.xor");
+    BioCDocumentWriter writer = new BioCDocumentWriter(path);
+    writer.writeBeginCollectionInfo(collection);
+    for (BioCDocument document : collection.getDocuments()) {
+      writer.writeDocument(document);
+    }
+    writer.close();
+    assertEquals('X', Files.readAllBytes(path)[0]);
+
+    BioCCollectionReader reader = new BioCCollectionReader(path);
+    assertEquals(collection.getDocuments(), reader.readCollection().getDocuments());
+    reader.close();
+  }
+
+  @Test
+  public void test_indexCompressed()
+      throws Exception {
+    Path path = testFolder.getRoot().toPath().resolve("foo.xml.gz");
+    BioCCollectionWriter writer = new BioCCollectionWriter(path);
+    writer.writeCollection(BioCParallelDocumentReaderTest.newCollection(1));
+    writer.close();
+    thrown.expect(IOException.class);
+    BioCDocumentIndex.build(path);
+  }
+
+  /**
+   * Writes 'X' followed by the bytes xor 0x55.
+   */
+  private static class XorCodec implements BioCCodec {
+
+    @Override
+    public String getName() {
+      return "xor";
+    }
+
+    @Override
+    public String getExtension() {
+      return ".xor";
+    }
+
+    @Override
+    public boolean matches(byte[] header, int length) {
+      return length >= 1 && header[0] == 'X';
+    }
+
+    @Override
+    public InputStream newInputStream(InputStream in)
+        throws IOException {
+      in.read();
+      return new FilterInputStream(in) {
+
+        @Override
+        public int read()
+            throws IOException {
+          int b = super.read();
+          return b == -1 ? -1 : b ^ 0x55;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len)
+            throws IOException {
+          int n = super.read(b, off, len);
+          for (int i = off; i < off + n; i++) {
+            b[i] ^= 0x55;
+          }
+          return n;
+        }
+      };
+    }
+
+    @Override
+    public OutputStream newOutputStream(OutputStream out)
+        throws IOException {
+      out.write('X');
+      return new FilterOutputStream(out) {
+
+        @Override
+        public void write(int b)
+            throws IOException {
+          super.write(b ^ 0x55);
+        }
+      };
+    }
+  }
+}
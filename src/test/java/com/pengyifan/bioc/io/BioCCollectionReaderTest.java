@@ -1,13 +1,17 @@
 package com.pengyifan.bioc.io;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.StringReader;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
 
 import javax.xml.stream.XMLStreamException;
 
@@ -16,6 +20,8 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
 
+import com.google.common.io.Files;
+import com.pengyifan.bioc.BioCAnnotation;
 import com.pengyifan.bioc.BioCCollection;
 import com.pengyifan.bioc.BioCDocument;
 import com.pengyifan.bioc.BioCPassage;
@@ -42,6 +48,101 @@ public class BioCCollectionReaderTest {
     test(new BioCCollectionReader(new FileInputStream(file)));
     test(new BioCCollectionReader(file));
     test(new BioCCollectionReader(file.getAbsolutePath()));
+    test(new BioCCollectionReader(new FileReader(file), BioCEngine.EVENT));
+  }
+
+  @Test
+  public void test_engines()
+      throws Exception {
+    for (String filename : new String[] { XML_FILENAME, "xml/everything.xml" }) {
+      URL url = this.getClass().getResource("/" + filename);
+      File file = new File(url.getFile());
+      BioCCollectionReader eventReader = new BioCCollectionReader(
+          new FileReader(file), BioCEngine.EVENT);
+      BioCCollectionReader cursorReader = new BioCCollectionReader(
+          new FileReader(file), BioCEngine.CURSOR);
+      assertEquals(eventReader.readCollection(), cursorReader.readCollection());
+      eventReader.close();
+      cursorReader.close();
+    }
+  }
+
+  @Test
+  public void test_declaredEncoding()
+      throws Exception {
+    String xml = "<?xml version='1.0' encoding='ISO-8859-1'?><collection><source/><date/>"
+        + "<key/><document><id>1</id><passage><offset>0</offset>"
+        + "<text>na\u00efve caf\u00e9</text></passage></document></collection>";
+    File file = testFolder.newFile();
+    Files.write(xml.getBytes(StandardCharsets.ISO_8859_1), file);
+
+    for (BioCEngine engine : BioCEngine.values()) {
+      BioCCollectionReader reader = new BioCCollectionReader(new FileInputStream(file), engine);
+      BioCCollection collection = reader.readCollection();
+      reader.close();
+      assertEquals("ISO-8859-1", collection.getEncoding());
+      assertEquals("na\u00efve caf\u00e9",
+          collection.getDocument(0).getPassage(0).getText().get());
+    }
+
+    BioCCollectionReader reader = new BioCCollectionReader(file);
+    assertEquals("na\u00efve caf\u00e9",
+        reader.readCollection().getDocument(0).getPassage(0).getText().get());
+    reader.close();
+  }
+
+  @Test
+  public void test_layers()
+      throws Exception {
+    URL url = this.getClass().getResource("/xml/everything.xml");
+    BioCCollectionReader reader = new BioCCollectionReader(url.getFile());
+    BioCCollection expected = reader.readCollection();
+    reader.close();
+
+    for (BioCEngine engine : BioCEngine.values()) {
+      BioCReaderOptions options = new BioCReaderOptions();
+      options.setEngine(engine);
+      options.setLayers(EnumSet.of(BioCLayer.ANNOTATIONS, BioCLayer.RELATIONS));
+      reader = new BioCCollectionReader(new FileInputStream(url.getFile()), options);
+      BioCCollection collection = reader.readCollection();
+      reader.close();
+
+      assertEquals(expected.getInfons(), collection.getInfons());
+      assertEquals(expected.getDocmentCount(), collection.getDocmentCount());
+      for (int i = 0; i < expected.getDocmentCount(); i++) {
+        BioCDocument expectedDocument = expected.getDocument(i);
+        BioCDocument document = collection.getDocument(i);
+        assertEquals(expectedDocument.getID(), document.getID());
+        assertTrue(document.getInfons().isEmpty());
+        assertEquals(expectedDocument.getRelations().size(), document.getRelations().size());
+        assertEquals(expectedDocument.getPassageCount(), document.getPassageCount());
+        for (int j = 0; j < expectedDocument.getPassageCount(); j++) {
+          BioCPassage expectedPassage = expectedDocument.getPassage(j);
+          BioCPassage passage = document.getPassage(j);
+          assertEquals(expectedPassage.getOffset(), passage.getOffset());
+          assertFalse(passage.getText().isPresent());
+          assertTrue(passage.getInfons().isEmpty());
+          assertTrue(passage.getSentences().isEmpty());
+          assertEquals(expectedPassage.getAnnotations().size(), passage.getAnnotations().size());
+          for (int k = 0; k < expectedPassage.getAnnotations().size(); k++) {
+            BioCAnnotation annotation = passage.getAnnotations().get(k);
+            assertEquals(expectedPassage.getAnnotations().get(k).getLocations(),
+                annotation.getLocations());
+            assertTrue(annotation.getInfons().isEmpty());
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void test_emptyReaderEvent()
+      throws Exception {
+    thrown.expect(XMLStreamException.class);
+    BioCCollectionReader reader = new BioCCollectionReader(new StringReader(""),
+        BioCEngine.EVENT);
+    reader.readCollection();
+    reader.close();
   }
 
   @Test
@@ -1,5 +1,6 @@
 package com.pengyifan.bioc.io;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
@@ -7,6 +8,8 @@ import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.net.URL;
 
 import javax.xml.stream.XMLStreamException;
@@ -46,6 +49,78 @@ public class BioCCollectionWriterTest {
     test(c, new BioCCollectionWriter(new FileOutputStream(tmpFile)), tmpFile);
     test(c, new BioCCollectionWriter(tmpFile), tmpFile);
     test(c, new BioCCollectionWriter(tmpFile.getAbsolutePath()), tmpFile);
+    test(c, new BioCCollectionWriter(new FileWriter(tmpFile), BioCEngine.EVENT), tmpFile);
+  }
+
+  @Test
+  public void test_engines()
+      throws Exception {
+    for (String filename : new String[] { XML_FILENAME, "xml/everything.xml" }) {
+      URL url = this.getClass().getResource("/" + filename);
+      BioCCollectionReader reader = new BioCCollectionReader(url.getFile());
+      BioCCollection collection = reader.readCollection();
+      reader.close();
+
+      StringWriter eventOutput = new StringWriter();
+      BioCCollectionWriter writer = new BioCCollectionWriter(eventOutput, BioCEngine.EVENT);
+      writer.writeCollection(collection);
+      writer.close();
+
+      StringWriter cursorOutput = new StringWriter();
+      writer = new BioCCollectionWriter(cursorOutput, BioCEngine.CURSOR);
+      writer.writeCollection(collection);
+      writer.close();
+
+      assertEquals(eventOutput.toString(), cursorOutput.toString());
+    }
+  }
+
+  @Test
+  public void test_options()
+      throws Exception {
+    for (String filename : new String[] { XML_FILENAME, "xml/everything.xml" }) {
+      URL url = this.getClass().getResource("/" + filename);
+      BioCCollectionReader reader = new BioCCollectionReader(url.getFile());
+      BioCCollection collection = reader.readCollection();
+      reader.close();
+
+      StringWriter defaultOutput = new StringWriter();
+      BioCCollectionWriter writer = new BioCCollectionWriter(defaultOutput);
+      writer.writeCollection(collection);
+      writer.close();
+
+      for (BioCEngine engine : BioCEngine.values()) {
+        // default options
+        BioCWriterOptions options = new BioCWriterOptions();
+        options.setEngine(engine);
+        StringWriter output = new StringWriter();
+        writer = new BioCCollectionWriter(output, options);
+        writer.writeCollection(collection);
+        writer.close();
+        assertEquals(defaultOutput.toString(), output.toString());
+
+        // tab
+        options.setIndent("\t");
+        output = new StringWriter();
+        writer = new BioCCollectionWriter(output, options);
+        writer.writeCollection(collection);
+        writer.close();
+        assertTrue(output.toString().contains("\n\t<source>"));
+        assertEquals(collection, new BioCCollectionReader(
+            new StringReader(output.toString())).readCollection());
+
+        // compact
+        options.setCompact(true);
+        output = new StringWriter();
+        writer = new BioCCollectionWriter(output, options);
+        writer.writeCollection(collection);
+        writer.close();
+        assertTrue(output.toString().contains("><source>"));
+        assertTrue(output.toString().length() < defaultOutput.toString().length());
+        assertEquals(collection, new BioCCollectionReader(
+            new StringReader(output.toString())).readCollection());
+      }
+    }
   }
 
   @Test
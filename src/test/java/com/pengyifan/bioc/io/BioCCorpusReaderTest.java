@@ -0,0 +1,127 @@
+package com.pengyifan.bioc.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+
+public class BioCCorpusReaderTest {
+
+  @Rule
+  public TemporaryFolder testFolder = new TemporaryFolder();
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void test_directory()
+      throws Exception {
+    File dir = testFolder.newFolder();
+    List<BioCDocument> expected = Lists.newArrayList();
+    String[] names = { "a.xml", "b/c.xml.gz", "b/d.xml", "e.xml" };
+    for (int i = 0; i < names.length; i++) {
+      BioCCollection collection = BioCParallelDocumentReaderTest.newCollection(i * 10);
+      collection.setSource(names[i]);
+      Path path = dir.toPath().resolve(names[i]);
+      Files.createDirectories(path.getParent());
+      BioCCollectionWriter writer = new BioCCollectionWriter(path);
+      writer.writeCollection(collection);
+      writer.close();
+      expected.addAll(collection.getDocuments());
+    }
+    Files.write(dir.toPath().resolve("b/readme.txt"), "not bioc".getBytes(StandardCharsets.UTF_8));
+
+    BioCCorpusReader reader = new BioCCorpusReader(dir.toPath(), "**.{xml,xml.gz}");
+    // a.xml has no documents
+    assertEquals("a.xml", reader.readCollectionInfo().getSource());
+    List<BioCDocument> documents = Lists.newArrayList();
+    BioCDocument document;
+    while ((document = reader.readDocument()) != null) {
+      String source = reader.readCollectionInfo().getSource();
+      assertEquals(dir.toPath().resolve(source), reader.getCurrentPath());
+      assertEquals(0, reader.readCollectionInfo().getDocmentCount());
+      documents.add(document);
+    }
+    assertNull(reader.readDocument());
+    reader.close();
+    assertEquals(expected, documents);
+  }
+
+  @Test
+  public void test_bufferedDocuments()
+      throws Exception {
+    List<Path> paths = Lists.newArrayList();
+    List<BioCDocument> expected = Lists.newArrayList();
+    for (int i = 0; i < 4; i++) {
+      BioCCollection collection = BioCParallelDocumentReaderTest.newCollection(500);
+      Path path = testFolder.newFile().toPath();
+      BioCCollectionWriter writer = new BioCCollectionWriter(path);
+      writer.writeCollection(collection);
+      writer.close();
+      paths.add(path);
+      expected.addAll(collection.getDocuments());
+    }
+    // counts the documents parsed in the background
+    AtomicInteger parsed = new AtomicInteger();
+    BioCReaderOptions options = new BioCReaderOptions();
+    options.setDocumentFilter(d -> parsed.incrementAndGet() > 0);
+
+    int prefetch = 2;
+    int capacity = 10;
+    BioCCorpusReader reader = new BioCCorpusReader(paths, options, prefetch, capacity);
+    List<BioCDocument> documents = Lists.newArrayList();
+    documents.add(reader.readDocument());
+    Thread.sleep(500);
+    // besides the document returned, each file being read holds its queue, the
+    // document it is adding and the one it is parsing
+    assertTrue(String.valueOf(parsed.get()),
+        parsed.get() <= 1 + (prefetch + 1) * (capacity + 2));
+
+    BioCDocument document;
+    while ((document = reader.readDocument()) != null) {
+      documents.add(document);
+    }
+    reader.close();
+    assertEquals(expected, documents);
+  }
+
+  @Test
+  public void test_empty()
+      throws Exception {
+    BioCCorpusReader reader = new BioCCorpusReader(Collections.emptyList());
+    assertNull(reader.readCollectionInfo());
+    assertNull(reader.getCurrentPath());
+    assertNull(reader.readDocument());
+    reader.close();
+  }
+
+  @Test
+  public void test_error()
+      throws Exception {
+    File file = testFolder.newFile("bad.xml");
+    Files.write(file.toPath(), "<collection><document>".getBytes(StandardCharsets.UTF_8));
+    BioCCorpusReader reader = new BioCCorpusReader(Collections.singletonList(file.toPath()),
+        new BioCReaderOptions(), 1);
+    thrown.expect(XMLStreamException.class);
+    thrown.expectMessage("bad.xml");
+    reader.readDocument();
+  }
+}
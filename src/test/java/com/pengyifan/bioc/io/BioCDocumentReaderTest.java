@@ -7,9 +7,15 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.StringReader;
+import java.io.StringWriter;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Optional;
+import java.util.Set;
 
 import javax.xml.stream.XMLStreamException;
 
@@ -18,6 +24,8 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
 
+import com.google.common.collect.Sets;
+import com.google.common.io.ByteStreams;
 import com.pengyifan.bioc.BioCCollection;
 import com.pengyifan.bioc.BioCDocument;
 import com.pengyifan.bioc.BioCPassage;
@@ -42,6 +50,97 @@ public class BioCDocumentReaderTest {
     test(new BioCDocumentReader(new FileReader(file)));
     test(new BioCDocumentReader(file));
     test(new BioCDocumentReader(file.getAbsolutePath()));
+    test(new BioCDocumentReader(new FileReader(file), BioCEngine.EVENT));
+  }
+
+  @Test
+  public void test_engines()
+      throws Exception {
+    URL url = this.getClass().getResource("/" + XML_FILENAME);
+    File file = new File(url.getFile());
+    BioCDocumentReader eventReader = new BioCDocumentReader(new FileReader(file),
+        BioCEngine.EVENT);
+    BioCDocumentReader cursorReader = new BioCDocumentReader(new FileReader(file),
+        BioCEngine.CURSOR);
+    assertEquals(eventReader.readCollectionInfo(), cursorReader.readCollectionInfo());
+    BioCDocument doc = null;
+    while ((doc = eventReader.readDocument()) != null) {
+      assertEquals(doc, cursorReader.readDocument());
+    }
+    assertNull(cursorReader.readDocument());
+    eventReader.close();
+    cursorReader.close();
+  }
+
+  @Test
+  public void test_filter()
+      throws Exception {
+    BioCCollection expected = BioCParallelDocumentReaderTest.newCollection(100);
+    expected.addDocument(new BioCDocument("empty"));
+    StringWriter out = new StringWriter();
+    BioCCollectionWriter writer = new BioCCollectionWriter(out);
+    writer.writeCollection(expected);
+    writer.close();
+
+    for (BioCEngine engine : BioCEngine.values()) {
+      BioCReaderOptions options = new BioCReaderOptions();
+      options.setEngine(engine);
+      options.setDocumentFilter(d -> d.getInfon("type").equals(Optional.of("odd"))
+          || d.getID().equals("empty"));
+      BioCDocumentReader reader = new BioCDocumentReader(
+          new StringReader(out.toString()), options);
+      for (int i = 1; i < 100; i += 2) {
+        assertEquals(expected.getDocument(i), reader.readDocument());
+      }
+      assertEquals(new BioCDocument("empty"), reader.readDocument());
+      assertNull(reader.readDocument());
+      reader.close();
+
+      Set<String> ids = Sets.newHashSet("doc3", "doc42");
+      options.setDocumentFilter(d -> ids.contains(d.getID()));
+      BioCCollectionReader collectionReader = new BioCCollectionReader(
+          new StringReader(out.toString()), options);
+      BioCCollection collection = collectionReader.readCollection();
+      collectionReader.close();
+      assertEquals(2, collection.getDocmentCount());
+      assertEquals(expected.getDocument(3), collection.getDocument(0));
+      assertEquals(expected.getDocument(42), collection.getDocument(1));
+    }
+  }
+
+  @Test
+  public void test_memoryMapped()
+      throws Exception {
+    BioCCollection expected = BioCParallelDocumentReaderTest.newCollection(100);
+    File file = testFolder.newFile("foo.xml");
+    BioCCollectionWriter writer = new BioCCollectionWriter(file);
+    writer.writeCollection(expected);
+    writer.close();
+
+    for (BioCEngine engine : BioCEngine.values()) {
+      BioCReaderOptions options = new BioCReaderOptions();
+      options.setEngine(engine);
+      options.setMemoryMapped(true);
+      BioCDocumentReader reader = new BioCDocumentReader(file.toPath(), options);
+      assertEquals(expected.getSource(), reader.readCollectionInfo().getSource());
+      for (BioCDocument document : expected.getDocuments()) {
+        assertEquals(document, reader.readDocument());
+      }
+      assertNull(reader.readDocument());
+      reader.close();
+    }
+  }
+
+  @Test
+  public void test_mappedBytes()
+      throws Exception {
+    // the encoding is not detected unless the file is decoded
+    String xml = "<?xml version='1.0' encoding='x-unknown'?><collection/>";
+    File file = testFolder.newFile();
+    Files.write(file.toPath(), xml.getBytes(StandardCharsets.US_ASCII));
+    try (InputStream in = BioCMappedFile.open(file.toPath()).newInputStream()) {
+      assertEquals(xml, new String(ByteStreams.toByteArray(in), StandardCharsets.US_ASCII));
+    }
   }
 
   @Test
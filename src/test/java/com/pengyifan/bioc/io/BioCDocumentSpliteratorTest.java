@@ -0,0 +1,121 @@
+package com.pengyifan.bioc.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+
+public class BioCDocumentSpliteratorTest {
+
+  @Rule
+  public TemporaryFolder testFolder = new TemporaryFolder();
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void test_documentReader()
+      throws Exception {
+    BioCCollection collection = BioCParallelDocumentReaderTest.newCollection(1000);
+    File file = writeCollection(collection);
+
+    boolean[] isClosed = new boolean[1];
+    InputStream in = new FileInputStream(file) {
+
+      @Override
+      public void close()
+          throws IOException {
+        isClosed[0] = true;
+        super.close();
+      }
+    };
+    try (Stream<BioCDocument> documents = new BioCDocumentReader(file).documents()) {
+      assertEquals(ids(collection.getDocuments()),
+          documents.parallel().map(BioCDocument::getID).collect(Collectors.toList()));
+    }
+    try (Stream<BioCDocument> documents = new BioCDocumentReader(in).documents()) {
+      assertEquals("doc0", documents.findFirst().get().getID());
+      assertFalse(isClosed[0]);
+    }
+    // the stream closes the reader
+    assertTrue(isClosed[0]);
+  }
+
+  @Test
+  public void test_byteRanges()
+      throws Exception {
+    BioCCollection collection = BioCParallelDocumentReaderTest.newCollection(1000);
+    File file = writeCollection(collection);
+    try (Stream<BioCDocument> documents = BioCParallelDocumentReader.documents(file.toPath())) {
+      assertEquals(collection.getDocuments(),
+          documents.parallel().collect(Collectors.toList()));
+    }
+    try (Stream<BioCDocument> documents = BioCParallelDocumentReader.documents(file.toPath())) {
+      assertEquals(1000, documents.count());
+    }
+    try (Stream<BioCDocument> documents = BioCParallelDocumentReader.documents(file.toPath(),
+        true)) {
+      assertEquals(collection.getDocuments(),
+          documents.parallel().collect(Collectors.toList()));
+    }
+  }
+
+  @Test
+  public void test_split() {
+    List<Integer> units = Collections.nCopies(40, 1);
+    int[] next = new int[1];
+    BioCDocumentSpliterator<Integer> spliterator = new BioCDocumentSpliterator<>(
+        () -> next[0] < units.size() ? units.get(next[0]++) : null,
+        unit -> new BioCDocument(Integer.toString(unit)));
+    Spliterator<BioCDocument> batch = spliterator.trySplit();
+    assertEquals(16, batch.estimateSize());
+    assertTrue(batch.hasCharacteristics(Spliterator.SIZED));
+    assertEquals(8, batch.trySplit().estimateSize());
+    assertEquals(24, spliterator.trySplit().estimateSize());
+    assertNull(spliterator.trySplit());
+    assertEquals(0, spliterator.estimateSize());
+  }
+
+  @Test
+  public void test_error()
+      throws Exception {
+    BioCDocumentReader reader = new BioCDocumentReader(new StringReader(
+        "<collection><source/><date/><key/><document><id>1</id></document>"
+            + "<document><id>2</id><passage></document></collection>"));
+    thrown.expect(UncheckedIOException.class);
+    reader.documents().count();
+  }
+
+  private File writeCollection(BioCCollection collection)
+      throws Exception {
+    File file = testFolder.newFile();
+    BioCCollectionWriter writer = new BioCCollectionWriter(file);
+    writer.writeCollection(collection);
+    writer.close();
+    return file;
+  }
+
+  private static List<String> ids(List<BioCDocument> documents) {
+    return documents.stream().map(BioCDocument::getID).collect(Collectors.toList());
+  }
+}
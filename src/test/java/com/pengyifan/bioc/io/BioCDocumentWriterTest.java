@@ -48,6 +48,7 @@ public class BioCDocumentWriterTest {
     test(c, new BioCDocumentWriter(new FileOutputStream(tmpFile)), tmpFile);
     test(c, new BioCDocumentWriter(tmpFile), tmpFile);
     test(c, new BioCDocumentWriter(tmpFile.getAbsolutePath()), tmpFile);
+    test(c, new BioCDocumentWriter(new FileWriter(tmpFile), BioCEngine.EVENT), tmpFile);
   }
 
   @Test
@@ -0,0 +1,170 @@
+package com.pengyifan.bioc.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.pengyifan.bioc.BioCAnnotation;
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+import com.pengyifan.bioc.BioCLocation;
+import com.pengyifan.bioc.BioCNode;
+import com.pengyifan.bioc.BioCPassage;
+import com.pengyifan.bioc.BioCRelation;
+
+public class BioCJsonDocumentReaderTest {
+
+  private static final String XML_FILENAME = "xml/everything.xml";
+
+  @Rule
+  public TemporaryFolder testFolder = new TemporaryFolder();
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void test_success()
+      throws Exception {
+    URL url = this.getClass().getResource("/" + XML_FILENAME);
+    BioCCollection collection;
+    try (BioCCollectionReader reader = new BioCCollectionReader(new File(url.getFile()))) {
+      collection = reader.readCollection();
+    }
+    BioCRelation relation = new BioCRelation("R1");
+    relation.addNode(new BioCNode("A1", "agent"));
+    relation.putInfon("type", "binds");
+    collection.getDocument(0).addRelation(relation);
+
+    String json = write(collection);
+    try (BioCJsonDocumentReader reader = new BioCJsonDocumentReader(new StringReader(json))) {
+      BioCCollection info = reader.readCollectionInfo();
+      assertEquals(collection.getSource(), info.getSource());
+      assertEquals(collection.getDate(), info.getDate());
+      assertEquals(collection.getKey(), info.getKey());
+      assertEquals(collection.getInfons(), info.getInfons());
+      for (BioCDocument expected : collection.getDocuments()) {
+        assertEquals(expected, reader.readDocument());
+      }
+      assertNull(reader.readDocument());
+      assertNull(reader.readDocument());
+    }
+  }
+
+  @Test
+  public void test_escape()
+      throws Exception {
+    String text = "a \"quoted\" \\ back\tslash\nline\u0001\u2028 \u00e9";
+    BioCCollection collection = new BioCCollection();
+    BioCDocument document = new BioCDocument("1");
+    BioCPassage passage = new BioCPassage();
+    passage.setOffset(0);
+    passage.setText(text);
+    BioCAnnotation annotation = new BioCAnnotation("A1");
+    annotation.addLocation(new BioCLocation(0, 1));
+    annotation.putInfon("key\"", "value\\");
+    passage.addAnnotation(annotation);
+    document.addPassage(passage);
+    collection.addDocument(document);
+
+    String json = write(collection);
+    assertFalse(json.contains("\n"));
+    try (BioCJsonDocumentReader reader = new BioCJsonDocumentReader(new StringReader(json))) {
+      assertEquals(document, reader.readDocument());
+    }
+  }
+
+  @Test
+  public void test_unknown()
+      throws Exception {
+    String json = "{\"source\":\"PubMed\",\"extra\":{\"a\":[1,2.5,true,null,{}]},"
+        + "\"documents\":[ {\"id\":\"1\",\"unknown\":[[]],\"passages\":[{\"offset\":3,"
+        + "\"text\":\"\\u0041b\",\"annotations\":[{\"id\":\"T1\",\"locations\":"
+        + "[{\"offset\":3,\"length\":2}]}]}]} ],\"key\":\"k\"}";
+    try (BioCJsonDocumentReader reader = new BioCJsonDocumentReader(new StringReader(json))) {
+      BioCCollection info = reader.readCollectionInfo();
+      assertEquals("PubMed", info.getSource());
+      BioCDocument document = reader.readDocument();
+      assertEquals("1", document.getID());
+      BioCPassage passage = document.getPassage(0);
+      assertEquals(3, passage.getOffset());
+      assertEquals("Ab", passage.getText().get());
+      assertEquals(new BioCLocation(3, 2),
+          passage.getAnnotations().get(0).getLocations().iterator().next());
+      assertNull(reader.readDocument());
+      assertEquals("k", info.getKey());
+    }
+  }
+
+  @Test
+  public void test_path()
+      throws Exception {
+    BioCCollection collection = BioCParallelDocumentReaderTest.newCollection(100);
+    Path path = testFolder.newFile("foo.json.gz").toPath();
+    BioCJsonDocumentWriter writer = new BioCJsonDocumentWriter(path);
+    writer.writeBeginCollectionInfo(collection);
+    for (BioCDocument document : collection.getDocuments()) {
+      writer.writeDocument(document);
+    }
+    writer.close();
+    try (Stream<BioCDocument> documents = new BioCJsonDocumentReader(path).documents()) {
+      assertEquals(collection.getDocuments(), documents.collect(Collectors.toList()));
+    }
+  }
+
+  @Test
+  public void test_malformed()
+      throws Exception {
+    String json = "{\"documents\":[{\"id\":\"1\",\"passages\":[{\"offset\":0,}]}]}";
+    thrown.expect(IOException.class);
+    thrown.expectMessage("Malformed BioC JSON");
+    try (BioCJsonDocumentReader reader = new BioCJsonDocumentReader(new StringReader(json))) {
+      reader.readDocument();
+    }
+  }
+
+  @Test
+  public void test_truncated()
+      throws Exception {
+    String json = "{\"documents\":[{\"id\":\"1\",\"passages\":[{\"text\":\"abc";
+    thrown.expect(IOException.class);
+    thrown.expectMessage("unterminated string");
+    try (BioCJsonDocumentReader reader = new BioCJsonDocumentReader(new StringReader(json))) {
+      reader.readDocument();
+    }
+  }
+
+  @Test
+  public void test_writeDocumentBeforeCollectionInfo()
+      throws Exception {
+    thrown.expect(IllegalStateException.class);
+    try (BioCJsonDocumentWriter writer = new BioCJsonDocumentWriter(new StringWriter())) {
+      writer.writeDocument(new BioCDocument("1"));
+    }
+  }
+
+  static String write(BioCCollection collection)
+      throws IOException {
+    StringWriter out = new StringWriter();
+    try (BioCJsonDocumentWriter writer = new BioCJsonDocumentWriter(out)) {
+      writer.writeBeginCollectionInfo(collection);
+      for (BioCDocument document : collection.getDocuments()) {
+        writer.writeDocument(document);
+      }
+    }
+    return out.toString();
+  }
+}
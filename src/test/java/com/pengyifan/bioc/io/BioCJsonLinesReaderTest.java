@@ -0,0 +1,132 @@
+package com.pengyifan.bioc.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+
+public class BioCJsonLinesReaderTest {
+
+  @Rule
+  public TemporaryFolder testFolder = new TemporaryFolder();
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void test_success()
+      throws Exception {
+    BioCCollection collection = BioCParallelDocumentReaderTest.newCollection(10);
+    collection.getDocument(0).getPassage(0).setText("two\nlines");
+    collection.putInfon("foo", "bar");
+    Path path = write(collection, "foo.jsonl");
+
+    List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+    assertEquals(11, lines.size());
+
+    try (BioCJsonLinesReader reader = new BioCJsonLinesReader(path)) {
+      BioCCollection info = reader.readCollectionInfo();
+      assertEquals(collection.getSource(), info.getSource());
+      assertEquals(collection.getKey(), info.getKey());
+      assertEquals(collection.getInfons(), info.getInfons());
+      for (BioCDocument expected : collection.getDocuments()) {
+        assertEquals(expected, reader.readDocument());
+      }
+      assertNull(reader.readDocument());
+    }
+  }
+
+  @Test
+  public void test_range()
+      throws Exception {
+    BioCCollection collection = BioCParallelDocumentReaderTest.newCollection(50);
+    Path path = write(collection, "foo.jsonl");
+    long size = Files.size(path);
+    for (int n : new int[] { 1, 2, 3, 7, 50, 200, (int) size }) {
+      List<BioCDocument> documents = new ArrayList<>();
+      for (int i = 0; i < n; i++) {
+        try (BioCJsonLinesReader reader = new BioCJsonLinesReader(path, size * i / n,
+            size * (i + 1) / n)) {
+          assertEquals(collection.getSource(), reader.readCollectionInfo().getSource());
+          BioCDocument document;
+          while ((document = reader.readDocument()) != null) {
+            documents.add(document);
+          }
+        }
+      }
+      assertEquals("n = " + n, collection.getDocuments(), documents);
+    }
+  }
+
+  @Test
+  public void test_documents()
+      throws Exception {
+    BioCCollection collection = BioCParallelDocumentReaderTest.newCollection(1000);
+    Path path = write(collection, "foo.jsonl.gz");
+    try (Stream<BioCDocument> documents = BioCJsonLinesReader.documents(path)) {
+      assertEquals(collection.getDocuments(),
+          documents.parallel().collect(Collectors.toList()));
+    }
+  }
+
+  @Test
+  public void test_blankLines()
+      throws Exception {
+    String jsonl = "{\"source\":\"s\"}\r\n\r\n{\"id\":\"1\"}\r\n  \n{\"id\":\"2\"}";
+    try (BioCJsonLinesReader reader = new BioCJsonLinesReader(
+        new ByteArrayInputStream(jsonl.getBytes(StandardCharsets.UTF_8)))) {
+      assertEquals("1", reader.readDocument().getID());
+      assertEquals("2", reader.readDocument().getID());
+      assertNull(reader.readDocument());
+    }
+  }
+
+  @Test
+  public void test_malformed()
+      throws Exception {
+    String jsonl = "{\"source\":\"s\"}\n{\"id\":\"1\"} {\"id\":\"2\"}\n";
+    thrown.expect(IOException.class);
+    thrown.expectMessage("in the line at byte 15");
+    try (BioCJsonLinesReader reader = new BioCJsonLinesReader(
+        new ByteArrayInputStream(jsonl.getBytes(StandardCharsets.UTF_8)))) {
+      reader.readDocument();
+    }
+  }
+
+  @Test
+  public void test_rangeOfCompressedFile()
+      throws Exception {
+    Path path = write(BioCParallelDocumentReaderTest.newCollection(1), "foo.jsonl.gz");
+    thrown.expect(IOException.class);
+    thrown.expectMessage("Cannot split a compressed file");
+    new BioCJsonLinesReader(path, 0, 10).close();
+  }
+
+  private Path write(BioCCollection collection, String filename)
+      throws IOException {
+    Path path = testFolder.newFile(filename).toPath();
+    try (BioCJsonLinesWriter writer = new BioCJsonLinesWriter(path)) {
+      writer.writeBeginCollectionInfo(collection);
+      for (BioCDocument document : collection.getDocuments()) {
+        writer.writeDocument(document);
+      }
+    }
+    return path;
+  }
+}
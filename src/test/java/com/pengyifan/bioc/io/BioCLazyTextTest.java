@@ -0,0 +1,158 @@
+package com.pengyifan.bioc.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+import com.pengyifan.bioc.BioCAnnotation;
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+import com.pengyifan.bioc.BioCPassage;
+
+public class BioCLazyTextTest {
+
+  private static final String XML_FILENAME = "xml/PMID-8557975-simplified-sentences.xml";
+
+  @Rule
+  public TemporaryFolder testFolder = new TemporaryFolder();
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void test_sameAsEager()
+      throws Exception {
+    URL url = this.getClass().getResource("/" + XML_FILENAME);
+    Path path = new File(url.getFile()).toPath();
+    assertEquals(readDocuments(path, false), readDocuments(path, true));
+
+    BioCCollection collection = BioCParallelDocumentReaderTest.newCollection(300);
+    collection.getDocument(7).getPassage(0).setText("café <&> \"quoted\"");
+    File file = testFolder.newFile();
+    BioCCollectionWriter writer = new BioCCollectionWriter(file);
+    writer.writeCollection(collection);
+    writer.close();
+    List<BioCDocument> documents = readDocuments(file.toPath(), true);
+    assertEquals(collection.getDocuments(), documents);
+    assertEquals(readDocuments(file.toPath(), false), documents);
+  }
+
+  @Test
+  public void test_rawText()
+      throws Exception {
+    String text = "a\r\nb\rc&#13;d&#x1F600;<!-- comment --><![CDATA[<e>\r\n]]>é";
+    String expected = "a\nb\nc\rd😀<e>\né";
+    for (Charset charset : new Charset[] { StandardCharsets.UTF_8,
+        StandardCharsets.ISO_8859_1, StandardCharsets.UTF_16 }) {
+      Path path = testFolder.newFile().toPath();
+      Files.write(path, ("<?xml version='1.0' encoding='" + charset.name() + "'?>"
+          + "<collection><source/><date/><key/><document><id>1</id>"
+          + "<passage><offset>0</offset><text>" + text + "</text>"
+          + "<annotation id='A'><text/></annotation>"
+          + "<annotation id='B'><text></text></annotation></passage>"
+          + "</document></collection>").getBytes(charset));
+      BioCPassage passage = readDocuments(path, true).get(0).getPassage(0);
+      assertEquals(charset.name(), expected, passage.getText().get());
+      for (BioCAnnotation annotation : passage.getAnnotations()) {
+        assertEquals("", annotation.getText().get());
+      }
+      assertEquals(readDocuments(path, false), readDocuments(path, true));
+    }
+  }
+
+  @Test
+  public void test_concurrentText()
+      throws Exception {
+    BioCCollection collection = BioCParallelDocumentReaderTest.newCollection(300);
+    File file = testFolder.newFile();
+    BioCCollectionWriter writer = new BioCCollectionWriter(file);
+    writer.writeCollection(collection);
+    writer.close();
+    List<BioCDocument> documents = readDocuments(file.toPath(), true);
+
+    int threads = 4;
+    CyclicBarrier barrier = new CyclicBarrier(threads);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Boolean>> results = Lists.newArrayList();
+      for (int i = 0; i < threads; i++) {
+        results.add(executor.submit(() -> {
+          barrier.await();
+          for (int j = 0; j < documents.size(); j++) {
+            BioCPassage expected = collection.getDocument(j).getPassage(0);
+            BioCPassage actual = documents.get(j).getPassage(0);
+            if (!expected.getText().equals(actual.getText())) {
+              return false;
+            }
+            for (int k = 0; k < actual.getAnnotations().size(); k++) {
+              if (!expected.getAnnotations().get(k).getText()
+                  .equals(actual.getAnnotations().get(k).getText())) {
+                return false;
+              }
+            }
+          }
+          return true;
+        }));
+      }
+      for (Future<Boolean> result : results) {
+        assertTrue(result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void test_unescape() {
+    assertEquals("abc", BioCLazyText.unescape("abc"));
+    assertEquals("<a&b>'\"", BioCLazyText.unescape("&lt;a&amp;b&gt;&apos;&quot;"));
+    assertEquals("Aé", BioCLazyText.unescape("&#65;&#xe9;"));
+    assertEquals("<x>", BioCLazyText.unescape("<?pi?><![CDATA[<x>]]><!---->"));
+  }
+
+  @Test
+  public void test_entityReference()
+      throws Exception {
+    Path path = testFolder.newFile().toPath();
+    Files.write(path, ("<?xml version='1.0' encoding='UTF-8'?>"
+        + "<!DOCTYPE collection [<!ENTITY foo 'bar'>]>"
+        + "<collection><source/><date/><key/><document><id>1</id>"
+        + "<passage><offset>0</offset><text>&foo;</text></passage>"
+        + "</document></collection>").getBytes(StandardCharsets.UTF_8));
+    thrown.expect(XMLStreamException.class);
+    readDocuments(path, true);
+  }
+
+  private static List<BioCDocument> readDocuments(Path path, boolean isLazyText)
+      throws Exception {
+    BioCReaderOptions options = new BioCReaderOptions();
+    options.setLazyText(isLazyText);
+    List<BioCDocument> documents = Lists.newArrayList();
+    try (BioCDocumentReader reader = new BioCDocumentReader(path, options)) {
+      BioCDocument document;
+      while ((document = reader.readDocument()) != null) {
+        documents.add(document);
+      }
+    }
+    return documents;
+  }
+}
@@ -0,0 +1,193 @@
+package com.pengyifan.bioc.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.io.Files;
+import com.pengyifan.bioc.BioCAnnotation;
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+import com.pengyifan.bioc.BioCLocation;
+import com.pengyifan.bioc.BioCPassage;
+
+public class BioCParallelDocumentReaderTest {
+
+  private static final String XML_FILENAME = "xml/PMID-8557975-simplified-sentences.xml";
+
+  @Rule
+  public TemporaryFolder testFolder = new TemporaryFolder();
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void test_success()
+      throws Exception {
+    for (String filename : new String[] { XML_FILENAME, "xml/everything.xml" }) {
+      File file = new File(this.getClass().getResource("/" + filename).getFile());
+      BioCCollectionReader reader = new BioCCollectionReader(file);
+      BioCCollection expected = reader.readCollection();
+      reader.close();
+
+      BioCParallelDocumentReader parallelReader = new BioCParallelDocumentReader(
+          file.toPath());
+      BioCCollection collection = parallelReader.readCollectionInfo();
+      assertEquals(collection.getDocmentCount(), 0);
+      collection.setDocuments(readAll(parallelReader));
+      parallelReader.close();
+      assertEquals(expected, collection);
+    }
+  }
+
+  @Test
+  public void test_ordered()
+      throws Exception {
+    BioCCollection expected = newCollection(200);
+    Path path = write(expected);
+
+    BioCParallelDocumentReader reader = new BioCParallelDocumentReader(path, 3, true);
+    assertEquals(expected.getSource(), reader.readCollectionInfo().getSource());
+    assertEquals(expected.getDocuments(), readAll(reader));
+    assertNull(reader.readDocument());
+    reader.close();
+  }
+
+  @Test
+  public void test_memoryMapped()
+      throws Exception {
+    BioCCollection expected = newCollection(200);
+    Path path = write(expected);
+
+    BioCParallelDocumentReader reader = new BioCParallelDocumentReader(path, 3, true, true);
+    assertEquals(expected.getSource(), reader.readCollectionInfo().getSource());
+    assertEquals(expected.getDocuments(), readAll(reader));
+    reader.close();
+  }
+
+  @Test
+  public void test_unordered()
+      throws Exception {
+    BioCCollection expected = newCollection(200);
+    Path path = write(expected);
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    BioCParallelDocumentReader reader = new BioCParallelDocumentReader(
+        new FileInputStream(path.toFile()), executor, 2, false);
+    List<BioCDocument> documents = readAll(reader);
+    reader.close();
+    executor.shutdown();
+
+    assertEquals(expected.getDocmentCount(), documents.size());
+    Set<BioCDocument> expectedSet = Sets.newHashSet(expected.getDocuments());
+    assertEquals(expectedSet, Sets.newHashSet(documents));
+  }
+
+  @Test
+  public void test_noDocument()
+      throws Exception {
+    Path path = write(newCollection(0));
+    BioCParallelDocumentReader reader = new BioCParallelDocumentReader(path);
+    assertEquals("source", reader.readCollectionInfo().getSource());
+    assertNull(reader.readDocument());
+    reader.close();
+  }
+
+  @Test
+  public void test_malformedDocument()
+      throws Exception {
+    File file = testFolder.newFile();
+    Files.asCharSink(file, StandardCharsets.UTF_8).write(
+        "<?xml version='1.0' encoding='UTF-8'?><collection><source/><date/><key/>"
+            + "<document><id>1</id><passage></document></collection>");
+    BioCParallelDocumentReader reader = new BioCParallelDocumentReader(file.toPath());
+    thrown.expect(XMLStreamException.class);
+    reader.readDocument();
+    reader.close();
+  }
+
+  @Test
+  public void test_truncatedFile()
+      throws Exception {
+    File file = testFolder.newFile();
+    StringBuilder xml = new StringBuilder(
+        "<?xml version='1.0' encoding='UTF-8'?><collection><source/><date/><key/>");
+    for (int i = 0; i < 20; i++) {
+      xml.append("<document><id>").append(i).append("</id></document>");
+    }
+    xml.append("<document><id>20</id>");
+    Files.asCharSink(file, StandardCharsets.UTF_8).write(xml);
+    for (boolean ordered : new boolean[] { true, false }) {
+      BioCParallelDocumentReader reader = new BioCParallelDocumentReader(file.toPath(), 1,
+          ordered);
+      int count = 0;
+      try {
+        while (reader.readDocument() != null) {
+          count++;
+        }
+        fail("The truncated document is read");
+      } catch (XMLStreamException e) {
+        // unordered documents may be parsed after the failure is found
+        assertTrue(ordered ? count == 20 : count <= 20);
+      }
+      assertNull(reader.readDocument());
+      reader.close();
+    }
+  }
+
+  private List<BioCDocument> readAll(BioCParallelDocumentReader reader)
+      throws XMLStreamException {
+    List<BioCDocument> documents = Lists.newArrayList();
+    BioCDocument doc = null;
+    while ((doc = reader.readDocument()) != null) {
+      documents.add(doc);
+    }
+    return documents;
+  }
+
+  private Path write(BioCCollection collection)
+      throws Exception {
+    File file = testFolder.newFile();
+    BioCCollectionWriter writer = new BioCCollectionWriter(file);
+    writer.writeCollection(collection);
+    writer.close();
+    return file.toPath();
+  }
+
+  static BioCCollection newCollection(int size) {
+    BioCCollection collection = new BioCCollection("source", "key");
+    for (int i = 0; i < size; i++) {
+      BioCDocument document = new BioCDocument("doc" + i);
+      document.putInfon("type", i % 2 == 0 ? "even" : "odd");
+      BioCPassage passage = new BioCPassage();
+      passage.setOffset(0);
+      passage.setText("text of document <" + i + "> & more");
+      BioCAnnotation annotation = new BioCAnnotation("A" + i);
+      annotation.addLocation(new BioCLocation(0, 4));
+      annotation.setText("text");
+      passage.addAnnotation(annotation);
+      document.addPassage(passage);
+      collection.addDocument(document);
+    }
+    return collection;
+  }
+}
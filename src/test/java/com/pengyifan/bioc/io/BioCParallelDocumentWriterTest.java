@@ -0,0 +1,133 @@
+package com.pengyifan.bioc.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.io.Files;
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+
+public class BioCParallelDocumentWriterTest {
+
+  @Rule
+  public TemporaryFolder testFolder = new TemporaryFolder();
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void test_success()
+      throws Exception {
+    BioCCollection collection = BioCParallelDocumentReaderTest.newCollection(500);
+    File file = testFolder.newFile();
+    BioCParallelDocumentWriter writer = new BioCParallelDocumentWriter(file.toPath());
+    writer.writeBeginCollectionInfo(collection);
+    for (BioCDocument document : collection.getDocuments()) {
+      writer.writeDocument(document);
+    }
+    writer.close();
+
+    assertEquals(write(collection, new BioCWriterOptions()),
+        Files.asCharSource(file, StandardCharsets.UTF_8).read());
+    BioCCollectionReader reader = new BioCCollectionReader(file);
+    assertEquals(collection.getDocuments(), reader.readCollection().getDocuments());
+    reader.close();
+  }
+
+  @Test
+  public void test_encoding()
+      throws Exception {
+    for (Charset charset : new Charset[] { StandardCharsets.UTF_16,
+        StandardCharsets.UTF_16LE, StandardCharsets.ISO_8859_1 }) {
+      BioCCollection collection = BioCParallelDocumentReaderTest.newCollection(50);
+      collection.setEncoding(charset.name());
+      collection.getDocument(7).getPassage(0).setText("café");
+      File file = testFolder.newFile();
+      BioCParallelDocumentWriter writer = new BioCParallelDocumentWriter(file.toPath());
+      writer.writeBeginCollectionInfo(collection);
+      for (BioCDocument document : collection.getDocuments()) {
+        writer.writeDocument(document);
+      }
+      writer.close();
+
+      assertEquals(charset.name(), write(collection, new BioCWriterOptions()),
+          Files.asCharSource(file, charset).read());
+      BioCCollectionReader reader = new BioCCollectionReader(file);
+      assertEquals(charset.name(), collection.getDocuments(),
+          reader.readCollection().getDocuments());
+      reader.close();
+    }
+  }
+
+  @Test
+  public void test_options()
+      throws Exception {
+    BioCCollection collection = BioCParallelDocumentReaderTest.newCollection(100);
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    for (BioCEngine engine : BioCEngine.values()) {
+      for (boolean compact : new boolean[] { false, true }) {
+        BioCWriterOptions options = new BioCWriterOptions();
+        options.setEngine(engine);
+        options.setCompact(compact);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BioCParallelDocumentWriter writer = new BioCParallelDocumentWriter(out, options,
+            executor, 3);
+        writer.writeBeginCollectionInfo(collection);
+        for (BioCDocument document : collection.getDocuments()) {
+          writer.writeDocument(document);
+        }
+        writer.close();
+        assertEquals(write(collection, options), out.toString("UTF-8"));
+      }
+    }
+    executor.shutdown();
+  }
+
+  @Test
+  public void test_noDocument()
+      throws Exception {
+    BioCCollection collection = BioCParallelDocumentReaderTest.newCollection(0);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    BioCParallelDocumentWriter writer = new BioCParallelDocumentWriter(out,
+        new BioCWriterOptions(), executor, 1);
+    writer.writeBeginCollectionInfo(collection);
+    writer.close();
+    executor.shutdown();
+    assertEquals(write(collection, new BioCWriterOptions()), out.toString("UTF-8"));
+  }
+
+  @Test
+  public void test_writeDocumentBeforeCollectionInfo()
+      throws Exception {
+    BioCParallelDocumentWriter writer = new BioCParallelDocumentWriter(
+        testFolder.newFile().toPath());
+    thrown.expect(IllegalStateException.class);
+    writer.writeDocument(new BioCDocument("1"));
+  }
+
+  private String write(BioCCollection collection, BioCWriterOptions options)
+      throws Exception {
+    StringWriter out = new StringWriter();
+    BioCDocumentWriter writer = new BioCDocumentWriter(out, options);
+    writer.writeBeginCollectionInfo(collection);
+    for (BioCDocument document : collection.getDocuments()) {
+      writer.writeDocument(document);
+    }
+    writer.close();
+    return out.toString();
+  }
+}
@@ -0,0 +1,87 @@
+package com.pengyifan.bioc.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.StringReader;
+import java.net.URL;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+import com.pengyifan.bioc.BioCPassage;
+
+public class BioCPassageReaderTest {
+
+  private static final String XML_FILENAME = "xml/PMID-8557975-simplified-sentences.xml";
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void test_success()
+      throws Exception {
+    URL url = this.getClass().getResource("/" + XML_FILENAME);
+    File file = new File(url.getFile());
+    test(new BioCPassageReader(new FileInputStream(file)));
+    test(new BioCPassageReader(new FileReader(file)));
+    test(new BioCPassageReader(file));
+    test(new BioCPassageReader(file.toPath()));
+    test(new BioCPassageReader(file.getAbsolutePath()));
+    test(new BioCPassageReader(new FileReader(file), BioCEngine.EVENT));
+  }
+
+  @Test
+  public void test_sameAsDocumentReader()
+      throws Exception {
+    URL url = this.getClass().getResource("/" + XML_FILENAME);
+    BioCDocumentReader documentReader = new BioCDocumentReader(url.getFile());
+    BioCDocument expected = documentReader.readDocument();
+    documentReader.close();
+
+    BioCPassageReader reader = new BioCPassageReader(url.getFile());
+    BioCPassage passage = reader.readPassage();
+    assertEquals(expected.getPassage(0), passage);
+    assertEquals(expected.getID(), reader.getDocumentInfo().getID());
+    assertEquals(expected.getInfons(), reader.getDocumentInfo().getInfons());
+    reader.close();
+  }
+
+  @Test
+  public void test_emptyReader()
+      throws Exception {
+    thrown.expect(XMLStreamException.class);
+    BioCPassageReader reader = new BioCPassageReader(new StringReader(""));
+    reader.readCollectionInfo();
+    reader.close();
+  }
+
+  private void test(BioCPassageReader reader)
+      throws Exception {
+    BioCCollection collection = reader.readCollectionInfo();
+    assertEquals(collection.getDocmentCount(), 0);
+    assertEquals(collection.getSource(), "PubMed");
+    assertNull(reader.getDocumentInfo());
+
+    int count = 0;
+    BioCPassage passage = null;
+    while ((passage = reader.readPassage()) != null) {
+      BioCDocument document = reader.getDocumentInfo();
+      assertEquals(document.getID(), "8557975");
+      assertEquals(document.getPassageCount(), 0);
+      assertEquals(passage.getSentenceCount(), 7);
+      count++;
+    }
+    assertEquals(count, 1);
+    assertEquals(reader.readCollectionInfo().getDocmentCount(), 0);
+    reader.close();
+  }
+}
@@ -0,0 +1,80 @@
+package com.pengyifan.bioc.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.pengyifan.bioc.BioCCollection;
+
+public class BioCRandomAccessDocumentReaderTest {
+
+  private static final String XML_FILENAME = "xml/PMID-8557975-simplified-sentences.xml";
+
+  @Rule
+  public TemporaryFolder testFolder = new TemporaryFolder();
+
+  @Test
+  public void test_success()
+      throws Exception {
+    File file = new File(this.getClass().getResource("/" + XML_FILENAME).getFile());
+    BioCCollectionReader collectionReader = new BioCCollectionReader(file);
+    BioCCollection expected = collectionReader.readCollection();
+    collectionReader.close();
+
+    BioCRandomAccessDocumentReader reader = new BioCRandomAccessDocumentReader(file.toPath());
+    assertEquals(expected.getSource(), reader.readCollectionInfo().getSource());
+    assertEquals(expected.getKey(), reader.readCollectionInfo().getKey());
+    assertEquals(1, reader.getIndex().size());
+    assertEquals("8557975", reader.getIndex().getID(0));
+    assertEquals(expected.getDocument(0), reader.readDocument(0));
+    assertEquals(expected.getDocument(0), reader.readDocument("8557975").get());
+    assertFalse(reader.readDocument("foo").isPresent());
+    reader.close();
+  }
+
+  @Test
+  public void test_index()
+      throws Exception {
+    BioCCollection expected = BioCParallelDocumentReaderTest.newCollection(100);
+    File file = testFolder.newFile();
+    BioCCollectionWriter writer = new BioCCollectionWriter(file);
+    writer.writeCollection(expected);
+    writer.close();
+    Path path = file.toPath();
+
+    BioCDocumentIndex index = BioCDocumentIndex.build(path);
+    assertEquals(100, index.size());
+    assertTrue(index.isUpToDate(path));
+
+    Path indexPath = BioCDocumentIndex.getIndexPath(path);
+    index.write(indexPath);
+    BioCDocumentIndex index2 = BioCDocumentIndex.read(indexPath);
+    assertEquals(index.size(), index2.size());
+    for (int i = 0; i < index.size(); i++) {
+      assertEquals(index.getID(i), index2.getID(i));
+      assertEquals(index.getOffset(i), index2.getOffset(i));
+      assertEquals(index.getLength(i), index2.getLength(i));
+    }
+    assertEquals(42, index2.indexOf("doc42").getAsInt());
+
+    BioCDocumentIndex mappedIndex = BioCDocumentIndex.build(path, true);
+    assertEquals(index.size(), mappedIndex.size());
+    for (int i = 0; i < index.size(); i++) {
+      assertEquals(index.getOffset(i), mappedIndex.getOffset(i));
+      assertEquals(index.getLength(i), mappedIndex.getLength(i));
+    }
+
+    BioCRandomAccessDocumentReader reader = new BioCRandomAccessDocumentReader(path);
+    for (int i = 99; i >= 0; i--) {
+      assertEquals(expected.getDocument(i), reader.readDocument("doc" + i).get());
+    }
+    reader.close();
+  }
+}
@@ -0,0 +1,77 @@
+package com.pengyifan.bioc.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.net.URL;
+
+import org.junit.Test;
+
+import com.pengyifan.bioc.BioCCollection;
+import com.pengyifan.bioc.BioCDocument;
+import com.pengyifan.bioc.BioCPassage;
+import com.pengyifan.bioc.BioCSentence;
+
+public class BioCSentenceReaderTest {
+
+  private static final String XML_FILENAME = "xml/PMID-8557975-simplified-sentences.xml";
+
+  @Test
+  public void test_success()
+      throws Exception {
+    URL url = this.getClass().getResource("/" + XML_FILENAME);
+    File file = new File(url.getFile());
+    test(new BioCSentenceReader(new FileInputStream(file)));
+    test(new BioCSentenceReader(new FileReader(file)));
+    test(new BioCSentenceReader(file));
+    test(new BioCSentenceReader(file.toPath()));
+    test(new BioCSentenceReader(file.getAbsolutePath()));
+    test(new BioCSentenceReader(new FileReader(file), BioCEngine.EVENT));
+  }
+
+  @Test
+  public void test_sameAsDocumentReader()
+      throws Exception {
+    URL url = this.getClass().getResource("/" + XML_FILENAME);
+    BioCDocumentReader documentReader = new BioCDocumentReader(url.getFile());
+    BioCPassage expected = documentReader.readDocument().getPassage(0);
+    documentReader.close();
+
+    BioCSentenceReader reader = new BioCSentenceReader(url.getFile());
+    for (BioCSentence sentence : expected.getSentences()) {
+      assertEquals(sentence, reader.readSentence());
+      assertEquals(expected.getInfons(), reader.getPassageInfo().getInfons());
+      assertEquals(expected.getOffset(), reader.getPassageInfo().getOffset());
+    }
+    assertNull(reader.readSentence());
+    reader.close();
+  }
+
+  private void test(BioCSentenceReader reader)
+      throws Exception {
+    BioCCollection collection = reader.readCollectionInfo();
+    assertEquals(collection.getDocmentCount(), 0);
+    assertEquals(collection.getSource(), "PubMed");
+
+    int count = 0;
+    BioCSentence sentence = null;
+    BioCPassage passage = null;
+    while ((sentence = reader.readSentence()) != null) {
+      if (passage != null) {
+        assertSame(passage, reader.getPassageInfo());
+      }
+      passage = reader.getPassageInfo();
+      assertEquals(passage.getSentenceCount(), 0);
+      BioCDocument document = reader.getDocumentInfo();
+      assertEquals(document.getID(), "8557975");
+      assertEquals(document.getPassageCount(), 0);
+      count++;
+    }
+    assertEquals(count, 7);
+    reader.close();
+  }
+}
@@ -0,0 +1,94 @@
+package com.pengyifan.bioc.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.stream.XMLOutputFactory;
+
+import org.codehaus.stax2.XMLInputFactory2;
+import org.codehaus.stax2.evt.XMLEventFactory2;
+import org.junit.Test;
+
+import com.pengyifan.bioc.BioCCollection;
+
+public class BioCXMLFactoriesTest {
+
+  private static final String XML = "<?xml version='1.0' encoding='UTF-8'?>"
+      + "<collection><source>s</source><date/><key/>"
+      + "<document><id>1</id></document></collection>";
+
+  @Test
+  public void test_default() {
+    assertSame(BioCXMLFactories.getDefault(), BioCXMLFactories.getDefault());
+    assertSame(BioCXMLFactories.getDefault(), new BioCReaderOptions().getFactories());
+    assertSame(BioCXMLFactories.getDefault(), new BioCWriterOptions().getFactories());
+  }
+
+  @Test
+  public void test_readerOptions()
+      throws Exception {
+    // the default factory closes the input
+    ClosingInputStream in = new ClosingInputStream();
+    BioCDocumentReader reader = new BioCDocumentReader(in);
+    assertEquals("1", reader.readDocument().getID());
+    reader.close();
+    assertTrue(in.isClosed);
+
+    XMLInputFactory2 inputFactory = BioCXMLFactories.newInputFactory();
+    inputFactory.setProperty(XMLInputFactory2.P_AUTO_CLOSE_INPUT, false);
+    BioCReaderOptions options = new BioCReaderOptions();
+    options.setFactories(new BioCXMLFactories(inputFactory, XMLOutputFactory.newInstance(),
+        (XMLEventFactory2) XMLEventFactory2.newInstance()));
+    for (BioCEngine engine : BioCEngine.values()) {
+      options.setEngine(engine);
+      in = new ClosingInputStream();
+      reader = new BioCDocumentReader(in, options);
+      assertEquals("1", reader.readDocument().getID());
+      reader.close();
+      assertFalse(in.isClosed);
+    }
+  }
+
+  @Test
+  public void test_writerOptions()
+      throws Exception {
+    BioCCollection collection = new BioCCollection();
+    collection.setSource("s");
+
+    XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+    outputFactory.setProperty("com.ctc.wstx.useDoubleQuotesInXmlDecl", true);
+    BioCWriterOptions options = new BioCWriterOptions();
+    options.setFactories(new BioCXMLFactories(BioCXMLFactories.newInputFactory(),
+        outputFactory, (XMLEventFactory2) XMLEventFactory2.newInstance()));
+    for (BioCEngine engine : BioCEngine.values()) {
+      options.setEngine(engine);
+      StringWriter out = new StringWriter();
+      BioCCollectionWriter writer = new BioCCollectionWriter(out, options);
+      writer.writeCollection(collection);
+      writer.close();
+      assertTrue(out.toString(), out.toString().startsWith("<?xml version=\"1.0\""));
+    }
+  }
+
+  private static class ClosingInputStream extends ByteArrayInputStream {
+
+    private boolean isClosed;
+
+    private ClosingInputStream() {
+      super(XML.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void close()
+        throws IOException {
+      isClosed = true;
+    }
+  }
+}
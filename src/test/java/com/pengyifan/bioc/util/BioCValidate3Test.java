@@ -126,6 +126,18 @@ public class BioCValidate3Test {
     v.check(d);
   }
 
+  @Test
+  public void testAnnotationEmptyLocation() {
+    BioCAnnotation a = new BioCAnnotation();
+    a.setID("T3");
+    a.addLocation(new BioCLocation(0, 2));
+    a.addLocation(new BioCLocation(5, 0));
+    a.setText("01");
+    d.addAnnotation(a);
+    v.setThrowException(true);
+    v.check(d);
+  }
+
   @Test
   public void testAnnotation2() {
     v.check(d);